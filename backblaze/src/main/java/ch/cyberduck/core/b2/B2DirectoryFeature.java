@@ -68,8 +68,10 @@ public class B2DirectoryFeature implements Directory<BaseB2Response> {
                     case allPublic:
                         folder.attributes().setAcl(new Acl(new Acl.GroupUser(Acl.GroupUser.EVERYONE, false), new Acl.Role(Acl.Role.READ)));
                 }
-                return new Path(folder.getParent(), folder.getName(), folder.getType(),
-                        new PathAttributes(folder.attributes()));
+                final Path bucket = new Path(folder.getParent(), folder.getName(), folder.getType(),
+                        new PathAttributes(folder.attributes()).withVersionId(response.getBucketId()));
+                session.getFileidCache().cache(bucket);
+                return bucket;
             }
             else {
                 if(Checksum.NONE == status.getChecksum()) {
@@ -32,6 +32,7 @@ import ch.cyberduck.core.features.IdProvider;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
+import java.util.concurrent.Callable;
 
 import synapticloop.b2.exception.B2ApiException;
 import synapticloop.b2.response.B2FileInfoResponse;
@@ -55,6 +56,15 @@ public class B2FileidProvider implements IdProvider {
         if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
             return file.attributes().getVersionId();
         }
+        return session.getFileidCache().lookup(file, new Callable<String>() {
+            @Override
+            public String call() throws BackgroundException {
+                return load(file, listener);
+            }
+        });
+    }
+
+    private String load(final Path file, final ListProgressListener listener) throws BackgroundException {
         if(containerService.isContainer(file)) {
             final AttributedList<Path> list;
             if(!cache.isCached(file.getParent())) {
@@ -82,7 +92,12 @@ public class B2FileidProvider implements IdProvider {
             throw new NotfoundException(file.getAbsolute());
         }
         catch(B2ApiException e) {
-            throw new B2ExceptionMappingService().map(e);
+            final BackgroundException failure = new B2ExceptionMappingService().map(e);
+            if(failure instanceof NotfoundException) {
+                // Cached identifier of bucket no longer found
+                session.getFileidCache().invalidate(containerService.getContainer(file));
+            }
+            throw failure;
         }
         catch(IOException e) {
             throw new DefaultIOExceptionMappingService().map(e);
@@ -22,15 +22,19 @@ import ch.cyberduck.core.Local;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ChecksumException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.io.SHA1ChecksumCompute;
 import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
+import ch.cyberduck.core.io.TreeChecksumCompute;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
 import ch.cyberduck.core.threading.DefaultThreadPool;
@@ -94,6 +98,8 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                                  final StreamListener listener,
                                  final TransferStatus status,
                                  final ConnectionCallback callback) throws BackgroundException {
+        // Upload adds new version
+        session.getFileidCache().invalidate(file);
         final DefaultThreadPool pool = new DefaultThreadPool("largeupload", concurrency);
         try {
             final String fileid;
@@ -106,7 +112,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
             if(Checksum.NONE != checksum) {
                 switch(checksum.algorithm) {
                     case sha1:
-                        fileinfo.put(X_BZ_INFO_LARGE_FILE_SHA1, status.getChecksum().hash);
+                        fileinfo.put(X_BZ_INFO_LARGE_FILE_SHA1, checksum.hash);
                         break;
                 }
             }
@@ -194,6 +200,8 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                 checksums.add(part.getContentSha1());
             }
             final B2FinishLargeFileResponse response = session.getClient().finishLargeFileUpload(fileid, checksums.toArray(new String[checksums.size()]));
+            // Replace identifier of previous version possibly looked up during upload
+            session.getFileidCache().cache(file, response.getFileId());
             if(log.isInfoEnabled()) {
                 log.info(String.format("Finished large file upload %s with %d parts", file, completed.size()));
             }
@@ -228,9 +236,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                         .skip(offset);
                 status.setHeader(overall.getHeader());
                 status.setNonces(overall.getNonces());
-                status.setChecksum(writer.checksum(file).compute(
-                        StreamCopier.skip(new BoundedInputStream(local.getInputStream(), offset + length), offset),
-                        status));
+                status.setChecksum(B2LargeUploadService.this.checksum(file, local, offset, length, status));
                 status.setSegment(true);
                 status.setPart(partNumber);
                 return (B2UploadPartResponse) B2LargeUploadService.super.upload(file, local, throttle, listener, status, overall, new StreamProgress() {
@@ -250,6 +256,23 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
         }, overall));
     }
 
+    /**
+     * Compute SHA-1 digest of part from region of file. Computed with the part upload so that uploads start as
+     * soon as their own digest is available.
+     */
+    private Checksum checksum(final Path file, final Local local, final long offset, final long length, final TransferStatus status) throws BackgroundException {
+        if(writer.checksum(file) instanceof SHA1ChecksumCompute) {
+            try {
+                return new TreeChecksumCompute().compute(local, HashAlgorithm.sha1, offset, length);
+            }
+            catch(ChecksumException e) {
+                log.warn(String.format("Failure computing checksum of part for %s. %s", local, e.getDetail()));
+            }
+        }
+        return writer.checksum(file)
+                .compute(StreamCopier.skip(new BoundedInputStream(local.getInputStream(), offset + length), offset), status);
+    }
+
     @Override
     public Upload<BaseB2Response> withWriter(final Write<BaseB2Response> writer) {
         this.writer = writer;
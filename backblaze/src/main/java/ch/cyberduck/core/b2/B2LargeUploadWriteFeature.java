@@ -89,6 +89,8 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
 
     @Override
     public StatusOutputStream<VersionId> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        // Upload adds new version
+        session.getFileidCache().invalidate(file);
         final LargeUploadOutputStream proxy = new LargeUploadOutputStream(file, status);
         return new HttpResponseOutputStream<VersionId>(new MemorySegementingOutputStream(proxy,
             PreferencesFactory.get().getInteger("b2.upload.largeobject.size.minimum"))) {
@@ -157,6 +159,7 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
                         log.debug(String.format("Upload finished for %s with response %s", file, response));
                     }
                     version = new VersionId(response.getFileId());
+                    session.getFileidCache().cache(file, version.id);
                 }
                 else {
                     if(0 == partNumber) {
@@ -228,6 +231,7 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
                         checksums.add(part.getContentSha1());
                     }
                     final B2FinishLargeFileResponse response = session.getClient().finishLargeFileUpload(version.id, checksums.toArray(new String[checksums.size()]));
+                    session.getFileidCache().cache(file, response.getFileId());
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Finished large file upload %s with %d parts", file, completed.size()));
                     }
@@ -96,6 +96,7 @@ public class B2ObjectListService implements ListService {
                 listener.chunk(directory, objects);
             }
             while(marker.hasNext());
+            session.getFileidCache().cache(objects);
             return objects;
         }
         catch(B2ApiException e) {
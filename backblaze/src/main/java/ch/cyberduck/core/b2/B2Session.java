@@ -17,6 +17,7 @@ package ch.cyberduck.core.b2;
 
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.FileidCache;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostKeyCallback;
 import ch.cyberduck.core.HostPasswordStore;
@@ -48,6 +49,8 @@ public class B2Session extends HttpSession<B2ApiClient> {
     private final B2ErrorResponseInterceptor retryHandler = new B2ErrorResponseInterceptor(
             this);
 
+    private final FileidCache fileid = FileidCache.get(host);
+
     public B2Session(final Host host) {
         super(host, new ThreadLocalHostnameDelegatingTrustManager(new DisabledX509TrustManager(), host.getHostname()), new DefaultX509KeyManager());
     }
@@ -82,6 +85,10 @@ public class B2Session extends HttpSession<B2ApiClient> {
         }
     }
 
+    public FileidCache getFileidCache() {
+        return fileid;
+    }
+
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         return new B2ListService(this, new B2FileidProvider(this)).list(directory, listener);
@@ -38,9 +38,12 @@ import static ch.cyberduck.core.b2.B2MetadataFeature.X_BZ_INFO_SRC_LAST_MODIFIED
 
 public class B2TouchFeature implements Touch<BaseB2Response> {
 
+    private final B2Session session;
+
     private Write<BaseB2Response> writer;
 
     public B2TouchFeature(final B2Session session) {
+        this.session = session;
         this.writer = new B2WriteFeature(session);
     }
 
@@ -55,8 +58,10 @@ public class B2TouchFeature implements Touch<BaseB2Response> {
         );
         final StatusOutputStream<BaseB2Response> out = writer.write(file, status, new DisabledConnectionCallback());
         new DefaultStreamCloser().close(out);
-        return new Path(file.getParent(), file.getName(), file.getType(),
+        final Path touched = new Path(file.getParent(), file.getName(), file.getType(),
                 new PathAttributes(file.attributes()).withVersionId(((B2FileResponse) out.getStatus()).getFileId()));
+        session.getFileidCache().cache(touched);
+        return touched;
     }
 
     @Override
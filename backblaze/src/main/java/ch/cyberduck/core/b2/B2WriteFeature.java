@@ -49,6 +49,7 @@ import java.util.Map;
 
 import synapticloop.b2.exception.B2ApiException;
 import synapticloop.b2.response.B2FileInfoResponse;
+import synapticloop.b2.response.B2FileResponse;
 import synapticloop.b2.response.B2GetUploadPartUrlResponse;
 import synapticloop.b2.response.B2GetUploadUrlResponse;
 import synapticloop.b2.response.B2UploadPartResponse;
@@ -84,6 +85,10 @@ public class B2WriteFeature extends AbstractHttpWriteFeature<BaseB2Response> imp
 
     @Override
     public HttpResponseOutputStream<BaseB2Response> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        if(!status.isSegment()) {
+            // Upload adds new version
+            session.getFileidCache().invalidate(file);
+        }
         // Submit store call to background thread
         final DelayedHttpEntityCallable<BaseB2Response> command = new DelayedHttpEntityCallable<BaseB2Response>() {
             /**
@@ -118,11 +123,14 @@ public class B2WriteFeature extends AbstractHttpWriteFeature<BaseB2Response> imp
                             if(null != status.getTimestamp()) {
                                 fileinfo.put(X_BZ_INFO_SRC_LAST_MODIFIED_MILLIS, String.valueOf(status.getTimestamp()));
                             }
-                            return session.getClient().uploadFile(uploadUrl,
+                            final B2FileResponse response = session.getClient().uploadFile(uploadUrl,
                                     containerService.getKey(file),
                                     entity, Checksum.NONE == checksum ? "do_not_verify" : checksum.hash,
                                     status.getMime(),
                                     fileinfo);
+                            // Replace identifier of previous version possibly looked up during upload
+                            session.getFileidCache().cache(file, response.getFileId());
+                            return response;
                         }
                         catch(B2ApiException e) {
                             urls.remove();
@@ -0,0 +1,92 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.ui.browser.RegexFilter;
+import ch.cyberduck.ui.comparator.FilenameComparator;
+import ch.cyberduck.ui.comparator.SizeComparator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AttributedListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private Path[] files;
+
+    private AttributedList<Path> list;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Path directory = new Path("/benchmark", EnumSet.of(Path.Type.directory));
+        files = new Path[size];
+        for(int i = 0; i < size; i++) {
+            final Path file = new Path(directory, String.format(i % 10 == 0 ? ".f-%d" : "f-%d", size - i), EnumSet.of(Path.Type.file));
+            file.attributes().setSize(i);
+            files[i] = file;
+        }
+        list = this.add();
+    }
+
+    @Benchmark
+    public AttributedList<Path> add() {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        for(Path file : files) {
+            list.add(file);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public AttributedList<Path> filter() {
+        return list.filter(new RegexFilter());
+    }
+
+    @Benchmark
+    public AttributedList<Path> sortFilename() {
+        return list.filter(new FilenameComparator(true));
+    }
+
+    @Benchmark
+    public AttributedList<Path> sortSize() {
+        return list.filter(new SizeComparator(false), new RegexFilter());
+    }
+
+    @Benchmark
+    public Path get() {
+        return list.get(files[size / 2]);
+    }
+}
@@ -0,0 +1,69 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of {@link Path} and {@link PathAttributes}. Run with {@code -prof gc} to report allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PathBenchmark {
+
+    private final Path directory = new Path("/benchmark/directory", EnumSet.of(Path.Type.directory));
+
+    private final PathAttributes attributes = new PathAttributes();
+
+    {
+        attributes.setSize(1024L);
+        attributes.setModificationDate(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public Path path() {
+        return new Path(directory, "file", EnumSet.of(Path.Type.file));
+    }
+
+    @Benchmark
+    public Path absolute() {
+        return new Path("/benchmark/directory/file", EnumSet.of(Path.Type.file));
+    }
+
+    @Benchmark
+    public PathAttributes attributes() {
+        return new PathAttributes();
+    }
+
+    @Benchmark
+    public PathAttributes copy() {
+        return new PathAttributes(attributes);
+    }
+}
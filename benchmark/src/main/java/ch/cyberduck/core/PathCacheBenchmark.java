@@ -0,0 +1,97 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Put and lookup in {@link AbstractCache} using the directory listing cache implementation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PathCacheBenchmark {
+
+    @Param({"100", "1000"})
+    public int directories;
+
+    @Param({"100"})
+    public int children;
+
+    private Path[] parents;
+
+    private AttributedList<Path>[] lists;
+
+    private PathCache cache;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        parents = new Path[directories];
+        lists = new AttributedList[directories];
+        for(int i = 0; i < directories; i++) {
+            parents[i] = new Path(String.format("/d-%d", i), EnumSet.of(Path.Type.directory));
+            lists[i] = new AttributedList<Path>();
+            for(int j = 0; j < children; j++) {
+                lists[i].add(new Path(parents[i], String.format("f-%d", j), EnumSet.of(Path.Type.file)));
+            }
+        }
+        cache = this.put();
+    }
+
+    @Benchmark
+    public PathCache put() {
+        final PathCache cache = new PathCache(directories);
+        for(int i = 0; i < directories; i++) {
+            cache.put(parents[i], lists[i]);
+        }
+        return cache;
+    }
+
+    @Benchmark
+    public Path lookup() {
+        Path found = null;
+        for(int i = 0; i < directories; i++) {
+            found = cache.lookup(new DefaultPathPredicate(lists[i].get(children / 2)));
+        }
+        return found;
+    }
+
+    @Benchmark
+    public AttributedList<Path> get() {
+        AttributedList<Path> found = null;
+        for(Path parent : parents) {
+            found = cache.get(parent);
+        }
+        return found;
+    }
+}
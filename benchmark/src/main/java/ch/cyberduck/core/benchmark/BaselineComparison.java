@@ -0,0 +1,154 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compare results in JMH JSON format with a stored baseline
+ */
+public final class BaselineComparison {
+
+    /**
+     * Relative change of score tolerated
+     */
+    private final double threshold;
+
+    public BaselineComparison(final double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * @param baseline Stored results
+     * @param current  Results of this run
+     * @return Benchmarks found in both results
+     */
+    public List<Difference> compare(final Reader baseline, final Reader current) {
+        final Map<String, Score> reference = this.parse(baseline);
+        final List<Difference> differences = new ArrayList<Difference>();
+        for(Map.Entry<String, Score> entry : this.parse(current).entrySet()) {
+            final Score previous = reference.get(entry.getKey());
+            if(null == previous) {
+                continue;
+            }
+            final Score score = entry.getValue();
+            if(!previous.mode.equals(score.mode) || !previous.unit.equals(score.unit)) {
+                continue;
+            }
+            final double change = 0 == previous.score ? 0 : (score.score - previous.score) / previous.score;
+            final boolean regression;
+            if("thrpt".equals(score.mode)) {
+                // Higher is better
+                regression = change < -threshold;
+            }
+            else {
+                // Time per operation
+                regression = change > threshold;
+            }
+            differences.add(new Difference(entry.getKey(), score.unit, previous.score, score.score, change, regression));
+        }
+        return differences;
+    }
+
+    private Map<String, Score> parse(final Reader reader) {
+        final Map<String, Score> scores = new LinkedHashMap<String, Score>();
+        final JsonArray results = new JsonParser().parse(reader).getAsJsonArray();
+        for(JsonElement element : results) {
+            final JsonObject result = element.getAsJsonObject();
+            final StringBuilder key = new StringBuilder(result.get("benchmark").getAsString());
+            if(result.has("params")) {
+                final Map<String, String> params = new TreeMap<String, String>();
+                for(Map.Entry<String, JsonElement> param : result.getAsJsonObject("params").entrySet()) {
+                    params.put(param.getKey(), param.getValue().getAsString());
+                }
+                key.append(params);
+            }
+            final JsonObject metric = result.getAsJsonObject("primaryMetric");
+            scores.put(key.toString(), new Score(result.get("mode").getAsString(),
+                    metric.get("score").getAsDouble(), metric.get("scoreUnit").getAsString()));
+        }
+        return scores;
+    }
+
+    private static final class Score {
+        private final String mode;
+        private final double score;
+        private final String unit;
+
+        public Score(final String mode, final double score, final String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.unit = unit;
+        }
+    }
+
+    public static final class Difference {
+        private final String benchmark;
+        private final String unit;
+        private final double baseline;
+        private final double score;
+        private final double change;
+        private final boolean regression;
+
+        public Difference(final String benchmark, final String unit, final double baseline, final double score,
+                          final double change, final boolean regression) {
+            this.benchmark = benchmark;
+            this.unit = unit;
+            this.baseline = baseline;
+            this.score = score;
+            this.change = change;
+            this.regression = regression;
+        }
+
+        public String getBenchmark() {
+            return benchmark;
+        }
+
+        public double getBaseline() {
+            return baseline;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        /**
+         * @return Relative change of score compared to baseline
+         */
+        public double getChange() {
+            return change;
+        }
+
+        public boolean isRegression() {
+            return regression;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s %.3f -> %.3f %s (%+.1f%%)", regression ? "REGRESSION" : "OK        ",
+                    benchmark, baseline, score, unit, change * 100);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Run benchmarks with results written as JSON and optionally compare with a stored baseline.
+ * <p>
+ * Usage: {@code java -jar benchmarks.jar [--output results.json] [--baseline baseline.json] [--threshold 0.1]
+ * [--compare results.json] [JMH options]}. With {@code --compare} no benchmarks are run and the given results
+ * are compared with the baseline. Exits with status 1 if any benchmark regressed by more than the threshold.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        //
+    }
+
+    public static void main(final String[] args) throws Exception {
+        String output = "benchmark.json";
+        String baseline = null;
+        String compare = null;
+        double threshold = 0.1;
+        final List<String> options = new ArrayList<String>();
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "--output":
+                    output = args[++i];
+                    break;
+                case "--baseline":
+                    baseline = args[++i];
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(args[++i]);
+                    break;
+                case "--compare":
+                    compare = args[++i];
+                    break;
+                default:
+                    options.add(args[i]);
+            }
+        }
+        final File results;
+        if(null == compare) {
+            new Runner(new OptionsBuilder()
+                    .parent(new CommandLineOptions(options.toArray(new String[options.size()])))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(output)
+                    .build()).run();
+            results = new File(output);
+        }
+        else {
+            results = new File(compare);
+        }
+        if(null == baseline) {
+            return;
+        }
+        if(!new File(baseline).exists()) {
+            System.out.println(String.format("No baseline %s found. Copy %s to store a baseline.", baseline, results));
+            return;
+        }
+        final Reader reference = new InputStreamReader(new FileInputStream(baseline), StandardCharsets.UTF_8);
+        final Reader current = new InputStreamReader(new FileInputStream(results), StandardCharsets.UTF_8);
+        final List<BaselineComparison.Difference> differences;
+        try {
+            differences = new BaselineComparison(threshold).compare(reference, current);
+        }
+        finally {
+            IOUtils.closeQuietly(reference);
+            IOUtils.closeQuietly(current);
+        }
+        boolean regression = false;
+        for(BaselineComparison.Difference difference : differences) {
+            System.out.println(difference);
+            regression |= difference.isRegression();
+        }
+        if(regression) {
+            System.exit(1);
+        }
+    }
+}
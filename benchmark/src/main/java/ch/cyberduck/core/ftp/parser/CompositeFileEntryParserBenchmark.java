@@ -0,0 +1,88 @@
+package ch.cyberduck.core.ftp.parser;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.ftp.FTPListResponseReader;
+import ch.cyberduck.core.ftp.FTPParserSelector;
+
+import org.apache.commons.net.ftp.FTPFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse a UNIX style directory listing from a fixture generated in memory
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CompositeFileEntryParserBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private final Path directory = new Path("/benchmark", EnumSet.of(Path.Type.directory));
+
+    private List<String> lines;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        lines = new ArrayList<String>(size);
+        for(int i = 0; i < size; i++) {
+            if(i % 10 == 0) {
+                lines.add(String.format("drwxr-xr-x    3 ftp      ftp           512 Mar 15  2004 d-%d", i));
+            }
+            else {
+                lines.add(String.format("-rw-r--r--    1 user     group    %9d Dec 11 20:56 f-%d.txt", i * 1024L, i));
+            }
+        }
+    }
+
+    @Benchmark
+    public void parse(final Blackhole bh) {
+        final CompositeFileEntryParser parser = new FTPParserSelector().getParser("UNIX");
+        for(String line : lines) {
+            final FTPFile parsed = parser.parseFTPEntry(line);
+            bh.consume(parsed);
+        }
+    }
+
+    @Benchmark
+    public AttributedList<Path> read() throws Exception {
+        return new FTPListResponseReader(new FTPParserSelector().getParser("UNIX"))
+                .read(directory, lines, new DisabledListProgressListener());
+    }
+}
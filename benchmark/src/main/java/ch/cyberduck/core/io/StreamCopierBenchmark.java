@@ -0,0 +1,91 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copy between local files using channels compared to copying through a buffer. The source file is created
+ * sparse and requires no disk space but the target is written in full.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StreamCopierBenchmark {
+
+    @Param({"1048576", "104857600", "5368709120"})
+    public long size;
+
+    private File source;
+    private File target;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        source = File.createTempFile("benchmark", null);
+        final RandomAccessFile file = new RandomAccessFile(source, "rw");
+        try {
+            file.setLength(size);
+        }
+        finally {
+            file.close();
+        }
+        target = File.createTempFile("benchmark", null);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        source.delete();
+        target.delete();
+    }
+
+    @Benchmark
+    public void channel() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).transfer(new FileInputStream(source), new FileOutputStream(target));
+    }
+
+    @Benchmark
+    public void buffered() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).transfer(new BufferedInputStream(new FileInputStream(source)),
+                new BufferedOutputStream(new FileOutputStream(target)));
+    }
+}
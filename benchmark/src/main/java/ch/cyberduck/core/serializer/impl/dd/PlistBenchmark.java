@@ -0,0 +1,88 @@
+package ch.cyberduck.core.serializer.impl.dd;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.ProtocolFactory;
+import ch.cyberduck.core.ftp.FTPProtocol;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write and read bookmarks as property list files
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlistBenchmark {
+
+    @Param({"1", "1000"})
+    public int size;
+
+    private final List<Host> bookmarks = new ArrayList<Host>();
+
+    private Local file;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final FTPProtocol protocol = new FTPProtocol();
+        ProtocolFactory.get().register(protocol);
+        for(int i = 0; i < size; i++) {
+            final Host bookmark = new Host(protocol, String.format("h-%d.localdomain", i));
+            bookmark.setNickname(String.format("Bookmark %d", i));
+            bookmark.setDefaultPath("/home/user");
+            bookmarks.add(bookmark);
+        }
+        file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        this.write();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        file.delete();
+    }
+
+    @Benchmark
+    public void write() throws Exception {
+        new PlistWriter<Host>().write(bookmarks, file);
+    }
+
+    @Benchmark
+    public Collection<Host> read() throws Exception {
+        return new HostPlistReader().readCollection(file);
+    }
+}
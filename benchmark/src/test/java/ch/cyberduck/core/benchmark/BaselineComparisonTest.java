@@ -0,0 +1,57 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BaselineComparisonTest {
+
+    private static String result(final String benchmark, final String mode, final String size, final double score, final String unit) {
+        return String.format("{\"benchmark\":\"%s\",\"mode\":\"%s\",\"params\":{\"size\":\"%s\"},\"primaryMetric\":{\"score\":%s,\"scoreUnit\":\"%s\"}}",
+                benchmark, mode, size, score, unit);
+    }
+
+    @Test
+    public void testCompareAverageTime() {
+        final String baseline = "[" + result("a", "avgt", "1", 10d, "ms/op") + "," + result("a", "avgt", "2", 10d, "ms/op") + "]";
+        final String current = "[" + result("a", "avgt", "1", 10.5d, "ms/op") + "," + result("a", "avgt", "2", 12d, "ms/op") + "]";
+        final List<BaselineComparison.Difference> differences = new BaselineComparison(0.1).compare(new StringReader(baseline), new StringReader(current));
+        assertEquals(2, differences.size());
+        assertFalse(differences.get(0).isRegression());
+        assertEquals(0.05, differences.get(0).getChange(), 0.0001);
+        assertTrue(differences.get(1).isRegression());
+    }
+
+    @Test
+    public void testCompareThroughput() {
+        final String baseline = "[" + result("a", "thrpt", "1", 100d, "ops/s") + "]";
+        assertTrue(new BaselineComparison(0.1).compare(new StringReader(baseline),
+                new StringReader("[" + result("a", "thrpt", "1", 80d, "ops/s") + "]")).get(0).isRegression());
+        assertFalse(new BaselineComparison(0.1).compare(new StringReader(baseline),
+                new StringReader("[" + result("a", "thrpt", "1", 150d, "ops/s") + "]")).get(0).isRegression());
+    }
+
+    @Test
+    public void testCompareMissing() {
+        final String baseline = "[" + result("a", "avgt", "1", 10d, "ms/op") + "]";
+        final String current = "[" + result("b", "avgt", "1", 10d, "ms/op") + "," + result("a", "avgt", "1", 10d, "us/op") + "]";
+        assertTrue(new BaselineComparison(0.1).compare(new StringReader(baseline), new StringReader(current)).isEmpty());
+    }
+}
@@ -174,6 +174,56 @@ public class FinderLocal extends Local {
         }
     }
 
+    @Override
+    public OutputStream getOutputStream(final long position) throws AccessDeniedException {
+        final NSURL resolved;
+        try {
+            resolved = this.lock(false);
+        }
+        catch(LocalAccessDeniedException e) {
+            return super.getOutputStream(position);
+        }
+        this.attributes().invalidate();
+        final OutputStream out;
+        try {
+            out = this.getOutputStream(resolved.path(), position);
+        }
+        catch(AccessDeniedException e) {
+            this.release(resolved);
+            throw e;
+        }
+        return new ProxyOutputStream(out) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                }
+                finally {
+                    release(resolved);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void allocate(final long length) throws AccessDeniedException {
+        final NSURL resolved;
+        try {
+            resolved = this.lock(false);
+        }
+        catch(LocalAccessDeniedException e) {
+            super.allocate(length);
+            return;
+        }
+        this.attributes().invalidate();
+        try {
+            this.allocate(resolved.path(), length);
+        }
+        finally {
+            this.release(resolved);
+        }
+    }
+
     /**
      * @param interactive Prompt to resolve bookmark of file outside of sandbox with choose panel
      */
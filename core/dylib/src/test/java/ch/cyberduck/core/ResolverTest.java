@@ -10,6 +10,9 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.net.InetAddress;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 @Category(IntegrationTest.class)
@@ -68,4 +71,13 @@ public class ResolverTest {
     public void testResolvePublicDNSIPv6Only() throws Exception {
         assertEquals("2001:470:a085:999:0:0:0:21", new Resolver().resolve("ftp6.netbsd.org", new DisabledCancelCallback()).getHostAddress());
     }
+
+    @Test
+    public void testCached() throws Exception {
+        final Resolver resolver = new Resolver();
+        final List<InetAddress> addresses = resolver.resolveAll("cyberduck.io", new DisabledCancelCallback());
+        // Same result from completed lookup
+        assertSame(addresses, resolver.resolveAll("cyberduck.io", new DisabledCancelCallback()));
+        assertSame(addresses, new Resolver().resolveAll("CYBERDUCK.IO", new DisabledCancelCallback()));
+    }
 }
@@ -18,41 +18,82 @@ package ch.cyberduck.core;
  *  dkocher@cyberduck.ch
  */
 
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.log4j.Logger;
 
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Cache of directory listings in least recently used order. When either the number of cached listings or the
+ * estimated memory weight of all cached listings exceeds its limit the least recently used listings are evicted
+ * together with their entries in the reverse lookup table. The total weight is maintained incrementally and the
+ * weight of a listing is updated when it has been modified since last accessed.
+ */
 public abstract class AbstractCache<T extends Referenceable> implements Cache<T> {
     private static final Logger log = Logger.getLogger(AbstractCache.class);
 
-    private final Map<T, AttributedList<T>> impl;
+    public enum Statistic {
+        hit,
+        miss,
+        eviction
+    }
 
-    private final Map<CacheReference, T> reverse;
+    /**
+     * Access ordered with least recently used first. Must hold lock on map.
+     */
+    private final LinkedHashMap<T, Entry<T>> impl
+            = new LinkedHashMap<T, Entry<T>>(16, 0.75f, true);
 
-    public AbstractCache(int size) {
-        if(size == Integer.MAX_VALUE) {
-            // Unlimited
-            impl = Collections.synchronizedMap(new LinkedHashMap<T, AttributedList<T>>());
-            reverse = Collections.synchronizedMap(new LinkedHashMap<CacheReference, T>());
-        }
-        else if(size == 0) {
-            impl = Collections.emptyMap();
-            reverse = Collections.emptyMap();
-        }
-        else {
-            // Will inflate to the given size
-            impl = Collections.synchronizedMap(new LRUMap<T, AttributedList<T>>(size));
-            reverse = Collections.synchronizedMap(new LinkedHashMap<CacheReference, T>());
-        }
+    private final Map<CacheReference, T> reverse
+            = new ConcurrentHashMap<>();
+
+    /**
+     * Maximum number of directory listings
+     */
+    private final int size;
+
+    /**
+     * Maximum estimated weight of all directory listings
+     */
+    private final long limit;
+
+    /**
+     * Estimated weight of all directory listings. Must hold lock on map.
+     */
+    private long weight;
+
+    private final Metrics metrics
+            = new CountingMetrics();
+
+    public AbstractCache(final int size) {
+        this(size, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param size  Maximum number of directory listings to cache
+     * @param limit Maximum estimated weight of all cached directory listings
+     */
+    public AbstractCache(final int size, final long limit) {
+        this.size = size;
+        this.limit = limit;
     }
 
     protected abstract CacheReference key(final T object);
 
+    /**
+     * @param object Child of a cached directory listing
+     * @return Estimated memory weight of the cached item
+     */
+    protected long weigh(final T object) {
+        return 1L;
+    }
+
     /**
      * Lookup a path by reference in the cache.
      *
@@ -62,33 +103,48 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      */
     public T lookup(final CacheReference reference) {
         final T parent = reverse.get(reference);
-        final AttributedList<T> list = impl.get(parent);
-        if(null == list) {
+        if(null == parent) {
+            metrics.increment(Statistic.miss);
             log.warn(String.format("Lookup failed for %s in reverse cache", reference));
             return null;
         }
-        final T[] entries = list.toArray();
-        for(T entry : entries) {
-            if(this.key(entry).equals(reference)) {
-                return entry;
+        final Entry<T> entry;
+        synchronized(impl) {
+            entry = this.touch(parent);
+        }
+        if(null == entry) {
+            metrics.increment(Statistic.miss);
+            log.warn(String.format("Lookup failed for %s in reverse cache", reference));
+            return null;
+        }
+        for(T child : entry.list) {
+            if(this.key(child).equals(reference)) {
+                metrics.increment(Statistic.hit);
+                return child;
             }
         }
-        final List<T> hidden = list.attributes().getHidden();
-        for(T entry : hidden) {
-            if(this.key(entry).equals(reference)) {
-                return entry;
+        final List<T> hidden = entry.list.attributes().getHidden();
+        for(T child : hidden) {
+            if(this.key(child).equals(reference)) {
+                metrics.increment(Statistic.hit);
+                return child;
             }
         }
+        metrics.increment(Statistic.miss);
         log.warn(String.format("Lookup failed for %s in reverse cache", reference));
         return null;
     }
 
     public boolean isEmpty() {
-        return impl.isEmpty();
+        synchronized(impl) {
+            return impl.isEmpty();
+        }
     }
 
     public Set<T> keySet() {
-        return impl.keySet();
+        synchronized(impl) {
+            return Collections.unmodifiableSet(new HashSet<T>(impl.keySet()));
+        }
     }
 
     /**
@@ -96,7 +152,9 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return True if the directory listing of this path is cached
      */
     public boolean containsKey(final T reference) {
-        return impl.containsKey(reference);
+        synchronized(impl) {
+            return impl.containsKey(reference);
+        }
     }
 
     /**
@@ -106,15 +164,15 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return The previously cached directory listing
      */
     public AttributedList<T> remove(final T reference) {
-        final AttributedList<T> removed = impl.remove(reference);
-        if(null == removed) {
-            // Not previously in cache
-            return AttributedList.emptyList();
-        }
-        for(T r : removed) {
-            reverse.remove(this.key(r));
+        synchronized(impl) {
+            final Entry<T> removed = impl.remove(reference);
+            if(null == removed) {
+                // Not previously in cache
+                return AttributedList.emptyList();
+            }
+            this.release(reference, removed);
+            return removed.list;
         }
-        return removed;
     }
 
     /**
@@ -124,12 +182,17 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      *                                                   and requests a new filter here.
      */
     public AttributedList<T> get(final T reference) {
-        AttributedList<T> children = impl.get(reference);
-        if(null == children) {
+        final Entry<T> entry;
+        synchronized(impl) {
+            entry = this.touch(reference);
+        }
+        if(null == entry) {
+            metrics.increment(Statistic.miss);
             log.warn(String.format("No cache for %s", reference));
             return AttributedList.emptyList();
         }
-        return children;
+        metrics.increment(Statistic.hit);
+        return entry.list;
     }
 
     /**
@@ -138,20 +201,107 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return Previous cached version
      */
     public AttributedList<T> put(final T reference, final AttributedList<T> children) {
+        if(0 == size) {
+            return AttributedList.emptyList();
+        }
         if(log.isInfoEnabled()) {
             log.info(String.format("Caching %s", reference));
         }
+        final Entry<T> entry = new Entry<T>(children, children.getRevision(), this.weigh(children));
+        synchronized(impl) {
+            final Entry<T> previous = impl.put(reference, entry);
+            weight += entry.weight;
+            if(null != previous) {
+                this.release(reference, previous);
+            }
+            for(T f : children) {
+                reverse.put(this.key(f), reference);
+            }
+            for(T f : children.attributes().getHidden()) {
+                reverse.put(this.key(f), reference);
+            }
+            this.evict(reference);
+            if(null == previous) {
+                return null;
+            }
+            return previous.list;
+        }
+    }
+
+    /**
+     * Mark entry as most recently used and update its weight if the listing was modified. Must hold lock on map.
+     *
+     * @return Null if not cached
+     */
+    private Entry<T> touch(final T reference) {
+        final Entry<T> entry = impl.get(reference);
+        if(null == entry) {
+            return null;
+        }
+        final long revision = entry.list.getRevision();
+        if(revision != entry.revision) {
+            final Entry<T> updated = new Entry<T>(entry.list, revision, this.weigh(entry.list));
+            impl.put(reference, updated);
+            weight += updated.weight - entry.weight;
+            for(T f : entry.list) {
+                reverse.put(this.key(f), reference);
+            }
+            this.evict(reference);
+            return updated;
+        }
+        return entry;
+    }
+
+    /**
+     * @return Estimated weight of all children including hidden files
+     */
+    private long weigh(final AttributedList<T> children) {
+        long w = 0L;
         for(T f : children) {
-            final CacheReference key = this.key(f);
-            reverse.remove(key);
-            reverse.put(key, reference);
+            w += this.weigh(f);
         }
         for(T f : children.attributes().getHidden()) {
-            final CacheReference key = this.key(f);
-            reverse.remove(key);
-            reverse.put(key, reference);
+            w += this.weigh(f);
+        }
+        return w;
+    }
+
+    /**
+     * Remove reverse lookup references still pointing to the parent of a removed listing and release its weight.
+     * Must hold lock on map.
+     */
+    private void release(final T reference, final Entry<T> entry) {
+        weight -= entry.weight;
+        for(T r : entry.list) {
+            reverse.remove(this.key(r), reference);
+        }
+        for(T r : entry.list.attributes().getHidden()) {
+            reverse.remove(this.key(r), reference);
+        }
+    }
+
+    /**
+     * Evict least recently used listings until both the maximum number of cached listings and the weight limit
+     * are satisfied. The most recently used listing is never evicted. Must hold lock on map.
+     *
+     * @param retain Listing just added or accessed
+     */
+    private void evict(final T retain) {
+        for(Iterator<Map.Entry<T, Entry<T>>> iter = impl.entrySet().iterator(); iter.hasNext(); ) {
+            if(impl.size() <= size && weight <= limit) {
+                return;
+            }
+            final Map.Entry<T, Entry<T>> candidate = iter.next();
+            if(candidate.getKey().equals(retain)) {
+                continue;
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Evict %s from cache", candidate.getKey()));
+            }
+            iter.remove();
+            this.release(candidate.getKey(), candidate.getValue());
+            metrics.increment(Statistic.eviction);
         }
-        return impl.put(reference, children);
     }
 
     /**
@@ -190,15 +340,56 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         if(log.isInfoEnabled()) {
             log.info(String.format("Clearing cache %s", this.toString()));
         }
-        impl.clear();
-        reverse.clear();
+        synchronized(impl) {
+            impl.clear();
+            weight = 0L;
+            reverse.clear();
+        }
+    }
+
+    /**
+     * @return Estimated weight of all cached directory listings
+     */
+    public long getWeight() {
+        synchronized(impl) {
+            return weight;
+        }
+    }
+
+    /**
+     * @return Hit, miss and eviction counters
+     * @see Statistic
+     */
+    public Metrics getMetrics() {
+        return metrics;
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Cache{");
-        sb.append("size=").append(impl.size());
+        synchronized(impl) {
+            sb.append("size=").append(impl.size());
+            sb.append(", weight=").append(weight);
+        }
+        sb.append(", hit=").append(metrics.get(Statistic.hit));
+        sb.append(", miss=").append(metrics.get(Statistic.miss));
+        sb.append(", eviction=").append(metrics.get(Statistic.eviction));
         sb.append('}');
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    private static final class Entry<T extends Referenceable> {
+        private final AttributedList<T> list;
+        /**
+         * Revision of list when weighed
+         */
+        private final long revision;
+        private final long weight;
+
+        public Entry(final AttributedList<T> list, final long revision, final long weight) {
+            this.list = list;
+            this.revision = revision;
+            this.weight = weight;
+        }
+    }
+}
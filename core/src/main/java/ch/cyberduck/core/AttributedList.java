@@ -20,19 +20,25 @@ package ch.cyberduck.core;
 
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 
 /**
  * A sortable list with a map to lookup values by key.
+ * <p>
+ * Appending is amortized constant time and lookup by reference uses a hash index instead of a linear scan. Readers
+ * iterate over an immutable snapshot that is only copied once after the list has been modified.
  */
 public class AttributedList<E extends Referenceable> implements Iterable<E> {
     private static final Logger log = Logger.getLogger(AttributedList.class);
@@ -55,7 +61,28 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     };
 
     private final List<E> impl
-            = new CopyOnWriteArrayList<>();
+            = new ArrayList<>();
+
+    /**
+     * Index of first occurrence of element in list. Rebuilt lazily when set to null after
+     * modifications other than appending.
+     */
+    private Map<E, Integer> index
+            = new HashMap<>();
+
+    /**
+     * Immutable copy of the list returned to readers. Cleared on any modification.
+     */
+    private volatile List<E> snapshot
+            = Collections.emptyList();
+
+    private final ReadWriteLock lock
+            = new ReentrantReadWriteLock();
+
+    /**
+     * Incremented on every modification
+     */
+    private volatile long revision;
 
     /**
      * Metadata of file listing
@@ -95,13 +122,33 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
 
     public boolean add(final E e) {
         if(attributes.getFilter().accept(e)) {
-            return impl.add(e);
+            lock.writeLock().lock();
+            try {
+                this.append(e);
+                return true;
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
         }
+        revision++;
         return attributes.getHidden().add(e);
     }
 
     public void add(final int index, final E e) {
-        impl.add(index, e);
+        lock.writeLock().lock();
+        try {
+            if(index == impl.size()) {
+                this.append(e);
+            }
+            else {
+                impl.add(index, e);
+                this.modified(true);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public boolean addAll(final Iterable<? extends E> c) {
@@ -112,33 +159,70 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     }
 
     public E get(final int index) {
-        return impl.get(index);
+        lock.readLock().lock();
+        try {
+            return impl.get(index);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
     }
 
     public E get(final E reference) {
-        final int index = impl.indexOf(reference);
+        final int index = this.indexOf(reference);
         if(-1 == index) {
             return null;
         }
-        return impl.get(index);
+        return this.get(index);
     }
 
     public void set(final int i, final E e) {
-        impl.set(i, e);
+        lock.writeLock().lock();
+        try {
+            impl.set(i, e);
+            this.modified(true);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
     public Iterator<E> iterator() {
-        return impl.iterator();
+        return this.toList().iterator();
     }
 
     /**
-     * The CopyOnWriteArrayList iterator does not support remove but the sort implementation
-     * makes use of it. Provide our own implementation here to circumvent.
+     * Must hold write lock
+     *
+     * @param e Element to add at the end of the list
+     */
+    private void append(final E e) {
+        impl.add(e);
+        if(index != null) {
+            index.putIfAbsent(e, impl.size() - 1);
+        }
+        this.modified(false);
+    }
+
+    /**
+     * Must hold write lock
+     *
+     * @param reindex Discard the lookup index because positions of existing elements have changed
+     */
+    private void modified(final boolean reindex) {
+        if(reindex) {
+            index = null;
+        }
+        snapshot = null;
+        revision++;
+    }
+
+    /**
+     * Sort list in place. Must hold write lock.
      *
      * @param comparator The comparator to use
      * @see java.util.Collections#sort(java.util.List, java.util.Comparator)
-     * @see java.util.concurrent.CopyOnWriteArrayList#iterator()
      */
     private void doSort(final Comparator<E> comparator) {
         if(null == comparator) {
@@ -147,7 +231,8 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Sort list %s with comparator %s", this, comparator));
         }
-        Collections.sort(impl, comparator);
+        impl.sort(comparator);
+        this.modified(true);
     }
 
     /**
@@ -176,40 +261,52 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         if(null != filter) {
             needsFiltering = !attributes.getFilter().equals(filter);
         }
-        if(needsSorting) {
-            // Do not sort when the list has not been filtered yet
-            if(!needsFiltering) {
-                this.doSort(comparator);
-            }
-            // Saving last sorting comparator
-            attributes.setComparator(comparator);
+        if(!needsSorting && !needsFiltering) {
+            return this;
         }
-        if(needsFiltering) {
-            if(log.isDebugEnabled()) {
-                log.debug(String.format("Filter list %s with filter %s", this, filter));
-            }
-            // Add previously hidden files to children
-            final List<E> hidden = attributes.getHidden();
-            if(!hidden.isEmpty()) {
-                impl.addAll(hidden);
-                // Clear the previously set of hidden files
-                hidden.clear();
+        lock.writeLock().lock();
+        try {
+            if(needsSorting) {
+                // Do not sort when the list has not been filtered yet
+                if(!needsFiltering) {
+                    this.doSort(comparator);
+                }
+                // Saving last sorting comparator
+                attributes.setComparator(comparator);
             }
-            final Set<E> removal = new HashSet<>();
-            for(final E child : impl) {
-                if(!filter.accept(child)) {
-                    // Child not accepted by filter; add to cached hidden files
-                    if(attributes.addHidden(child)) {
-                        // Remove hidden file from current file listing
-                        removal.add(child);
+            if(needsFiltering) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Filter list %s with filter %s", this, filter));
+                }
+                // Add previously hidden files to children
+                final List<E> hidden = attributes.getHidden();
+                if(!hidden.isEmpty()) {
+                    impl.addAll(hidden);
+                    // Clear the previously set of hidden files
+                    hidden.clear();
+                }
+                final List<E> accepted = new ArrayList<>(impl.size());
+                for(final E child : impl) {
+                    if(!filter.accept(child)) {
+                        // Child not accepted by filter; add to cached hidden files
+                        if(attributes.addHidden(child)) {
+                            // Remove hidden file from current file listing
+                            continue;
+                        }
                     }
+                    accepted.add(child);
                 }
+                impl.clear();
+                impl.addAll(accepted);
+                this.modified(true);
+                // Saving last filter
+                attributes.setFilter(filter);
+                // Sort again because the list has changed
+                this.doSort(comparator);
             }
-            impl.removeAll(removal);
-            // Saving last filter
-            attributes.setFilter(filter);
-            // Sort again because the list has changed
-            this.doSort(comparator);
+        }
+        finally {
+            lock.writeLock().unlock();
         }
         return this;
     }
@@ -218,46 +315,134 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
      * Clear the list and all references.
      */
     public void clear() {
-        attributes.clear();
-        impl.clear();
+        lock.writeLock().lock();
+        try {
+            attributes.clear();
+            impl.clear();
+            index = new HashMap<>();
+            snapshot = Collections.emptyList();
+            revision++;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of modifications of this list to detect changes since last seen
+     */
+    public long getRevision() {
+        return revision;
     }
 
     public boolean isEmpty() {
-        return impl.isEmpty();
+        return this.size() == 0;
     }
 
     public int size() {
-        return impl.size();
+        lock.readLock().lock();
+        try {
+            return impl.size();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
     }
 
     public boolean contains(final E e) {
-        return impl.contains(e);
+        return this.indexOf(e) != -1;
     }
 
     public E find(final Predicate<E> predicate) {
-        final Optional<E> optional = impl.stream().filter(predicate).findFirst();
-        return optional.orElse(null);
+        for(E e : this.toList()) {
+            if(predicate.test(e)) {
+                return e;
+            }
+        }
+        return null;
     }
 
     @SuppressWarnings("unchecked")
     public E[] toArray() {
-        return (E[]) impl.toArray(new Referenceable[impl.size()]);
+        final List<E> list = this.toList();
+        return (E[]) list.toArray(new Referenceable[list.size()]);
     }
 
+    /**
+     * @return Immutable snapshot of the current content
+     */
     public List<E> toList() {
-        return impl;
+        final List<E> current = snapshot;
+        if(current != null) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            // Racing readers may both copy but will publish equal content
+            final List<E> copy = Collections.unmodifiableList(new ArrayList<>(impl));
+            snapshot = copy;
+            return copy;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
     }
 
     public int indexOf(final E e) {
-        return impl.indexOf(e);
+        lock.readLock().lock();
+        try {
+            final Map<E, Integer> current = index;
+            if(current != null) {
+                final Integer i = current.get(e);
+                return null == i ? -1 : i;
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if(null == index) {
+                final Map<E, Integer> rebuilt = new HashMap<>(impl.size() * 4 / 3 + 1);
+                for(int i = 0; i < impl.size(); i++) {
+                    rebuilt.putIfAbsent(impl.get(i), i);
+                }
+                index = rebuilt;
+            }
+            final Integer i = index.get(e);
+            return null == i ? -1 : i;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public boolean remove(final E e) {
-        return impl.remove(e);
+        lock.writeLock().lock();
+        try {
+            if(impl.remove(e)) {
+                this.modified(true);
+                return true;
+            }
+            return false;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public boolean removeAll(final java.util.Collection<E> e) {
-        return impl.removeAll(e);
+        lock.writeLock().lock();
+        try {
+            if(impl.removeAll(e instanceof Set ? e : new HashSet<>(e))) {
+                this.modified(true);
+                return true;
+            }
+            return false;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
@@ -269,11 +454,11 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
             return false;
         }
         final AttributedList<?> that = (AttributedList<?>) o;
-        return Objects.equals(impl, that.impl);
+        return Objects.equals(this.toList(), that.toList());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(impl);
+        return Objects.hash(this.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,274 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
+
+import org.apache.commons.collections4.map.LRUMap;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of file and folder identifiers by path for protocols addressing files by ID. Populated from listings and
+ * results of operations and shared by all connections to the same bookmark. Entries expire after
+ * <code>fileid.cache.ttl</code> milliseconds.
+ */
+public class FileidCache {
+    private static final Logger log = Logger.getLogger(FileidCache.class);
+
+    /**
+     * Index by bookmark shared by pooled connections
+     */
+    private static final Map<Host, FileidCache> registry
+            = new WeakHashMap<Host, FileidCache>();
+
+    /**
+     * @param host Bookmark
+     * @return Index shared by all connections to bookmark
+     */
+    public static FileidCache get(final Host host) {
+        synchronized(registry) {
+            FileidCache cache = registry.get(host);
+            if(null == cache) {
+                cache = new FileidCache();
+                registry.put(host, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Identifiers by path and type. Keyed by string to not depend on later changes to the type of a path.
+     */
+    private final Map<String, Entry> cache;
+
+    /**
+     * Milliseconds until entry expires
+     */
+    private final long ttl;
+
+    /**
+     * Pending lookups. Concurrent lookups for the same file wait for a single request.
+     */
+    private final Map<String, FutureTask<String>> loading
+            = new ConcurrentHashMap<String, FutureTask<String>>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public FileidCache() {
+        this(PreferencesFactory.get().getInteger("fileid.cache.size"),
+                PreferencesFactory.get().getLong("fileid.cache.ttl"));
+    }
+
+    /**
+     * @param size Maximum number of identifiers
+     */
+    public FileidCache(final int size) {
+        this(size, PreferencesFactory.get().getLong("fileid.cache.ttl"));
+    }
+
+    /**
+     * @param size Maximum number of identifiers
+     * @param ttl  Milliseconds until entry expires
+     */
+    public FileidCache(final int size, final long ttl) {
+        this.cache = Collections.synchronizedMap(new LRUMap<String, Entry>(Math.max(1, size)));
+        this.ttl = ttl;
+    }
+
+    /**
+     * @param file   File or folder
+     * @param loader Retrieve identifier from server when not cached
+     * @return Identifier of file
+     */
+    public String lookup(final Path file, final Callable<String> loader) throws BackgroundException {
+        final String key = this.key(file);
+        final String cached = this.get(key);
+        if(cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        final FutureTask<String> task = new FutureTask<String>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                final String id = loader.call();
+                if(StringUtils.isNotBlank(id)) {
+                    put(key, id);
+                }
+                return id;
+            }
+        });
+        final FutureTask<String> pending = loading.putIfAbsent(key, task);
+        if(null == pending) {
+            try {
+                task.run();
+            }
+            finally {
+                loading.remove(key, task);
+            }
+        }
+        try {
+            return null == pending ? task.get() : pending.get();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new DefaultExceptionMappingService().map(e.getCause());
+        }
+    }
+
+    /**
+     * Add identifier from version attribute of file. Ignores hidden previous versions.
+     *
+     * @param file File or folder with identifier in attributes
+     */
+    public void cache(final Path file) {
+        if(file.attributes().isDuplicate()) {
+            return;
+        }
+        if(StringUtils.isBlank(file.attributes().getVersionId())) {
+            return;
+        }
+        this.put(this.key(file), file.attributes().getVersionId());
+    }
+
+    /**
+     * Add identifier returned for new file or version
+     *
+     * @param file File or folder
+     * @param id   Identifier
+     */
+    public void cache(final Path file, final String id) {
+        if(StringUtils.isBlank(id)) {
+            this.invalidate(file);
+            return;
+        }
+        this.put(this.key(file), id);
+    }
+
+    /**
+     * @param list Directory listing
+     */
+    public void cache(final AttributedList<Path> list) {
+        for(Path file : list) {
+            this.cache(file);
+        }
+    }
+
+    /**
+     * Remove identifier of file or folder including all descendants of folder
+     *
+     * @param file Deleted or moved file or folder
+     */
+    public void invalidate(final Path file) {
+        cache.remove(this.key(file));
+        if(file.isDirectory()) {
+            final String prefix = String.format("%s%s", file.getAbsolute(), Path.DELIMITER);
+            synchronized(cache) {
+                for(Iterator<String> iter = cache.keySet().iterator(); iter.hasNext(); ) {
+                    // Key is type followed by absolute path
+                    if(StringUtils.substringAfter(iter.next(), "-").startsWith(prefix)) {
+                        iter.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Clear %s", this));
+        }
+        cache.clear();
+        hits.set(0L);
+        misses.set(0L);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return Ratio of lookups found in cache
+     */
+    public double getHitRate() {
+        final long total = hits.get() + misses.get();
+        return total == 0L ? 0d : (double) hits.get() / total;
+    }
+
+    private String key(final Path file) {
+        return new SimplePathPredicate(file).toString();
+    }
+
+    private String get(final String key) {
+        final Entry entry = cache.get(key);
+        if(null == entry) {
+            return null;
+        }
+        if(entry.expires < System.currentTimeMillis()) {
+            cache.remove(key, entry);
+            return null;
+        }
+        return entry.id;
+    }
+
+    private void put(final String key, final String id) {
+        cache.put(key, new Entry(id, System.currentTimeMillis() + ttl));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("FileidCache{");
+        sb.append("size=").append(cache.size());
+        sb.append(", hits=").append(hits);
+        sb.append(", misses=").append(misses);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static final class Entry {
+        private final String id;
+        private final long expires;
+
+        public Entry(final String id, final long expires) {
+            this.id = id;
+            this.expires = expires;
+        }
+    }
+}
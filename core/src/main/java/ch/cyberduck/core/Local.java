@@ -22,6 +22,7 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.LocalNotfoundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.io.ChannelOutputStream;
 import ch.cyberduck.core.io.LocalRepeatableFileInputStream;
 import ch.cyberduck.core.local.TildeExpander;
 import ch.cyberduck.core.local.WorkdirPrefixer;
@@ -41,12 +42,16 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.text.MessageFormat;
 import java.util.EnumSet;
 import java.util.Objects;
@@ -138,6 +143,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isDirectory() {
+        final BasicFileAttributes snapshot = this.attributes().getSnapshot();
+        if(snapshot != null && !snapshot.isSymbolicLink()) {
+            return snapshot.isDirectory();
+        }
         if(this.exists()) {
             return Files.isDirectory(Paths.get(path));
         }
@@ -150,6 +159,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isFile() {
+        final BasicFileAttributes snapshot = this.attributes().getSnapshot();
+        if(snapshot != null && !snapshot.isSymbolicLink()) {
+            return snapshot.isRegularFile();
+        }
         if(this.exists()) {
             return Files.isRegularFile(Paths.get(path));
         }
@@ -162,6 +175,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @return true if the file is a symbolic link.
      */
     public boolean isSymbolicLink() {
+        final BasicFileAttributes snapshot = this.attributes().getSnapshot();
+        if(snapshot != null) {
+            return snapshot.isSymbolicLink();
+        }
         return Files.isSymbolicLink(Paths.get(path));
     }
 
@@ -187,6 +204,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public void mkdir() throws AccessDeniedException {
+        this.attributes().invalidate();
         try {
             Files.createDirectories(Paths.get(path));
         }
@@ -200,6 +218,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * Delete the file
      */
     public void delete() throws AccessDeniedException {
+        this.attributes().invalidate();
         try {
             Files.deleteIfExists(Paths.get(path));
         }
@@ -291,10 +310,15 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @return True if the path exists on the file system.
      */
     public boolean exists() {
+        final BasicFileAttributes snapshot = this.attributes().getSnapshot();
+        if(snapshot != null && !snapshot.isSymbolicLink()) {
+            return true;
+        }
         return Files.exists(Paths.get(path));
     }
 
     public void rename(final Local renamed) throws AccessDeniedException {
+        this.attributes().invalidate();
         try {
             Files.move(Paths.get(path), Paths.get(renamed.getAbsolute()), StandardCopyOption.REPLACE_EXISTING);
             path = renamed.getAbsolute();
@@ -388,6 +412,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public OutputStream getOutputStream(final boolean append) throws AccessDeniedException {
+        this.attributes().invalidate();
         try {
             return new FileOutputStream(new File(path), append);
         }
@@ -396,6 +421,72 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
         }
     }
 
+    /**
+     * Write to file at position without truncating or appending
+     *
+     * @param position Offset in file to start writing
+     */
+    public OutputStream getOutputStream(final long position) throws AccessDeniedException {
+        this.attributes().invalidate();
+        return this.getOutputStream(path, position);
+    }
+
+    /**
+     * @param path     Absolute path of file
+     * @param position Offset in file to start writing
+     */
+    protected OutputStream getOutputStream(final String path, final long position) throws AccessDeniedException {
+        try {
+            final FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                channel.position(position);
+            }
+            catch(IOException e) {
+                IOUtils.closeQuietly(channel);
+                throw e;
+            }
+            return new ChannelOutputStream(channel);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Set length of file. Extending the file does not write any data.
+     *
+     * @param length File size
+     */
+    public void allocate(final long length) throws AccessDeniedException {
+        this.attributes().invalidate();
+        this.allocate(path, length);
+    }
+
+    /**
+     * @param path   Absolute path of file
+     * @param length File size
+     */
+    protected void allocate(final String path, final long length) throws AccessDeniedException {
+        try {
+            final FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                if(channel.size() > length) {
+                    channel.truncate(length);
+                }
+                else if(channel.size() < length) {
+                    // Write last byte to extend file
+                    channel.write(ByteBuffer.allocate(1), length - 1);
+                }
+            }
+            finally {
+                IOUtils.closeQuietly(channel);
+            }
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
     public Object lock(final boolean interactive) throws AccessDeniedException {
         return null;
     }
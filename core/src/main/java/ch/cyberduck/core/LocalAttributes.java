@@ -26,6 +26,7 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 
 public class LocalAttributes extends Attributes {
@@ -35,13 +36,45 @@ public class LocalAttributes extends Attributes {
     private Checksum checksum = Checksum.NONE;
     private Permission permission = Permission.EMPTY;
 
+    /**
+     * Attributes read when listing the parent folder or null
+     */
+    private volatile BasicFileAttributes snapshot;
+
     public LocalAttributes(final String path) {
         this.path = path;
         this.permission = new LocalPermission();
     }
 
+    /**
+     * @param snapshot Attributes of the file itself not following symbolic links
+     * @return This
+     */
+    public LocalAttributes withSnapshot(final BasicFileAttributes snapshot) {
+        this.snapshot = snapshot;
+        return this;
+    }
+
+    /**
+     * @return Attributes read when listing the parent folder or null if not available or invalidated
+     */
+    public BasicFileAttributes getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Discard attributes read previously after the file has been modified
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
     @Override
     public long getModificationDate() {
+        final BasicFileAttributes snapshot = this.snapshot;
+        if(snapshot != null && !snapshot.isSymbolicLink()) {
+            return snapshot.lastModifiedTime().toMillis();
+        }
         if(Files.exists(Paths.get(path))) {
             try {
                 return Files.getLastModifiedTime(Paths.get(path)).toMillis();
@@ -73,6 +106,7 @@ public class LocalAttributes extends Attributes {
         if(timestamp < 0) {
             return;
         }
+        this.invalidate();
         try {
             Files.setLastModifiedTime(Paths.get(path), FileTime.fromMillis(timestamp));
         }
@@ -83,6 +117,10 @@ public class LocalAttributes extends Attributes {
 
     @Override
     public long getSize() {
+        final BasicFileAttributes snapshot = this.snapshot;
+        if(snapshot != null && !snapshot.isSymbolicLink()) {
+            return snapshot.size();
+        }
         if(Files.exists(Paths.get(path))) {
             try {
                 return Files.size(Paths.get(path));
@@ -17,6 +17,8 @@ package ch.cyberduck.core;
  * Bug fixes, suggestions and comments should be sent to feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
 import java.util.List;
 
 public class PathCache extends AbstractCache<Path> {
@@ -30,8 +32,26 @@ public class PathCache extends AbstractCache<Path> {
         };
     }
 
+    /**
+     * Estimated memory in bytes retained by a path with its attributes excluding the name
+     */
+    private static final long ATTRIBUTES_WEIGHT = 512L;
+
     public PathCache(final int size) {
-        super(size);
+        this(size, PreferencesFactory.get().getLong("browser.cache.weight"));
+    }
+
+    /**
+     * @param size   Maximum number of directory listings
+     * @param weight Maximum estimated memory in bytes of all cached directory listings
+     */
+    public PathCache(final int size, final long weight) {
+        super(size, weight);
+    }
+
+    @Override
+    protected long weigh(final Path file) {
+        return ATTRIBUTES_WEIGHT + 2L * file.getAbsolute().length();
     }
 
     @Override
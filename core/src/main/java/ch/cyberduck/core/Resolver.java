@@ -21,24 +21,51 @@ package ch.cyberduck.core;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.ResolveCanceledException;
 import ch.cyberduck.core.exception.ResolveFailedException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.CancelCallback;
 import ch.cyberduck.core.threading.NamedThreadFactory;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.security.Security;
 import java.text.MessageFormat;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ThreadFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.TimeoutException;
 
 public final class Resolver {
     private static final Logger log = Logger.getLogger(Resolver.class);
 
-    private final ThreadFactory threadFactory
-            = new NamedThreadFactory("resolver");
+    /**
+     * Threads are reused for subsequent lookups
+     */
+    private static final ExecutorService executor
+            = Executors.newCachedThreadPool(new NamedThreadFactory("resolver"));
+
+    /**
+     * Completed and pending lookups by hostname
+     */
+    private static final ConcurrentMap<String, Lookup> cache
+            = new ConcurrentHashMap<String, Lookup>();
+
+    /**
+     * Interval in milliseconds to check for cancel while waiting for lookup
+     */
+    private static final long CANCEL_CHECK_INTERVAL = 100L;
 
     /**
      * This method is blocking until the hostname has been resolved or the lookup
@@ -49,38 +76,49 @@ public final class Resolver {
      * @throws ResolveCanceledException If the lookup has been interrupted
      */
     public InetAddress resolve(final String hostname, final CancelCallback callback) throws ResolveFailedException, ResolveCanceledException {
-        final CountDownLatch signal = new CountDownLatch(1);
-        final AtomicReference<InetAddress> resolved = new AtomicReference<>();
-        final AtomicReference<UnknownHostException> failure = new AtomicReference<>();
-        final Thread resolver = threadFactory.newThread(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    final InetAddress address = InetAddress.getByName(hostname);
-                    resolved.set(address);
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Resolved %s to %s", hostname, address.getHostAddress()));
-                    }
-                }
-                catch(UnknownHostException e) {
-                    log.warn(String.format("Failed resolving %s", hostname));
-                    failure.set(e);
-                }
-                finally {
-                    signal.countDown();
-                }
+        return this.resolveAll(hostname, callback).get(0);
+    }
+
+    /**
+     * This method is blocking until the hostname has been resolved or the lookup
+     * has been canceled. Lookups are cached for the time to live configured.
+     *
+     * @return All resolved IP addresses for this hostname alternating between address families
+     * @throws ResolveFailedException   If the hostname cannot be resolved
+     * @throws ResolveCanceledException If the lookup has been interrupted
+     */
+    public List<InetAddress> resolveAll(final String hostname, final CancelCallback callback) throws ResolveFailedException, ResolveCanceledException {
+        this.verify(callback);
+        final String key = StringUtils.lowerCase(hostname, Locale.ROOT);
+        Lookup lookup = cache.get(key);
+        if(null == lookup || lookup.isExpired()) {
+            final Lookup next = new Lookup(hostname);
+            if(null == lookup) {
+                lookup = cache.putIfAbsent(key, next);
+            }
+            else {
+                lookup = cache.replace(key, lookup, next) ? null : cache.get(key);
             }
-        });
-        resolver.start();
+            if(null == lookup) {
+                lookup = next;
+                lookup.submit();
+            }
+        }
+        else {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Use cached lookup for %s", hostname));
+            }
+        }
         log.debug(String.format("Waiting for resolving of %s", hostname));
-        // Wait for #run to finish
         try {
-            while(!signal.await(500, TimeUnit.MILLISECONDS)) {
+            while(true) {
                 try {
-                    callback.verify();
+                    final List<InetAddress> addresses = lookup.get(CANCEL_CHECK_INTERVAL);
+                    this.verify(callback);
+                    return addresses;
                 }
-                catch(ConnectionCanceledException c) {
-                    throw new ResolveCanceledException(c);
+                catch(TimeoutException e) {
+                    this.verify(callback);
                 }
             }
         }
@@ -88,21 +126,115 @@ public final class Resolver {
             log.error(String.format("Waiting for resolving of %s", hostname), e);
             throw new ResolveCanceledException(e);
         }
+        catch(ExecutionException e) {
+            throw new ResolveFailedException(
+                    MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), e.getCause());
+        }
+    }
+
+    private void verify(final CancelCallback callback) throws ResolveCanceledException {
         try {
             callback.verify();
         }
         catch(ConnectionCanceledException c) {
             throw new ResolveCanceledException(c);
         }
-        if(null == resolved.get()) {
-            if(null == failure.get()) {
-                log.warn(String.format("Canceled resolving %s", hostname));
-                throw new ResolveCanceledException();
+    }
+
+    /**
+     * Order addresses alternating between address families starting with the family of the first address
+     * returned by the system resolver as described in RFC 8305 section 4.
+     */
+    static List<InetAddress> sort(final InetAddress[] addresses) {
+        final List<InetAddress> preferred = new ArrayList<InetAddress>();
+        final List<InetAddress> other = new ArrayList<InetAddress>();
+        for(InetAddress address : addresses) {
+            if(address instanceof Inet6Address == addresses[0] instanceof Inet6Address) {
+                preferred.add(address);
+            }
+            else {
+                other.add(address);
+            }
+        }
+        final List<InetAddress> sorted = new ArrayList<InetAddress>(addresses.length);
+        for(int i = 0; i < Math.max(preferred.size(), other.size()); i++) {
+            if(i < preferred.size()) {
+                sorted.add(preferred.get(i));
             }
-            throw new ResolveFailedException(
-                    MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), failure.get());
+            if(i < other.size()) {
+                sorted.add(other.get(i));
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * @param property Security property name
+     * @param fallback Preference to use when security property is not set
+     * @return Time to live in milliseconds or -1 to cache forever
+     */
+    private static long ttl(final String property, final String fallback) {
+        final String value = Security.getProperty(property);
+        if(StringUtils.isNotBlank(value)) {
+            try {
+                final long seconds = Long.parseLong(value.trim());
+                return seconds < 0 ? -1L : TimeUnit.SECONDS.toMillis(seconds);
+            }
+            catch(NumberFormatException e) {
+                log.warn(String.format("Invalid value %s for %s", value, property));
+            }
+        }
+        return TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong(fallback));
+    }
+
+    private static final class Lookup {
+        private final FutureTask<List<InetAddress>> future;
+        /**
+         * Timestamp when lookup expires or zero when pending
+         */
+        private volatile long expires;
+
+        public Lookup(final String hostname) {
+            this.future = new FutureTask<List<InetAddress>>(new Callable<List<InetAddress>>() {
+                @Override
+                public List<InetAddress> call() throws UnknownHostException {
+                    try {
+                        final List<InetAddress> addresses = sort(InetAddress.getAllByName(hostname));
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Resolved %s to %s", hostname, Arrays.toString(addresses.toArray())));
+                        }
+                        this.expire(ttl("networkaddress.cache.ttl", "connection.dns.cache.ttl"));
+                        return addresses;
+                    }
+                    catch(UnknownHostException e) {
+                        log.warn(String.format("Failed resolving %s", hostname));
+                        throw e;
+                    }
+                    finally {
+                        if(0 == expires) {
+                            // Any failure
+                            this.expire(ttl("networkaddress.cache.negative.ttl", "connection.dns.cache.negative.ttl"));
+                        }
+                    }
+                }
+
+                private void expire(final long ttl) {
+                    expires = ttl < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + Math.max(1L, ttl);
+                }
+            });
+        }
+
+        public void submit() {
+            executor.execute(future);
+        }
+
+        public List<InetAddress> get(final long timeout) throws InterruptedException, ExecutionException, TimeoutException {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        }
+
+        public boolean isExpired() {
+            return expires != 0 && System.currentTimeMillis() >= expires;
         }
-        return resolved.get();
     }
 
     @Override
@@ -111,4 +243,4 @@ public final class Resolver {
         sb.append('}');
         return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -73,6 +73,11 @@ public abstract class Session<C> implements ListService, TranscriptListener {
     protected C client;
     protected VaultRegistry registry = VaultRegistry.DISABLED;
 
+    /**
+     * Directory listings shared with browser and other sessions of the same pool
+     */
+    protected Cache<Path> cache = PathCache.empty();
+
     private Set<TranscriptListener> listeners = Collections.newSetFromMap(new ConcurrentHashMap<TranscriptListener, Boolean>());
 
     /**
@@ -113,6 +118,11 @@ public abstract class Session<C> implements ListService, TranscriptListener {
         return this;
     }
 
+    public Session<?> withCache(final Cache<Path> cache) {
+        this.cache = cache;
+        return this;
+    }
+
     public enum State {
         opening,
         open,
@@ -31,6 +31,16 @@ public interface Delete {
         void delete(Path file);
     }
 
+    /**
+     * Implementation deleting multiple files with a single request
+     */
+    interface Batch {
+        /**
+         * @return Maximum number of files to pass in a single call to delete
+         */
+        int getPartition();
+    }
+
     class DisabledCallback implements Callback {
         @Override
         public void delete(Path file) {
@@ -0,0 +1,54 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.Resolver;
+import ch.cyberduck.core.exception.BackgroundException;
+
+import org.apache.http.conn.DnsResolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+/**
+ * Resolve with shared cache of lookups instead of a new lookup for every connection in the pool
+ */
+public class CachingDnsResolver implements DnsResolver {
+
+    private final Resolver resolver;
+
+    public CachingDnsResolver() {
+        this(new Resolver());
+    }
+
+    public CachingDnsResolver(final Resolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public InetAddress[] resolve(final String host) throws UnknownHostException {
+        try {
+            final List<InetAddress> addresses = resolver.resolveAll(host, new DisabledCancelCallback());
+            return addresses.toArray(new InetAddress[addresses.size()]);
+        }
+        catch(BackgroundException e) {
+            final UnknownHostException failure = new UnknownHostException(host);
+            failure.initCause(e);
+            throw failure;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.apache.commons.io.IOUtils;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -51,10 +52,12 @@ public abstract class AbstractChecksumCompute implements ChecksumCompute {
         catch(NoSuchAlgorithmException e) {
             throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getMessage(), e);
         }
+        final ByteBufferPool pool = ByteBufferPool.get();
+        final ByteBuffer pooled = pool.acquire(16384);
         try {
-            byte[] buffer = new byte[16384];
+            final byte[] buffer = pooled.array();
             int bytesRead;
-            while((bytesRead = in.read(buffer, 0, buffer.length)) != -1) {
+            while((bytesRead = in.read(buffer, 0, pooled.limit())) != -1) {
                 md.update(buffer, 0, bytesRead);
             }
         }
@@ -62,6 +65,7 @@ public abstract class AbstractChecksumCompute implements ChecksumCompute {
             throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getMessage(), e);
         }
         finally {
+            pool.release(pooled);
             IOUtils.closeQuietly(in);
         }
         return md.digest();
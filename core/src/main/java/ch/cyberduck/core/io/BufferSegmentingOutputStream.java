@@ -15,12 +15,15 @@ package ch.cyberduck.core.io;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.NullOutputStream;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 public class BufferSegmentingOutputStream extends SegmentingOutputStream {
     private static final Logger log = Logger.getLogger(BufferSegmentingOutputStream.class);
@@ -28,6 +31,9 @@ public class BufferSegmentingOutputStream extends SegmentingOutputStream {
     private final OutputStream proxy;
     private final Buffer buffer;
 
+    private final Integer chunksize
+            = PreferencesFactory.get().getInteger("connection.chunksize");
+
     public BufferSegmentingOutputStream(final OutputStream proxy, final Long threshold, final Buffer buffer) {
         super(new NullOutputStream(), threshold, new BufferOutputStream(buffer));
         this.proxy = proxy;
@@ -45,7 +51,14 @@ public class BufferSegmentingOutputStream extends SegmentingOutputStream {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Copy buffer %s to output %s", buffer, proxy));
         }
-        IOUtils.copy(new BufferInputStream(buffer), proxy);
+        final ByteBufferPool pool = ByteBufferPool.get();
+        final ByteBuffer pooled = pool.acquire(chunksize);
+        try {
+            IOUtils.copyLarge(new BufferInputStream(buffer), proxy, pooled.array());
+        }
+        finally {
+            pool.release(pooled);
+        }
         // Re-use buffer
         buffer.truncate(0L);
     }
@@ -0,0 +1,281 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of heap buffers shared by transfer streams. Released buffers are kept in a small per thread cache
+ * first and in a shared queue for each power of two size class otherwise. Buffers larger than the largest size class
+ * are not pooled. With debug logging enabled, buffers never released are reported when garbage collected.
+ */
+public final class ByteBufferPool {
+    private static final Logger log = Logger.getLogger(ByteBufferPool.class);
+
+    private static final ByteBufferPool shared = new ByteBufferPool(PreferencesFactory.get());
+
+    public static ByteBufferPool get() {
+        return shared;
+    }
+
+    /**
+     * Smallest size class of 1KB
+     */
+    private static final int MIN_SHIFT = 10;
+
+    private final int maxShift;
+
+    /**
+     * Maximum number of bytes kept in shared queues
+     */
+    private final long limit;
+
+    /**
+     * Maximum number of buffers per size class cached for each thread
+     */
+    private final int cached;
+
+    private final Queue<ByteBuffer>[] queues;
+
+    private final AtomicLong pooled = new AtomicLong();
+
+    private final ThreadLocal<ArrayDeque<ByteBuffer>[]> local;
+
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder transferred = new LongAdder();
+
+    private final boolean detection;
+    private final ReferenceQueue<ByteBuffer> collected = new ReferenceQueue<>();
+    private final Map<Identity, Leak> outstanding = new ConcurrentHashMap<>();
+
+    public ByteBufferPool(final Preferences preferences) {
+        this(preferences.getInteger("connection.buffer.pool.max"),
+                preferences.getLong("connection.buffer.pool.limit"),
+                preferences.getInteger("connection.buffer.pool.thread"),
+                log.isDebugEnabled());
+    }
+
+    /**
+     * @param max       Largest buffer size pooled
+     * @param limit     Maximum number of bytes kept in shared queues
+     * @param cached    Number of buffers per size class cached for each thread
+     * @param detection Report buffers not returned to the pool
+     */
+    @SuppressWarnings("unchecked")
+    public ByteBufferPool(final int max, final long limit, final int cached, final boolean detection) {
+        this.maxShift = Math.max(MIN_SHIFT, shift(max));
+        this.limit = limit;
+        this.cached = cached;
+        this.detection = detection;
+        this.queues = new Queue[maxShift - MIN_SHIFT + 1];
+        for(int i = 0; i < queues.length; i++) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.local = ThreadLocal.withInitial(() -> {
+            final ArrayDeque<ByteBuffer>[] deques = new ArrayDeque[queues.length];
+            for(int i = 0; i < deques.length; i++) {
+                deques[i] = new ArrayDeque<>(cached);
+            }
+            return deques;
+        });
+    }
+
+    /**
+     * @param capacity Minimum number of bytes required
+     * @return Cleared buffer backed by an array with position zero and limit set to the requested capacity. The
+     * capacity of the buffer may be larger than requested.
+     */
+    public ByteBuffer acquire(final int capacity) {
+        acquired.add(capacity);
+        if(detection) {
+            this.report();
+        }
+        final int shift = Math.max(MIN_SHIFT, shift(capacity));
+        ByteBuffer buffer = null;
+        if(shift <= maxShift) {
+            final int index = shift - MIN_SHIFT;
+            buffer = local.get()[index].pollFirst();
+            if(null == buffer) {
+                buffer = queues[index].poll();
+                if(null != buffer) {
+                    pooled.addAndGet(-buffer.capacity());
+                }
+            }
+        }
+        if(null == buffer) {
+            final int size = shift <= maxShift ? 1 << shift : capacity;
+            allocated.add(size);
+            buffer = ByteBuffer.allocate(size);
+        }
+        buffer.clear();
+        buffer.limit(capacity);
+        if(detection) {
+            final Leak leak = new Leak(buffer, collected);
+            outstanding.put(leak.identity, leak);
+        }
+        return buffer;
+    }
+
+    /**
+     * Return buffer to pool. The buffer must not be used by the caller afterwards.
+     *
+     * @param buffer Buffer previously obtained from {@link #acquire(int)}
+     */
+    public void release(final ByteBuffer buffer) {
+        if(null == buffer) {
+            return;
+        }
+        if(detection) {
+            final Leak leak = outstanding.remove(new Identity(buffer));
+            if(null != leak) {
+                leak.clear();
+            }
+        }
+        final int shift = shift(buffer.capacity());
+        if(shift < MIN_SHIFT || shift > maxShift || 1 << shift != buffer.capacity()) {
+            // Not allocated by pool
+            return;
+        }
+        final int index = shift - MIN_SHIFT;
+        final ArrayDeque<ByteBuffer> deque = local.get()[index];
+        if(deque.size() < cached) {
+            deque.offerFirst(buffer);
+            return;
+        }
+        if(pooled.addAndGet(buffer.capacity()) > limit) {
+            pooled.addAndGet(-buffer.capacity());
+            // Discard
+            return;
+        }
+        queues[index].offer(buffer);
+    }
+
+    /**
+     * @param bytes Number of bytes transferred using buffers from this pool
+     */
+    public void transferred(final long bytes) {
+        transferred.add(bytes);
+    }
+
+    /**
+     * @return Number of bytes allocated for new buffers
+     */
+    public long getAllocated() {
+        return allocated.sum();
+    }
+
+    /**
+     * @return Number of bytes requested from pool
+     */
+    public long getAcquired() {
+        return acquired.sum();
+    }
+
+    /**
+     * @return Number of bytes allocated for new buffers per GB transferred
+     */
+    public double getAllocationRate() {
+        final long total = transferred.sum();
+        if(0L == total) {
+            return 0d;
+        }
+        return allocated.sum() / (total / (1024d * 1024d * 1024d));
+    }
+
+    private void report() {
+        Leak leak;
+        while((leak = (Leak) collected.poll()) != null) {
+            if(null != outstanding.remove(leak.identity)) {
+                log.warn("Buffer not returned to pool before garbage collection", leak.trace);
+            }
+        }
+    }
+
+    /**
+     * @return Exponent of the smallest power of two greater or equal than value
+     */
+    private static int shift(final int value) {
+        if(value <= 1) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(value - 1);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ByteBufferPool{");
+        sb.append("pooled=").append(pooled.get());
+        sb.append(", allocated=").append(allocated.sum());
+        sb.append(", acquired=").append(acquired.sum());
+        sb.append(", transferred=").append(transferred.sum());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Identity of a buffer not preventing it from garbage collection
+     */
+    private static final class Identity extends WeakReference<ByteBuffer> {
+        private final int hash;
+
+        public Identity(final ByteBuffer buffer) {
+            super(buffer);
+            this.hash = System.identityHashCode(buffer);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof Identity)) {
+                return false;
+            }
+            final ByteBuffer referent = this.get();
+            return null != referent && referent == ((Identity) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Leak extends WeakReference<ByteBuffer> {
+        private final Identity identity;
+        private final Exception trace = new Exception("Allocation of unreleased buffer");
+
+        public Leak(final ByteBuffer buffer, final ReferenceQueue<ByteBuffer> queue) {
+            super(buffer, queue);
+            this.identity = new Identity(buffer);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.io.input.ProxyInputStream;
+
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Input stream reading from a channel that can be unwrapped to allow zero-copy transfers.
+ *
+ * @see StreamCopier
+ */
+public class ChannelInputStream extends ProxyInputStream {
+
+    private final ReadableByteChannel channel;
+
+    public ChannelInputStream(final ReadableByteChannel channel) {
+        super(Channels.newInputStream(channel));
+        this.channel = channel;
+    }
+
+    public ReadableByteChannel getChannel() {
+        return channel;
+    }
+}
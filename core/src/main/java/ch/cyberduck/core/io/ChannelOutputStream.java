@@ -0,0 +1,40 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.io.output.ProxyOutputStream;
+
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Output stream writing to a channel that can be unwrapped to allow zero-copy transfers.
+ *
+ * @see StreamCopier
+ */
+public class ChannelOutputStream extends ProxyOutputStream {
+
+    private final WritableByteChannel channel;
+
+    public ChannelOutputStream(final WritableByteChannel channel) {
+        super(Channels.newOutputStream(channel));
+        this.channel = channel;
+    }
+
+    public WritableByteChannel getChannel() {
+        return channel;
+    }
+}
@@ -51,14 +51,19 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
         buffer.reset();
         for(int offset = 0; offset < content.length; offset += threshold) {
             int len = Math.min(threshold, content.length - offset);
-            final byte[] bytes = Arrays.copyOfRange(content, offset, offset + len);
             if(len < threshold) {
                 // Write to start of buffer
-                this.write(bytes);
+                this.write(content, offset, len);
             }
             else {
-                // Write out
-                proxy.write(bytes);
+                if(len == content.length) {
+                    // Write out without copying single segment
+                    proxy.write(content);
+                }
+                else {
+                    // Write out
+                    proxy.write(Arrays.copyOfRange(content, offset, offset + len));
+                }
             }
         }
     }
@@ -25,9 +25,15 @@ import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.log4j.Logger;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 public final class StreamCopier {
     private static final Logger log = Logger.getLogger(StreamCopier.class);
@@ -45,6 +51,12 @@ public final class StreamCopier {
     private Integer chunksize
             = PreferencesFactory.get().getInteger("connection.chunksize");
 
+    /**
+     * Maximum number of bytes for a single channel to channel transfer
+     */
+    private final Integer channelsize
+            = PreferencesFactory.get().getInteger("connection.chunksize.channel");
+
     private Long offset = 0L;
 
     private Long limit = -1L;
@@ -79,7 +91,8 @@ public final class StreamCopier {
     }
 
     /**
-     * Updates the current number of bytes transferred in the status reference.
+     * Updates the current number of bytes transferred in the status reference. Transfers from a file or to a file
+     * are done using channels without copying to a buffer if both streams allow access to their underlying channel.
      *
      * @param in  The stream to read from
      * @param out The stream to write to
@@ -87,42 +100,22 @@ public final class StreamCopier {
     public void transfer(final InputStream in, final OutputStream out) throws BackgroundException {
         try {
             try {
-                if(offset > 0) {
-                    skip(in, offset);
-                }
-                final byte[] buffer = new byte[chunksize];
-                long total = 0;
-                int len = chunksize;
-                if(limit > 0 && limit < chunksize) {
-                    // Cast will work because chunk size is int
-                    len = limit.intValue();
+                final ReadableByteChannel source = channel(in);
+                final WritableByteChannel target = channel(out);
+                if(source instanceof FileChannel && null != target) {
+                    this.transfer((FileChannel) source, target);
                 }
-                while(len > 0 && !cancel.isCanceled()) {
-                    final int read = in.read(buffer, 0, len);
-                    if(-1 == read) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("End of file reached with %d bytes read from stream", total));
-                        }
-                        progress.setComplete();
-                        break;
+                else if(target instanceof FileChannel && null != source) {
+                    if(offset > 0) {
+                        skip(in, offset);
                     }
-                    else {
-                        listener.recv(read);
-                        out.write(buffer, 0, read);
-                        progress.progress(read);
-                        listener.sent(read);
-                        total += read;
-                    }
-                    if(limit > 0) {
-                        // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
-                        len = (int) Math.min(limit - total, chunksize);
-                    }
-                    if(limit == total) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Limit %d reached reading from stream", limit));
-                        }
-                        progress.setComplete();
+                    this.transfer(source, (FileChannel) target);
+                }
+                else {
+                    if(offset > 0) {
+                        skip(in, offset);
                     }
+                    this.copy(in, out);
                 }
             }
             catch(IOException e) {
@@ -148,6 +141,169 @@ public final class StreamCopier {
         }
     }
 
+    private void copy(final InputStream in, final OutputStream out) throws IOException {
+        final ByteBufferPool pool = ByteBufferPool.get();
+        final ByteBuffer pooled = pool.acquire(chunksize);
+        final byte[] buffer = pooled.array();
+        long total = 0;
+        try {
+            int len = chunksize;
+            if(limit > 0 && limit < chunksize) {
+                // Cast will work because chunk size is int
+                len = limit.intValue();
+            }
+            while(len > 0 && !cancel.isCanceled()) {
+                final int read = in.read(buffer, 0, len);
+                if(-1 == read) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("End of file reached with %d bytes read from stream", total));
+                    }
+                    progress.setComplete();
+                    break;
+                }
+                else {
+                    listener.recv(read);
+                    out.write(buffer, 0, read);
+                    progress.progress(read);
+                    listener.sent(read);
+                    total += read;
+                }
+                if(limit > 0) {
+                    // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
+                    len = (int) Math.min(limit - total, chunksize);
+                }
+                if(limit == total) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Limit %d reached reading from stream", limit));
+                    }
+                    progress.setComplete();
+                }
+            }
+        }
+        finally {
+            pool.release(pooled);
+            pool.transferred(total);
+        }
+    }
+
+    /**
+     * Transfer from file using {@link FileChannel#transferTo(long, long, WritableByteChannel)}
+     */
+    private void transfer(final FileChannel source, final WritableByteChannel target) throws IOException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Transfer from channel %s to %s", source, target));
+        }
+        long position = source.position() + offset;
+        long total = 0;
+        long len = this.next(total);
+        while(len > 0 && !cancel.isCanceled()) {
+            final long transferred = source.transferTo(position, len, target);
+            if(transferred <= 0) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes read from channel", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            position += transferred;
+            total = this.progress(total, transferred);
+            len = this.next(total);
+        }
+    }
+
+    /**
+     * Transfer to file using {@link FileChannel#transferFrom(ReadableByteChannel, long, long)}
+     */
+    private void transfer(final ReadableByteChannel source, final FileChannel target) throws IOException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Transfer from channel %s to %s", source, target));
+        }
+        long position = target.position();
+        long total = 0;
+        long len = this.next(total);
+        try {
+            while(len > 0 && !cancel.isCanceled()) {
+                final long transferred = target.transferFrom(source, position, len);
+                if(transferred <= 0) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("End of file reached with %d bytes read from channel", total));
+                    }
+                    progress.setComplete();
+                    break;
+                }
+                position += transferred;
+                total = this.progress(total, transferred);
+                len = this.next(total);
+            }
+        }
+        finally {
+            // Position is not modified by transfer
+            target.position(position);
+        }
+    }
+
+    /**
+     * @param total Number of bytes transferred so far
+     * @return Number of bytes to transfer next
+     */
+    private long next(final long total) {
+        if(limit > 0) {
+            return Math.min(limit - total, channelsize);
+        }
+        return channelsize;
+    }
+
+    private long progress(final long total, final long transferred) {
+        listener.recv(transferred);
+        progress.progress(transferred);
+        listener.sent(transferred);
+        if(limit == total + transferred) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Limit %d reached reading from channel", limit));
+            }
+            progress.setComplete();
+        }
+        return total + transferred;
+    }
+
+    /**
+     * @param in Input stream
+     * @return Null if the stream does not allow direct access to its channel
+     */
+    private static ReadableByteChannel channel(final InputStream in) {
+        if(in instanceof ThrottledInputStream) {
+            final InputStream unwrapped = ((ThrottledInputStream) in).unwrap();
+            if(unwrapped != in) {
+                return channel(unwrapped);
+            }
+            return null;
+        }
+        if(in instanceof ChannelInputStream) {
+            return ((ChannelInputStream) in).getChannel();
+        }
+        if(in instanceof FileInputStream) {
+            return ((FileInputStream) in).getChannel();
+        }
+        return null;
+    }
+
+    /**
+     * @param out Output stream
+     * @return Null if the stream does not allow direct access to its channel
+     */
+    private static WritableByteChannel channel(final OutputStream out) {
+        if(out instanceof VoidStatusOutputStream && out.getClass() == VoidStatusOutputStream.class) {
+            return channel(((VoidStatusOutputStream) out).unwrap());
+        }
+        if(out instanceof ChannelOutputStream) {
+            return ((ChannelOutputStream) out).getChannel();
+        }
+        if(out instanceof FileOutputStream) {
+            return ((FileOutputStream) out).getChannel();
+        }
+        return null;
+    }
+
     public static InputStream skip(final InputStream in, final long offset) throws BackgroundException {
         try {
             long skipped = in.skip(offset);
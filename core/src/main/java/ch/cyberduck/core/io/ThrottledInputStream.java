@@ -53,4 +53,14 @@ public class ThrottledInputStream extends ProxyInputStream {
     public int read(byte[] data, int offset, int len) throws IOException {
         return delegate.read(data, offset, throttle.request(len));
     }
-}
\ No newline at end of file
+
+    /**
+     * @return Stream to read from directly when no bandwidth limit is set
+     */
+    InputStream unwrap() {
+        if(throttle.getRate() == BandwidthThrottle.UNLIMITED) {
+            return delegate;
+        }
+        return this;
+    }
+}
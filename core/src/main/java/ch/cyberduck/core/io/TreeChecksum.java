@@ -0,0 +1,81 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import org.apache.commons.codec.binary.Hex;
+
+import java.util.List;
+
+/**
+ * Digest of a file together with the digests of its parts of fixed size
+ */
+public final class TreeChecksum {
+
+    private final Checksum checksum;
+    private final long partsize;
+    private final long length;
+    private final List<byte[]> parts;
+
+    public TreeChecksum(final Checksum checksum, final long length, final long partsize, final List<byte[]> parts) {
+        this.checksum = checksum;
+        this.length = length;
+        this.partsize = partsize;
+        this.parts = parts;
+    }
+
+    /**
+     * @return Digest of the whole file
+     */
+    public Checksum getChecksum() {
+        return checksum;
+    }
+
+    public long getPartsize() {
+        return partsize;
+    }
+
+    public int getCount() {
+        return parts.size();
+    }
+
+    /**
+     * @param offset Offset of part in file
+     * @param length Length of part
+     * @return Digest of part or none if the range does not match a part boundary
+     */
+    public Checksum getPart(final long offset, final long length) {
+        if(0 == partsize || offset % partsize != 0) {
+            return Checksum.NONE;
+        }
+        final long index = offset / partsize;
+        if(index >= parts.size()) {
+            return Checksum.NONE;
+        }
+        if(length != Math.min(partsize, this.length - offset)) {
+            return Checksum.NONE;
+        }
+        return new Checksum(checksum.algorithm, Hex.encodeHexString(parts.get((int) index)));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TreeChecksum{");
+        sb.append("checksum=").append(checksum);
+        sb.append(", partsize=").append(partsize);
+        sb.append(", parts=").append(parts.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,272 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocaleFactory;
+import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.collections4.map.LRUMap;
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Compute digests of local files using positional reads. The digests of parts are computed in parallel
+ * together with the digest of the whole file. Results are cached for unchanged files identified by path, size
+ * and modification date.
+ */
+public class TreeChecksumCompute {
+    private static final Logger log = Logger.getLogger(TreeChecksumCompute.class);
+
+    /**
+     * Size of buffer for reading region
+     */
+    private static final int BUFFER = 1024 * 1024;
+
+    private static final ForkJoinPool pool = new ForkJoinPool(
+            Math.max(1, PreferencesFactory.get().getInteger("checksum.compute.threads")));
+
+    private static final Map<Key, TreeChecksum> cache = Collections.synchronizedMap(new LRUMap<Key, TreeChecksum>(
+            PreferencesFactory.get().getInteger("checksum.compute.cache.size")));
+
+    public static boolean isSupported(final HashAlgorithm algorithm) {
+        if(null == algorithm) {
+            return false;
+        }
+        switch(algorithm) {
+            case md5:
+            case sha1:
+            case sha256:
+            case sha512:
+                return true;
+        }
+        return false;
+    }
+
+    protected static String toDigestName(final HashAlgorithm algorithm) {
+        switch(algorithm) {
+            case md5:
+                return "MD5";
+            case sha1:
+                return "SHA-1";
+            case sha256:
+                return "SHA-256";
+            case sha512:
+                return "SHA-512";
+        }
+        throw new IllegalArgumentException(String.format("Unsupported algorithm %s", algorithm));
+    }
+
+    /**
+     * @param local     File
+     * @param algorithm Digest algorithm
+     * @return Digest of the whole file
+     */
+    public Checksum compute(final Local local, final HashAlgorithm algorithm) throws ChecksumException {
+        return this.compute(local, algorithm, 0L).getChecksum();
+    }
+
+    /**
+     * @param local     File
+     * @param algorithm Digest algorithm
+     * @param partsize  Size of parts or zero to only compute the digest of the whole file
+     * @return Digest of whole file and parts
+     */
+    public TreeChecksum compute(final Local local, final HashAlgorithm algorithm, final long partsize) throws ChecksumException {
+        if(!isSupported(algorithm)) {
+            throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"),
+                    String.format("Unsupported algorithm %s", algorithm));
+        }
+        final Key key = new Key(local.getAbsolute(), local.attributes().getSize(),
+                local.attributes().getModificationDate(), algorithm, partsize);
+        final TreeChecksum cached = cache.get(key);
+        if(cached != null) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Return cached checksum %s for %s", cached, local));
+            }
+            return cached;
+        }
+        final TreeChecksum checksum = this.digest(local, algorithm, partsize);
+        cache.put(key, checksum);
+        return checksum;
+    }
+
+    /**
+     * Digest a single region of the file on the calling thread without computing the digest of the whole file
+     *
+     * @param local     File
+     * @param algorithm Digest algorithm
+     * @param offset    Offset of region in file
+     * @param length    Length of region
+     * @return Digest of region
+     */
+    public Checksum compute(final Local local, final HashAlgorithm algorithm, final long offset, final long length) throws ChecksumException {
+        if(!isSupported(algorithm)) {
+            throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"),
+                    String.format("Unsupported algorithm %s", algorithm));
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(Paths.get(local.getAbsolute()), StandardOpenOption.READ);
+            return new Checksum(algorithm, Hex.encodeHexString(new DigestCallable(channel, algorithm, offset, length).call()));
+        }
+        catch(IOException | NoSuchAlgorithmException e) {
+            throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getMessage(), e);
+        }
+        finally {
+            IOUtils.closeQuietly(channel);
+        }
+    }
+
+    private TreeChecksum digest(final Local local, final HashAlgorithm algorithm, final long partsize) throws ChecksumException {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(Paths.get(local.getAbsolute()), StandardOpenOption.READ);
+            final long length = channel.size();
+            final Future<byte[]> whole = pool.submit(new DigestCallable(channel, algorithm, 0L, length));
+            final List<Future<byte[]>> futures = new ArrayList<Future<byte[]>>();
+            if(partsize > 0) {
+                for(long offset = 0; offset < length; offset += partsize) {
+                    futures.add(pool.submit(new DigestCallable(channel, algorithm, offset, Math.min(partsize, length - offset))));
+                }
+            }
+            final List<byte[]> parts = new ArrayList<byte[]>(futures.size());
+            for(Future<byte[]> future : futures) {
+                parts.add(future.get());
+            }
+            final TreeChecksum checksum = new TreeChecksum(
+                    new Checksum(algorithm, Hex.encodeHexString(whole.get())), length, partsize, parts);
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Computed checksum %s for %s", checksum, local));
+            }
+            return checksum;
+        }
+        catch(IOException e) {
+            throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getMessage(), e);
+        }
+        catch(InterruptedException e) {
+            throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getMessage(), e);
+        }
+        catch(ExecutionException e) {
+            throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getCause().getMessage(), e.getCause());
+        }
+        finally {
+            IOUtils.closeQuietly(channel);
+        }
+    }
+
+    private static final class DigestCallable implements Callable<byte[]> {
+        private final FileChannel channel;
+        private final HashAlgorithm algorithm;
+        private final long offset;
+        private final long length;
+
+        public DigestCallable(final FileChannel channel, final HashAlgorithm algorithm, final long offset, final long length) {
+            this.channel = channel;
+            this.algorithm = algorithm;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public byte[] call() throws IOException, NoSuchAlgorithmException {
+            final MessageDigest md = MessageDigest.getInstance(toDigestName(algorithm));
+            // Positional reads do not leave the file mapped and can run concurrently on the same channel
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER, Math.max(1L, length)));
+            long position = offset;
+            while(position < offset + length) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), offset + length - position));
+                final int read = channel.read(buffer, position);
+                if(-1 == read) {
+                    throw new EOFException(String.format("Unexpected end of file at position %d", position));
+                }
+                buffer.flip();
+                md.update(buffer);
+                position += read;
+            }
+            return md.digest();
+        }
+    }
+
+    private static final class Key {
+        private final String path;
+        private final long size;
+        private final long modified;
+        private final HashAlgorithm algorithm;
+        private final long partsize;
+
+        public Key(final String path, final long size, final long modified, final HashAlgorithm algorithm, final long partsize) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.algorithm = algorithm;
+            this.partsize = partsize;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            if(size != key.size) {
+                return false;
+            }
+            if(modified != key.modified) {
+                return false;
+            }
+            if(partsize != key.partsize) {
+                return false;
+            }
+            if(algorithm != key.algorithm) {
+                return false;
+            }
+            return path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = path.hashCode();
+            result = 31 * result + (int) (size ^ (size >>> 32));
+            result = 31 * result + (int) (modified ^ (modified >>> 32));
+            result = 31 * result + algorithm.hashCode();
+            result = 31 * result + (int) (partsize ^ (partsize >>> 32));
+            return result;
+        }
+    }
+}
@@ -20,12 +20,22 @@ import ch.cyberduck.core.exception.BackgroundException;
 import java.io.OutputStream;
 
 public class VoidStatusOutputStream extends StatusOutputStream<Void> {
+    private final OutputStream proxy;
+
     public VoidStatusOutputStream(final OutputStream proxy) {
         super(proxy);
+        this.proxy = proxy;
     }
 
     @Override
     public Void getStatus() throws BackgroundException {
         return null;
     }
+
+    /**
+     * @return Stream written to
+     */
+    OutputStream unwrap() {
+        return proxy;
+    }
 }
@@ -0,0 +1,211 @@
+package ch.cyberduck.core.local;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.NullFilter;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scan a local folder tree in parallel. Each folder is listed with {@link Local#list()} in a task of a fork join
+ * pool and the attributes of all entries are read in the same task. The attributes are kept as a snapshot with each
+ * file to save additional calls to the file system until the scanner is closed. The listing of a folder can be
+ * retrieved as soon as it is read while the rest of the tree is still scanned. No more folders are read ahead
+ * while the number of listings not yet retrieved exceeds <code>local.scan.readahead</code>.
+ */
+public class LocalTreeScanner {
+    private static final Logger log = Logger.getLogger(LocalTreeScanner.class);
+
+    private static final ForkJoinPool pool = new ForkJoinPool(
+            Math.max(1, PreferencesFactory.get().getInteger("local.scan.threads")));
+
+    private final ConcurrentHashMap<Local, CompletableFuture<AttributedList<Local>>> listings
+            = new ConcurrentHashMap<Local, CompletableFuture<AttributedList<Local>>>();
+
+    /**
+     * Files with attributes snapshot to invalidate when closed
+     */
+    private final ConcurrentLinkedQueue<Local> scanned = new ConcurrentLinkedQueue<Local>();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Maximum number of folders read ahead and not yet retrieved
+     */
+    private final int readahead = PreferencesFactory.get().getInteger("local.scan.readahead");
+
+    /**
+     * Folders not accepted are not scanned
+     */
+    private final Filter<Local> filter;
+
+    public LocalTreeScanner() {
+        this(new NullFilter<Local>());
+    }
+
+    public LocalTreeScanner(final Filter<Local> filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Start scanning the tree of the folder in the background unless already scanned
+     *
+     * @param directory Folder
+     */
+    public void scan(final Local directory) {
+        if(closed.get()) {
+            return;
+        }
+        final CompletableFuture<AttributedList<Local>> future = new CompletableFuture<AttributedList<Local>>();
+        if(null == listings.putIfAbsent(directory, future)) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Scan tree of %s", directory));
+            }
+            pool.execute(new ListTask(directory, future));
+        }
+    }
+
+    /**
+     * Retrieve the listing of a folder waiting for it to be read. Scans the tree of the folder if not already
+     * scanned. A listing can only be retrieved once.
+     *
+     * @param directory Folder
+     * @return Children of folder with attributes
+     */
+    public AttributedList<Local> list(final Local directory) throws AccessDeniedException {
+        if(closed.get() || directory.isSymbolicLink()) {
+            // List through symbolic link
+            return directory.list();
+        }
+        this.scan(directory);
+        final CompletableFuture<AttributedList<Local>> future = listings.remove(directory);
+        if(null == future) {
+            return directory.list();
+        }
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            throw new LocalAccessDeniedException(String.format("Error listing files in directory %s", directory), e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof AccessDeniedException) {
+                throw (AccessDeniedException) e.getCause();
+            }
+            throw new LocalAccessDeniedException(String.format("Error listing files in directory %s", directory), e.getCause());
+        }
+    }
+
+    /**
+     * Stop scanning, discard listings not retrieved and invalidate attributes read
+     */
+    public void close() {
+        closed.set(true);
+        listings.clear();
+        Local file;
+        while((file = scanned.poll()) != null) {
+            file.attributes().invalidate();
+        }
+    }
+
+    private final class ListTask extends RecursiveAction {
+        private final Local directory;
+        private final CompletableFuture<AttributedList<Local>> future;
+
+        public ListTask(final Local directory, final CompletableFuture<AttributedList<Local>> future) {
+            this.directory = directory;
+            this.future = future;
+        }
+
+        @Override
+        protected void compute() {
+            if(closed.get()) {
+                future.cancel(false);
+                return;
+            }
+            final AttributedList<Local> children;
+            try {
+                children = this.read();
+            }
+            catch(AccessDeniedException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            future.complete(children);
+            final List<ListTask> tasks = new ArrayList<ListTask>();
+            for(Local child : children) {
+                final BasicFileAttributes snapshot = child.attributes().getSnapshot();
+                if(null == snapshot || !snapshot.isDirectory()) {
+                    // Symbolic links are only listed when requested
+                    continue;
+                }
+                if(!filter.accept(child)) {
+                    continue;
+                }
+                if(listings.size() >= readahead) {
+                    // Scanned when listing is requested
+                    continue;
+                }
+                final CompletableFuture<AttributedList<Local>> next = new CompletableFuture<AttributedList<Local>>();
+                if(null == listings.putIfAbsent(child, next)) {
+                    tasks.add(new ListTask(child, next));
+                }
+            }
+            invokeAll(tasks);
+        }
+
+        private AttributedList<Local> read() throws AccessDeniedException {
+            final AttributedList<Local> children = directory.list();
+            for(Local child : children) {
+                try {
+                    child.attributes().withSnapshot(Files.readAttributes(Paths.get(child.getAbsolute()),
+                            BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+                    scanned.add(child);
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure reading attributes of %s. %s", child, e.getMessage()));
+                }
+            }
+            if(closed.get()) {
+                // Closed while reading
+                for(Local child : children) {
+                    child.attributes().invalidate();
+                }
+            }
+            return children;
+        }
+    }
+}
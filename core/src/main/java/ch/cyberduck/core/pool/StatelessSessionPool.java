@@ -46,7 +46,7 @@ public class StatelessSessionPool implements SessionPool {
                                 final TranscriptListener transcript, final VaultRegistry registry) {
         this.connect = connect;
         this.transcript = transcript;
-        this.session = session.withRegistry(registry);
+        this.session = session.withRegistry(registry).withCache(cache);
         this.registry = registry;
         this.cache = cache;
     }
@@ -275,6 +275,10 @@ public abstract class Preferences {
         defaults.put("local.normalize.unicode", String.valueOf(true));
         defaults.put("local.normalize.tilde", String.valueOf(true));
         defaults.put("local.list.native", String.valueOf(true));
+        // Number of threads to read folders in parallel when preparing uploads
+        defaults.put("local.scan.threads", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        // Maximum number of folders read ahead when preparing uploads
+        defaults.put("local.scan.readahead", String.valueOf(100));
         defaults.put("local.delimiter", File.separator);
         defaults.put("local.temporaryfiles.shortening.threshold", String.valueOf(240));
 
@@ -304,6 +308,20 @@ public abstract class Preferences {
         defaults.put("browser.cache.size", String.valueOf(1000));
         defaults.put("transfer.cache.size", String.valueOf(100));
         defaults.put("icon.cache.size", String.valueOf(200));
+        /*
+          Maximum number of identifiers of files and folders cached per bookmark for protocols addressing files by ID
+         */
+        defaults.put("fileid.cache.size", String.valueOf(100000));
+        defaults.put("fileid.cache.ttl", String.valueOf(600000)); // 10 minutes
+        /*
+          Maximum number of cached checksums of local files and number of threads to compute digests of parts
+         */
+        defaults.put("checksum.compute.cache.size", String.valueOf(1000));
+        defaults.put("checksum.compute.threads", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        /*
+          Maximum estimated memory in bytes retained by cached directory listings
+         */
+        defaults.put("browser.cache.weight", String.valueOf(128L * 1024L * 1024L));
 
         /*
           Caching NS* proxy instances.
@@ -396,6 +414,12 @@ public abstract class Preferences {
         defaults.put("browser.date.natural", String.valueOf(true));
 
         defaults.put("browser.delete.concurrency", String.valueOf(10));
+        defaults.put("browser.search.concurrency", String.valueOf(5));
+        /*
+          Maximum depth of subdirectories and number of matches for recursive search
+         */
+        defaults.put("browser.search.depth", String.valueOf(Integer.MAX_VALUE));
+        defaults.put("browser.search.limit", String.valueOf(Integer.MAX_VALUE));
 
 
         defaults.put("info.toggle.permission", String.valueOf(1));
@@ -437,6 +461,10 @@ public abstract class Preferences {
                 String.valueOf(Host.TransferType.concurrent.name())
         ));
         defaults.put("queue.transfer.type", String.valueOf(Host.TransferType.concurrent.name()));
+        /*
+          Start transferring files while remaining folders are still listed
+         */
+        defaults.put("queue.transfer.pipeline", String.valueOf(true));
         /*
           Warning when number of transfers in queue exceeds limit
          */
@@ -523,6 +551,8 @@ public abstract class Preferences {
         defaults.put("queue.download.segments", String.valueOf(false));
         defaults.put("queue.download.segments.threshold", String.valueOf(100L * 1024L * 1024L));
         defaults.put("queue.download.segments.size", String.valueOf(50L * 1024L * 1024L));
+        // Write segments to target file at their offset instead of concatenating segment files
+        defaults.put("queue.download.segments.inplace", String.valueOf(true));
 
         /*
           Open completed downloads
@@ -581,6 +611,11 @@ public abstract class Preferences {
             options.append(20).append(",");
             defaults.put("queue.connections.options", options.toString());
         }
+        /*
+          Lower number of concurrent connections when the server is overloaded and raise it again with improving
+          throughput. Never exceeds queue.connections.limit.
+         */
+        defaults.put("queue.connections.adaptive", String.valueOf(true));
 
         /*
           While downloading, update the icon of the downloaded file as a progress indicator
@@ -634,6 +669,10 @@ public abstract class Preferences {
         defaults.put("ftp.command.lista", String.valueOf(true));
         defaults.put("ftp.command.stat", String.valueOf(true));
         defaults.put("ftp.command.mlsd", String.valueOf(true));
+        // Number of parsed files in directory listing to notify listener with at once
+        defaults.put("ftp.listing.chunksize", String.valueOf(1000));
+        // Number of hosts to remember matching directory listing parser for
+        defaults.put("ftp.parser.cache.size", String.valueOf(100));
 
         /*
           Fallback to active or passive mode respectively
@@ -689,12 +728,16 @@ public abstract class Preferences {
         defaults.put("s3.mfa.serialnumber", StringUtils.EMPTY);
 
         defaults.put("s3.listing.chunksize", String.valueOf(1000));
+        // Number of key ranges listed in parallel for recursive listings
+        defaults.put("s3.listing.concurrency", String.valueOf(8));
 
         defaults.put("s3.upload.md5", String.valueOf(true));
 
         defaults.put("s3.upload.multipart", String.valueOf(true));
         defaults.put("s3.upload.multipart.concurrency", String.valueOf(10));
         defaults.put("s3.upload.multipart.partsize.minimum", String.valueOf(5L * 1024L * 1024L));
+        // Upload parts of streamed multipart uploads concurrently from a ring of reusable buffers
+        defaults.put("s3.upload.multipart.pipeline", String.valueOf(true));
         /*
           Threshold in bytes. Only use multipart uploads for files more than 100MB
          */
@@ -724,6 +767,10 @@ public abstract class Preferences {
 
         defaults.put("onedrive.listing.chunksize", String.valueOf(1000));
         defaults.put("onedrive.upload.multipart.partsize.minimum", String.valueOf(320 * 1024));
+        // Size of fragments for upload sessions as a multiple of 320 KiB
+        defaults.put("onedrive.upload.multipart.partsize", String.valueOf(32 * 320 * 1024));
+        // Maximum number of fragments buffered in memory waiting for upload
+        defaults.put("onedrive.upload.multipart.queue", String.valueOf(2));
 
         final int month = 60 * 60 * 24 * 30; //30 days in seconds
         defaults.put("s3.cache.seconds", String.valueOf(month));
@@ -771,6 +818,8 @@ public abstract class Preferences {
 
         defaults.put("googledrive.list.limit", String.valueOf(1000));
         defaults.put("googledrive.teamdrive.enable", String.valueOf(true));
+        // Maximum number of calls in a single batch request
+        defaults.put("googledrive.delete.multiple.partition", String.valueOf(100));
 
         defaults.put("b2.bucket.acl.default", "allPrivate");
         defaults.put("b2.listing.chunksize", String.valueOf(100));
@@ -883,6 +932,10 @@ public abstract class Preferences {
          * Save passwords for vaults in Keychain
          */
         defaults.put("vault.keychain", String.valueOf(false));
+        /*
+         * Number of threads shared by all listings to decrypt filenames concurrently
+         */
+        defaults.put("vault.decrypt.threads", String.valueOf(10));
 
         defaults.put("connection.port.default", String.valueOf(21));
         defaults.put("connection.protocol.default", Scheme.ftp.name());
@@ -914,6 +967,16 @@ public abstract class Preferences {
           Convert hostname to Punycode
          */
         defaults.put("connection.hostname.idn", String.valueOf(true));
+        /*
+          Cache resolved addresses in seconds unless set with networkaddress.cache.ttl security property
+         */
+        defaults.put("connection.dns.cache.ttl", String.valueOf(30));
+        defaults.put("connection.dns.cache.negative.ttl", String.valueOf(10));
+        /*
+          Connect to IPv6 and IPv4 addresses of a host in parallel. Delay in milliseconds between attempts
+         */
+        defaults.put("connection.happyeyeballs.enable", String.valueOf(true));
+        defaults.put("connection.happyeyeballs.delay", String.valueOf(250));
 
         /*
           java.net.preferIPv6Addresses
@@ -937,6 +1000,16 @@ public abstract class Preferences {
         defaults.put("connection.ssl.cipher.blacklist", StringUtils.EMPTY);
 
         defaults.put("connection.ssl.x509.revocation.online", String.valueOf(false));
+        /*
+          Skip verification of server certificate chains previously trusted for the same hostname
+         */
+        defaults.put("connection.ssl.x509.cache.ttl", String.valueOf(300)); // seconds
+        defaults.put("connection.ssl.x509.cache.size", String.valueOf(100));
+        /*
+          Share SSL context and its session cache keyed by host and port between connections
+          with the same key manager to resume sessions
+         */
+        defaults.put("connection.ssl.session.cache.shared", String.valueOf(true));
 
         defaults.put("connection.ssl.keystore.type", null);
         defaults.put("connection.ssl.keystore.provider", null);
@@ -949,10 +1022,21 @@ public abstract class Preferences {
           Transfer read buffer size
          */
         defaults.put("connection.chunksize", String.valueOf(32768));
+        /*
+          Maximum number of bytes transferred at once between channels without copying to a buffer
+         */
+        defaults.put("connection.chunksize.channel", String.valueOf(1024 * 1024));
         /*
           Buffer size for wrapped buffered streams
          */
         defaults.put("connection.buffer", String.valueOf(8192));
+        /*
+          Largest buffer size, maximum number of bytes kept and number of buffers per size cached per thread in
+          shared buffer pool
+         */
+        defaults.put("connection.buffer.pool.max", String.valueOf(8 * 1024 * 1024));
+        defaults.put("connection.buffer.pool.limit", String.valueOf(64L * 1024L * 1024L));
+        defaults.put("connection.buffer.pool.thread", String.valueOf(2));
         /*
           SO_SNDBUF
          */
@@ -991,6 +1075,17 @@ public abstract class Preferences {
         defaults.put("ssh.heartbeat.provider", "keep-alive");
         defaults.put("ssh.heartbeat.seconds", String.valueOf(60));
 
+        /*
+          Number of SFTP channels opened on a single authenticated connection shared by sessions for the same
+          bookmark. Defaults to 1 to open a new connection for every session.
+         */
+        defaults.put("ssh.multiplex.channels", String.valueOf(1));
+        /*
+          Maximum number of shared connections per bookmark. Additional channels are opened on the
+          connection with the least channels in use when reached.
+         */
+        defaults.put("ssh.multiplex.connections", String.valueOf(4));
+
         /*
           Enable ZLIB compression
          */
@@ -1005,6 +1100,8 @@ public abstract class Preferences {
 
         defaults.put("sftp.read.maxunconfirmed", String.valueOf(64));
         defaults.put("sftp.write.maxunconfirmed", String.valueOf(64));
+        // Maximum number of outstanding requests to resolve symbolic links in directory listing
+        defaults.put("sftp.listing.symlink.window", String.valueOf(128));
 
         defaults.put("archive.default", "tar.gz");
 
@@ -1045,6 +1142,12 @@ public abstract class Preferences {
 
         defaults.put("cryptomator.enable", String.valueOf(true));
         defaults.put("cryptomator.vault.autodetect", String.valueOf(true));
+        // Persist caches of vault metadata in application support folder
+        defaults.put("cryptomator.cache.persistent", String.valueOf(true));
+        defaults.put("cryptomator.cache.longnames.size", String.valueOf(20000));
+        defaults.put("cryptomator.cache.directories.size", String.valueOf(20000));
+        // Directory IDs persisted are read again from the vault after expiry because folders may be replaced by other clients
+        defaults.put("cryptomator.cache.directories.ttl", String.valueOf(60 * 60 * 24));
     }
 
     protected void setLogging() {
@@ -0,0 +1,278 @@
+package ch.cyberduck.core.socket;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.Resolver;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.NamedThreadFactory;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Race connection attempts to all addresses of a host alternating between IPv6 and IPv4 with a delay
+ * between attempts as described in RFC 8305. The socket of the first established connection is returned
+ * and all other attempts are aborted. The address of the winner is remembered for subsequent connections
+ * to the same host.
+ */
+public class HappyEyeballsAddressSelector {
+    private static final Logger log = Logger.getLogger(HappyEyeballsAddressSelector.class);
+
+    /**
+     * Address of last successful connection attempt by hostname and port
+     */
+    private static final Map<String, Selection> selections
+            = new ConcurrentHashMap<String, Selection>();
+
+    /**
+     * Threads blocking in connection attempts are reused for subsequent attempts
+     */
+    private static final ExecutorService executor
+            = Executors.newCachedThreadPool(new NamedThreadFactory("happyeyeballs"));
+
+    private final Resolver resolver;
+
+    /**
+     * Connection attempt delay in milliseconds
+     */
+    private final long delay;
+
+    /**
+     * Time to remember selected address in milliseconds
+     */
+    private final long ttl;
+
+    public HappyEyeballsAddressSelector() {
+        this(new Resolver(), PreferencesFactory.get().getLong("connection.happyeyeballs.delay"),
+                PreferencesFactory.get().getLong("connection.dns.cache.ttl") * 1000L);
+    }
+
+    public HappyEyeballsAddressSelector(final Resolver resolver, final long delay, final long ttl) {
+        this.resolver = resolver;
+        this.delay = delay;
+        this.ttl = ttl;
+    }
+
+    /**
+     * @param endpoint Resolved address with hostname
+     * @param timeout  Connect timeout in milliseconds or zero for no timeout
+     * @param callback Configure socket before connection attempt
+     * @return Connected socket
+     * @throws IOException No connection could be established to any address
+     */
+    public Socket connect(final InetSocketAddress endpoint, final int timeout, final Callback callback) throws IOException {
+        if(endpoint.isUnresolved()) {
+            throw new UnknownHostException(endpoint.getHostName());
+        }
+        final String hostname = endpoint.getHostString();
+        final List<InetAddress> addresses;
+        try {
+            addresses = resolver.resolveAll(hostname, new DisabledCancelCallback());
+        }
+        catch(BackgroundException e) {
+            log.warn(String.format("Failure resolving all addresses for %s. %s", hostname, e.getDetail()));
+            return this.connect(Collections.singletonList(endpoint.getAddress()), endpoint.getPort(), timeout, callback);
+        }
+        if(!this.isDualStack(addresses)) {
+            return this.connect(Collections.singletonList(endpoint.getAddress()), endpoint.getPort(), timeout, callback);
+        }
+        final String key = String.format("%s:%d", hostname, endpoint.getPort());
+        final Selection cached = selections.get(key);
+        if(cached != null && !cached.isExpired() && addresses.contains(cached.address)) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Use previously selected address %s for %s", cached.address, hostname));
+            }
+            try {
+                return this.connect(Collections.singletonList(cached.address), endpoint.getPort(), timeout, callback);
+            }
+            catch(IOException e) {
+                log.warn(String.format("Connection to previously selected address %s failed. %s", cached.address, e.getMessage()));
+                selections.remove(key, cached);
+            }
+        }
+        final Socket socket = this.connect(addresses, endpoint.getPort(), timeout, callback);
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Selected address %s for %s", socket.getInetAddress(), hostname));
+        }
+        selections.put(key, new Selection(socket.getInetAddress(), System.currentTimeMillis() + ttl));
+        return socket;
+    }
+
+    private boolean isDualStack(final List<InetAddress> addresses) {
+        boolean ipv6 = false;
+        boolean ipv4 = false;
+        for(InetAddress address : addresses) {
+            if(address instanceof Inet6Address) {
+                ipv6 = true;
+            }
+            else {
+                ipv4 = true;
+            }
+        }
+        return ipv6 && ipv4;
+    }
+
+    /**
+     * Start connection attempt to next address after delay or as soon as previous attempt failed. Each attempt
+     * connects a plain socket on its own thread.
+     *
+     * @return Socket of first established connection
+     */
+    protected Socket connect(final List<InetAddress> addresses, final int port, final int timeout, final Callback callback) throws IOException {
+        final List<Socket> sockets = new ArrayList<Socket>();
+        // Completed connection attempts
+        final BlockingQueue<Attempt> completed = new LinkedBlockingQueue<Attempt>();
+        Socket winner = null;
+        try {
+            final long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+            long attempt = System.currentTimeMillis();
+            int next = 0;
+            // Number of connection attempts in progress
+            int pending = 0;
+            IOException failure = null;
+            while(null == winner) {
+                final long now = System.currentTimeMillis();
+                if(next < addresses.size() && now >= attempt) {
+                    final InetAddress address = addresses.get(next++);
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Attempt connection to %s", address));
+                    }
+                    try {
+                        final Socket socket = new Socket();
+                        sockets.add(socket);
+                        final SocketAddress target = callback.prepare(socket, new InetSocketAddress(address, port));
+                        final int remaining = timeout > 0 ? (int) Math.max(1L, deadline - now) : 0;
+                        executor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    socket.connect(target, remaining);
+                                    completed.add(new Attempt(socket, address, null));
+                                }
+                                catch(IOException e) {
+                                    completed.add(new Attempt(socket, address, e));
+                                }
+                            }
+                        });
+                        pending++;
+                        attempt = now + delay;
+                    }
+                    catch(IOException e) {
+                        log.warn(String.format("Connection attempt to %s failed. %s", address, e.getMessage()));
+                        failure = e;
+                        continue;
+                    }
+                }
+                if(next == addresses.size() && 0 == pending) {
+                    throw null == failure ? new ConnectException(String.format("No address to connect to port %d", port)) : failure;
+                }
+                if(now >= deadline) {
+                    throw new SocketTimeoutException(String.format("Connect timed out after %dms", timeout));
+                }
+                final long wait = Math.min(deadline, next < addresses.size() ? attempt : deadline) - now;
+                final Attempt result;
+                try {
+                    result = completed.poll(Math.max(1L, wait), TimeUnit.MILLISECONDS);
+                }
+                catch(InterruptedException e) {
+                    throw new InterruptedIOException(e.getMessage());
+                }
+                if(null == result) {
+                    continue;
+                }
+                pending--;
+                if(null == result.failure) {
+                    winner = result.socket;
+                }
+                else {
+                    log.warn(String.format("Connection attempt to %s failed. %s", result.address, result.failure.getMessage()));
+                    failure = result.failure;
+                    IOUtils.closeQuietly(result.socket);
+                    // Start next attempt without delay
+                    attempt = System.currentTimeMillis();
+                }
+            }
+            return winner;
+        }
+        finally {
+            for(Socket socket : sockets) {
+                if(socket != winner) {
+                    // Aborts attempt still in progress
+                    IOUtils.closeQuietly(socket);
+                }
+            }
+        }
+    }
+
+    private static final class Attempt {
+        private final Socket socket;
+        private final InetAddress address;
+        private final IOException failure;
+
+        public Attempt(final Socket socket, final InetAddress address, final IOException failure) {
+            this.socket = socket;
+            this.address = address;
+            this.failure = failure;
+        }
+    }
+
+    public interface Callback {
+        /**
+         * Configure socket options before connecting
+         *
+         * @param socket  Socket for connection attempt
+         * @param address Address of connection attempt
+         * @return Address to connect socket to
+         */
+        SocketAddress prepare(Socket socket, InetSocketAddress address) throws IOException;
+    }
+
+    private static final class Selection {
+        private final InetAddress address;
+        private final long expires;
+
+        public Selection(final InetAddress address, final long expires) {
+            this.address = address;
+            this.expires = expires;
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expires;
+        }
+    }
+}
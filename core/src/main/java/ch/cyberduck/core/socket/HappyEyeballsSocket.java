@@ -0,0 +1,361 @@
+package ch.cyberduck.core.socket;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unconnected socket delegating to the socket that won the race of connection attempts to all
+ * addresses of the endpoint. Options set before connecting are applied to every connection attempt.
+ */
+public class HappyEyeballsSocket extends Socket {
+
+    private final HappyEyeballsAddressSelector selector;
+
+    private final HappyEyeballsAddressSelector.Callback callback;
+
+    /**
+     * Connected socket
+     */
+    private volatile Socket delegate;
+
+    /**
+     * Sockets of connection attempts in progress
+     */
+    private final List<Socket> attempts = new ArrayList<Socket>();
+
+    public HappyEyeballsSocket(final HappyEyeballsAddressSelector selector, final HappyEyeballsAddressSelector.Callback callback) {
+        this.selector = selector;
+        this.callback = callback;
+    }
+
+    @Override
+    public void connect(final SocketAddress endpoint, final int timeout) throws IOException {
+        if(super.isClosed()) {
+            throw new SocketException("Socket is closed");
+        }
+        if(null != delegate) {
+            throw new SocketException("already connected");
+        }
+        if(!(endpoint instanceof InetSocketAddress) || super.isBound()) {
+            super.connect(endpoint, timeout);
+            return;
+        }
+        final Socket socket = selector.connect((InetSocketAddress) endpoint, timeout, new HappyEyeballsAddressSelector.Callback() {
+            @Override
+            public SocketAddress prepare(final Socket socket, final InetSocketAddress address) throws IOException {
+                register(socket);
+                configure(socket);
+                return callback.prepare(socket, address);
+            }
+        });
+        synchronized(this) {
+            attempts.clear();
+            if(super.isClosed()) {
+                IOUtils.closeQuietly(socket);
+                throw new SocketException("Socket is closed");
+            }
+            delegate = socket;
+        }
+    }
+
+    /**
+     * Track connection attempt to abort when closed while connecting
+     */
+    private synchronized void register(final Socket socket) throws SocketException {
+        if(super.isClosed()) {
+            throw new SocketException("Socket is closed");
+        }
+        attempts.add(socket);
+    }
+
+    /**
+     * Apply options set on this socket to connection attempt
+     */
+    private void configure(final Socket socket) throws IOException {
+        socket.setSoTimeout(super.getSoTimeout());
+        socket.setTcpNoDelay(super.getTcpNoDelay());
+        socket.setKeepAlive(super.getKeepAlive());
+        socket.setOOBInline(super.getOOBInline());
+        socket.setReuseAddress(super.getReuseAddress());
+        socket.setReceiveBufferSize(super.getReceiveBufferSize());
+        socket.setSendBufferSize(super.getSendBufferSize());
+        final int linger = super.getSoLinger();
+        socket.setSoLinger(linger >= 0, Math.max(0, linger));
+        socket.setTrafficClass(super.getTrafficClass());
+    }
+
+    @Override
+    public InetAddress getInetAddress() {
+        return null == delegate ? super.getInetAddress() : delegate.getInetAddress();
+    }
+
+    @Override
+    public InetAddress getLocalAddress() {
+        return null == delegate ? super.getLocalAddress() : delegate.getLocalAddress();
+    }
+
+    @Override
+    public int getPort() {
+        return null == delegate ? super.getPort() : delegate.getPort();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return null == delegate ? super.getLocalPort() : delegate.getLocalPort();
+    }
+
+    @Override
+    public SocketAddress getRemoteSocketAddress() {
+        return null == delegate ? super.getRemoteSocketAddress() : delegate.getRemoteSocketAddress();
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        return null == delegate ? super.getLocalSocketAddress() : delegate.getLocalSocketAddress();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return null == delegate ? super.getInputStream() : delegate.getInputStream();
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        return null == delegate ? super.getOutputStream() : delegate.getOutputStream();
+    }
+
+    @Override
+    public void setTcpNoDelay(final boolean on) throws SocketException {
+        if(null == delegate) {
+            super.setTcpNoDelay(on);
+        }
+        else {
+            delegate.setTcpNoDelay(on);
+        }
+    }
+
+    @Override
+    public boolean getTcpNoDelay() throws SocketException {
+        return null == delegate ? super.getTcpNoDelay() : delegate.getTcpNoDelay();
+    }
+
+    @Override
+    public void setSoLinger(final boolean on, final int linger) throws SocketException {
+        if(null == delegate) {
+            super.setSoLinger(on, linger);
+        }
+        else {
+            delegate.setSoLinger(on, linger);
+        }
+    }
+
+    @Override
+    public int getSoLinger() throws SocketException {
+        return null == delegate ? super.getSoLinger() : delegate.getSoLinger();
+    }
+
+    @Override
+    public void sendUrgentData(final int data) throws IOException {
+        if(null == delegate) {
+            super.sendUrgentData(data);
+        }
+        else {
+            delegate.sendUrgentData(data);
+        }
+    }
+
+    @Override
+    public void setOOBInline(final boolean on) throws SocketException {
+        if(null == delegate) {
+            super.setOOBInline(on);
+        }
+        else {
+            delegate.setOOBInline(on);
+        }
+    }
+
+    @Override
+    public boolean getOOBInline() throws SocketException {
+        return null == delegate ? super.getOOBInline() : delegate.getOOBInline();
+    }
+
+    @Override
+    public void setSoTimeout(final int timeout) throws SocketException {
+        if(null == delegate) {
+            super.setSoTimeout(timeout);
+        }
+        else {
+            delegate.setSoTimeout(timeout);
+        }
+    }
+
+    @Override
+    public int getSoTimeout() throws SocketException {
+        return null == delegate ? super.getSoTimeout() : delegate.getSoTimeout();
+    }
+
+    @Override
+    public void setSendBufferSize(final int size) throws SocketException {
+        if(null == delegate) {
+            super.setSendBufferSize(size);
+        }
+        else {
+            delegate.setSendBufferSize(size);
+        }
+    }
+
+    @Override
+    public int getSendBufferSize() throws SocketException {
+        return null == delegate ? super.getSendBufferSize() : delegate.getSendBufferSize();
+    }
+
+    @Override
+    public void setReceiveBufferSize(final int size) throws SocketException {
+        if(null == delegate) {
+            super.setReceiveBufferSize(size);
+        }
+        else {
+            delegate.setReceiveBufferSize(size);
+        }
+    }
+
+    @Override
+    public int getReceiveBufferSize() throws SocketException {
+        return null == delegate ? super.getReceiveBufferSize() : delegate.getReceiveBufferSize();
+    }
+
+    @Override
+    public void setKeepAlive(final boolean on) throws SocketException {
+        if(null == delegate) {
+            super.setKeepAlive(on);
+        }
+        else {
+            delegate.setKeepAlive(on);
+        }
+    }
+
+    @Override
+    public boolean getKeepAlive() throws SocketException {
+        return null == delegate ? super.getKeepAlive() : delegate.getKeepAlive();
+    }
+
+    @Override
+    public void setTrafficClass(final int tc) throws SocketException {
+        if(null == delegate) {
+            super.setTrafficClass(tc);
+        }
+        else {
+            delegate.setTrafficClass(tc);
+        }
+    }
+
+    @Override
+    public int getTrafficClass() throws SocketException {
+        return null == delegate ? super.getTrafficClass() : delegate.getTrafficClass();
+    }
+
+    @Override
+    public void setReuseAddress(final boolean on) throws SocketException {
+        if(null == delegate) {
+            super.setReuseAddress(on);
+        }
+        else {
+            delegate.setReuseAddress(on);
+        }
+    }
+
+    @Override
+    public boolean getReuseAddress() throws SocketException {
+        return null == delegate ? super.getReuseAddress() : delegate.getReuseAddress();
+    }
+
+    @Override
+    public void shutdownInput() throws IOException {
+        if(null == delegate) {
+            super.shutdownInput();
+        }
+        else {
+            delegate.shutdownInput();
+        }
+    }
+
+    @Override
+    public void shutdownOutput() throws IOException {
+        if(null == delegate) {
+            super.shutdownOutput();
+        }
+        else {
+            delegate.shutdownOutput();
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return null == delegate ? super.isConnected() : delegate.isConnected();
+    }
+
+    @Override
+    public boolean isBound() {
+        return null == delegate ? super.isBound() : delegate.isBound();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return null == delegate ? super.isClosed() : delegate.isClosed();
+    }
+
+    @Override
+    public boolean isInputShutdown() {
+        return null == delegate ? super.isInputShutdown() : delegate.isInputShutdown();
+    }
+
+    @Override
+    public boolean isOutputShutdown() {
+        return null == delegate ? super.isOutputShutdown() : delegate.isOutputShutdown();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized(this) {
+            super.close();
+            // Abort connection attempts in progress
+            for(Socket attempt : attempts) {
+                IOUtils.closeQuietly(attempt);
+            }
+            attempts.clear();
+        }
+        if(null != delegate) {
+            delegate.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return null == delegate ? super.toString() : delegate.toString();
+    }
+}
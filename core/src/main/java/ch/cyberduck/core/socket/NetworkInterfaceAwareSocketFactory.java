@@ -51,6 +51,19 @@ public class NetworkInterfaceAwareSocketFactory extends SocketFactory {
 
     private final SocketFactory delegate;
 
+    private final HappyEyeballsAddressSelector selector
+            = new HappyEyeballsAddressSelector();
+
+    private final boolean happyeyeballs
+            = PreferencesFactory.get().getBoolean("connection.happyeyeballs.enable");
+
+    private final HappyEyeballsAddressSelector.Callback scope = new HappyEyeballsAddressSelector.Callback() {
+        @Override
+        public SocketAddress prepare(final Socket socket, final InetSocketAddress address) throws IOException {
+            return NetworkInterfaceAwareSocketFactory.this.scope(address);
+        }
+    };
+
     public NetworkInterfaceAwareSocketFactory() {
         this(new DefaultSocketFactory());
     }
@@ -90,26 +103,46 @@ public class NetworkInterfaceAwareSocketFactory extends SocketFactory {
 
     @Override
     public Socket createSocket() throws IOException {
+        if(this.isHappyEyeballs()) {
+            return new HappyEyeballsSocket(selector, scope);
+        }
         return new HttpProxyAwareSocket(proxy) {
             @Override
             public void connect(final SocketAddress endpoint, final int timeout) throws IOException {
                 if(endpoint instanceof InetSocketAddress) {
-                    final InetSocketAddress address = (InetSocketAddress) endpoint;
-                    if(address.getAddress() instanceof Inet6Address) {
-                        final NetworkInterface network = findIPv6Interface((Inet6Address) address.getAddress());
-                        if(null != network) {
-                            super.connect(new InetSocketAddress(
-                                    NetworkInterfaceAwareSocketFactory.this.getByAddressForInterface(network, address.getAddress()),
-                                    address.getPort()), timeout);
-                            return;
-                        }
-                    }
+                    super.connect(NetworkInterfaceAwareSocketFactory.this.scope((InetSocketAddress) endpoint), timeout);
+                    return;
                 }
                 super.connect(endpoint, timeout);
             }
         };
     }
 
+    /**
+     * @return True to race connection attempts to all addresses of a host resolved to both IPv6 and IPv4 addresses
+     */
+    private boolean isHappyEyeballs() {
+        if(!happyeyeballs) {
+            return false;
+        }
+        // Hostname resolved by proxy
+        return proxy.type() == Proxy.Type.DIRECT;
+    }
+
+    /**
+     * @param address Resolved address
+     * @return Address with scope of default network interface for IPv6
+     */
+    private InetSocketAddress scope(final InetSocketAddress address) throws IOException {
+        if(address.getAddress() instanceof Inet6Address) {
+            final NetworkInterface network = this.findIPv6Interface((Inet6Address) address.getAddress());
+            if(null != network) {
+                return new InetSocketAddress(this.getByAddressForInterface(network, address.getAddress()), address.getPort());
+            }
+        }
+        return address;
+    }
+
     @Override
     public Socket createSocket(final String host, final int port, final InetAddress localAddr, final int localPort) throws IOException {
         return this.createSocket(InetAddress.getByName(host), port, localAddr, localPort);
@@ -132,6 +165,9 @@ public class NetworkInterfaceAwareSocketFactory extends SocketFactory {
 
     @Override
     public Socket createSocket(final String host, final int port) throws IOException {
+        if(this.isHappyEyeballs()) {
+            return selector.connect(new InetSocketAddress(host, port), 0, scope);
+        }
         return this.createSocket(InetAddress.getByName(host), port);
     }
 
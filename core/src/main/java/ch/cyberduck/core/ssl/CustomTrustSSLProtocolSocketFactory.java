@@ -37,21 +37,43 @@ import java.net.InetAddress;
 import java.net.Socket;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.lang.ref.WeakReference;
 import java.security.SecureRandom;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class CustomTrustSSLProtocolSocketFactory extends SSLSocketFactory {
     private static final Logger log = Logger.getLogger(CustomTrustSSLProtocolSocketFactory.class);
 
+    /**
+     * Contexts shared by socket factories with the same key manager. The session cache of a context is keyed
+     * by peer host and port and allows to resume sessions in connections of other sessions in a pool. Entries
+     * are kept as long as a factory references the shared context.
+     */
+    private static final Map<javax.net.ssl.X509KeyManager, WeakReference<SharedContext>> contexts
+            = new WeakHashMap<javax.net.ssl.X509KeyManager, WeakReference<SharedContext>>();
+
+    private static final AtomicLong handshakes = new AtomicLong();
+    private static final AtomicLong resumptions = new AtomicLong();
+
     private final SSLSocketFactory factory;
 
     /**
-     * Shared context
+     * Shared context referenced as long as this factory is in use or null
      */
+    private final SharedContext shared;
+
     private final SSLContext context;
 
+    /**
+     * Dispatching to trust manager of this factory when context is shared or null
+     */
+    private final SocketDelegatingTrustManager dispatcher;
+
     private final String[] protocols;
 
     private final AtomicBoolean initializer
@@ -81,8 +103,17 @@ public class CustomTrustSSLProtocolSocketFactory extends SSLSocketFactory {
         this.trust = trust;
         this.key = key;
         try {
-            context = SSLContext.getInstance("TLS");
-            context.init(new KeyManager[]{key}, new TrustManager[]{trust}, seeder);
+            if(preferences.getBoolean("connection.ssl.session.cache.shared")) {
+                shared = share(trust, key, seeder);
+                context = shared.context;
+                dispatcher = shared.dispatcher;
+            }
+            else {
+                shared = null;
+                context = SSLContext.getInstance("TLS");
+                context.init(new KeyManager[]{key}, new TrustManager[]{trust}, seeder);
+                dispatcher = null;
+            }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Using SSL context with protocol %s", context.getProtocol()));
             }
@@ -94,6 +125,49 @@ public class CustomTrustSSLProtocolSocketFactory extends SSLSocketFactory {
         this.protocols = protocols;
     }
 
+    private static SharedContext share(final X509TrustManager trust, final X509KeyManager key, final SecureRandom seeder)
+            throws NoSuchAlgorithmException, KeyManagementException {
+        synchronized(contexts) {
+            final WeakReference<SharedContext> reference = contexts.get(key);
+            if(reference != null) {
+                final SharedContext shared = reference.get();
+                if(shared != null) {
+                    return shared;
+                }
+            }
+            final SocketDelegatingTrustManager dispatcher = new SocketDelegatingTrustManager(trust);
+            final SSLContext context = SSLContext.getInstance("TLS");
+            context.init(new KeyManager[]{key}, new TrustManager[]{dispatcher}, seeder);
+            final SharedContext shared = new SharedContext(context, dispatcher);
+            contexts.put(key, new WeakReference<SharedContext>(shared));
+            return shared;
+        }
+    }
+
+    private static final class SharedContext {
+        private final SSLContext context;
+        private final SocketDelegatingTrustManager dispatcher;
+
+        private SharedContext(final SSLContext context, final SocketDelegatingTrustManager dispatcher) {
+            this.context = context;
+            this.dispatcher = dispatcher;
+        }
+    }
+
+    /**
+     * @return Number of completed handshakes
+     */
+    public static long getHandshakes() {
+        return handshakes.get();
+    }
+
+    /**
+     * @return Number of completed handshakes resuming a previous session
+     */
+    public static long getResumptions() {
+        return resumptions.get();
+    }
+
     /**
      * @param socket    Socket to configure
      * @param protocols Enabled SSL protocol versions
@@ -114,15 +188,23 @@ public class CustomTrustSSLProtocolSocketFactory extends SSLSocketFactory {
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Enabled cipher suites %s",
                             Arrays.toString(((SSLSocket) socket).getEnabledCipherSuites())));
-                    ((SSLSocket) socket).addHandshakeCompletedListener(new HandshakeCompletedListener() {
-                        @Override
-                        public void handshakeCompleted(final HandshakeCompletedEvent event) {
-                            log.info(String.format("Completed handshake with %s and negotiated cipher suite %s",
-                                    event.getSession().getProtocol(), event.getCipherSuite()));
-                            ((SSLSocket) socket).removeHandshakeCompletedListener(this);
-                        }
-                    });
                 }
+                // Sessions created before the socket are resumed
+                final long created = System.currentTimeMillis();
+                ((SSLSocket) socket).addHandshakeCompletedListener(new HandshakeCompletedListener() {
+                    @Override
+                    public void handshakeCompleted(final HandshakeCompletedEvent event) {
+                        final boolean resumed = event.getSession().getCreationTime() < created;
+                        final long total = handshakes.incrementAndGet();
+                        final long resumes = resumed ? resumptions.incrementAndGet() : resumptions.get();
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Completed %s handshake with %s and negotiated cipher suite %s. Resumed %d of %d handshakes",
+                                    resumed ? "abbreviated" : "full", event.getSession().getProtocol(), event.getCipherSuite(),
+                                    resumes, total));
+                        }
+                        ((SSLSocket) socket).removeHandshakeCompletedListener(this);
+                    }
+                });
             }
             catch(Exception e) {
                 log.warn(String.format("Failed to configure SSL parameters %s", e.getMessage()));
@@ -145,6 +227,9 @@ public class CustomTrustSSLProtocolSocketFactory extends SSLSocketFactory {
         }
         // Configure socket
         final Socket socket = f.create();
+        if(dispatcher != null) {
+            dispatcher.register(socket, trust);
+        }
         this.configure(socket, protocols);
         if(log.isDebugEnabled()) {
             log.debug(String.format("Handshake for socket %s", socket));
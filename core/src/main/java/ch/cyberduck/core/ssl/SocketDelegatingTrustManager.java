@@ -0,0 +1,114 @@
+package ch.cyberduck.core.ssl;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.net.Socket;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Trust manager for a SSL context shared by multiple socket factories. Verification is delegated to the trust
+ * manager of the socket factory that created the socket in the handshake.
+ */
+public final class SocketDelegatingTrustManager extends X509ExtendedTrustManager {
+    private static final Logger log = Logger.getLogger(SocketDelegatingTrustManager.class);
+
+    private final Map<Socket, javax.net.ssl.X509TrustManager> sockets
+            = Collections.synchronizedMap(new WeakHashMap<Socket, javax.net.ssl.X509TrustManager>());
+
+    /**
+     * Last trust manager registered by the current thread for sockets not created by a socket factory
+     */
+    private final ThreadLocal<javax.net.ssl.X509TrustManager> current
+            = new ThreadLocal<javax.net.ssl.X509TrustManager>();
+
+    /**
+     * Trust manager of the socket factory that created the shared context
+     */
+    private final javax.net.ssl.X509TrustManager fallback;
+
+    public SocketDelegatingTrustManager(final javax.net.ssl.X509TrustManager fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * @param socket SSL socket before handshake
+     * @param trust  Trust manager to verify the certificate chain of the peer
+     */
+    public void register(final Socket socket, final javax.net.ssl.X509TrustManager trust) {
+        sockets.put(socket, trust);
+        current.set(trust);
+    }
+
+    private javax.net.ssl.X509TrustManager find(final Socket socket) {
+        if(null != socket) {
+            final javax.net.ssl.X509TrustManager trust = sockets.get(socket);
+            if(null != trust) {
+                return trust;
+            }
+        }
+        final javax.net.ssl.X509TrustManager trust = current.get();
+        if(null != trust) {
+            return trust;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("No trust manager registered for socket %s", socket));
+        }
+        return fallback;
+    }
+
+    @Override
+    public void checkClientTrusted(final X509Certificate[] certs, final String cipher, final Socket socket) throws CertificateException {
+        this.find(socket).checkClientTrusted(certs, cipher);
+    }
+
+    @Override
+    public void checkServerTrusted(final X509Certificate[] certs, final String cipher, final Socket socket) throws CertificateException {
+        this.find(socket).checkServerTrusted(certs, cipher);
+    }
+
+    @Override
+    public void checkClientTrusted(final X509Certificate[] certs, final String cipher, final SSLEngine engine) throws CertificateException {
+        this.find(null).checkClientTrusted(certs, cipher);
+    }
+
+    @Override
+    public void checkServerTrusted(final X509Certificate[] certs, final String cipher, final SSLEngine engine) throws CertificateException {
+        this.find(null).checkServerTrusted(certs, cipher);
+    }
+
+    @Override
+    public void checkClientTrusted(final X509Certificate[] certs, final String cipher) throws CertificateException {
+        this.find(null).checkClientTrusted(certs, cipher);
+    }
+
+    @Override
+    public void checkServerTrusted(final X509Certificate[] certs, final String cipher) throws CertificateException {
+        this.find(null).checkServerTrusted(certs, cipher);
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return this.find(null).getAcceptedIssuers();
+    }
+}
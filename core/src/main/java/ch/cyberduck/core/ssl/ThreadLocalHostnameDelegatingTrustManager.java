@@ -18,11 +18,29 @@ package ch.cyberduck.core.ssl;
  * feedback@cyberduck.io
  */
 
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.collections4.map.LRUMap;
+import org.apache.log4j.Logger;
+
 import java.io.IOException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 public class ThreadLocalHostnameDelegatingTrustManager implements X509TrustManager, TrustManagerHostnameCallback {
+    private static final Logger log = Logger.getLogger(ThreadLocalHostnameDelegatingTrustManager.class);
+
+    /**
+     * Server certificate chains verified for hostname with expiry time of the verification
+     */
+    private static final Map<Key, Long> verified = Collections.synchronizedMap(new LRUMap<Key, Long>(
+            PreferencesFactory.get().getInteger("connection.ssl.x509.cache.size")));
+
+    private static final long ttl = PreferencesFactory.get().getLong("connection.ssl.x509.cache.ttl") * 1000L;
 
     /**
      * Target hostname of current request stored as thread local
@@ -55,7 +73,23 @@ public class ThreadLocalHostnameDelegatingTrustManager implements X509TrustManag
 
     @Override
     public void checkServerTrusted(final X509Certificate[] certs, final String cipher) throws CertificateException {
-        delegate.verify(target.get(), certs, cipher);
+        final String hostname = target.get();
+        if(null == hostname || null == certs || certs.length == 0) {
+            delegate.verify(hostname, certs, cipher);
+            return;
+        }
+        // Scope to delegate implementation as trust settings may differ
+        final Key key = new Key(delegate.getClass().getName(), hostname, Arrays.asList(certs));
+        final Long expiry = verified.get(key);
+        if(expiry != null && expiry > System.currentTimeMillis()) {
+            certs[0].checkValidity();
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Skip verification of previously trusted certificate chain for %s", hostname));
+            }
+            return;
+        }
+        delegate.verify(hostname, certs, cipher);
+        verified.put(key, System.currentTimeMillis() + ttl);
     }
 
     @Override
@@ -80,4 +114,36 @@ public class ThreadLocalHostnameDelegatingTrustManager implements X509TrustManag
         sb.append('}');
         return sb.toString();
     }
+
+    private static final class Key {
+        private final String type;
+        private final String hostname;
+        private final List<X509Certificate> certs;
+
+        private Key(final String type, final String hostname, final List<X509Certificate> certs) {
+            this.type = type;
+            this.hostname = hostname;
+            this.certs = certs;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return type.equals(key.type) && hostname.equals(key.hostname) && certs.equals(key.certs);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = type.hashCode();
+            result = 31 * result + hostname.hashCode();
+            result = 31 * result + certs.hashCode();
+            return result;
+        }
+    }
 }
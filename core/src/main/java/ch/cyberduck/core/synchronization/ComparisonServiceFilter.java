@@ -26,18 +26,24 @@ import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ChecksumException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.io.TreeChecksumCompute;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.log4j.Logger;
+
 import java.text.MessageFormat;
 import java.util.TimeZone;
 
 public class ComparisonServiceFilter implements ComparePathFilter {
+    private static final Logger log = Logger.getLogger(ComparisonServiceFilter.class);
 
     private Find finder;
 
@@ -90,8 +96,7 @@ public class ComparisonServiceFilter implements ComparePathFilter {
                     if(Checksum.NONE != attributes.getChecksum()) {
                         progress.message(MessageFormat.format(
                                 LocaleFactory.localizedString("Compute MD5 hash of {0}", "Status"), file.getName()));
-                        local.attributes().setChecksum(ChecksumComputeFactory.get(attributes.getChecksum().algorithm)
-                                .compute(local.getInputStream(), new TransferStatus()));
+                        local.attributes().setChecksum(this.checksum(local, attributes.getChecksum().algorithm));
                         final Comparison comparison = checksum.compare(attributes, local.attributes());
                         if(!Comparison.notequal.equals(comparison)) {
                             // Decision is available
@@ -130,4 +135,17 @@ public class ComparisonServiceFilter implements ComparePathFilter {
         }
         return Comparison.equal;
     }
+
+    private Checksum checksum(final Local local, final HashAlgorithm algorithm) throws BackgroundException {
+        if(TreeChecksumCompute.isSupported(algorithm)) {
+            try {
+                // Cached for unchanged files
+                return new TreeChecksumCompute().compute(local, algorithm);
+            }
+            catch(ChecksumException e) {
+                log.warn(String.format("Failure reading file %s. Fallback to read from stream. %s", local, e.getDetail()));
+            }
+        }
+        return ChecksumComputeFactory.get(algorithm).compute(local.getInputStream(), new TransferStatus());
+    }
 }
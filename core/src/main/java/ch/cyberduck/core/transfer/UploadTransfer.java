@@ -39,6 +39,7 @@ import ch.cyberduck.core.filter.UploadRegexFilter;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.DelegateStreamListener;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.local.LocalTreeScanner;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.normalizer.UploadRootPathsNormalizer;
 import ch.cyberduck.core.transfer.symlink.UploadSymlinkResolver;
@@ -74,6 +75,11 @@ public class UploadTransfer extends Transfer {
 
     private UploadFilterOptions options = new UploadFilterOptions();
 
+    /**
+     * Read local folders in parallel ahead of preparing files
+     */
+    private volatile LocalTreeScanner scanner;
+
     public UploadTransfer(final Host host, final Path root, final Local local) {
         this(host, Collections.singletonList(new TransferItem(root, local)),
                 PreferencesFactory.get().getBoolean("queue.upload.skip.enable") ? new UploadRegexFilter() : new NullFilter<Local>());
@@ -97,6 +103,7 @@ public class UploadTransfer extends Transfer {
                 PreferencesFactory.get().getFloat("queue.upload.bandwidth.bytes")));
         this.filter = f;
         this.comparator = comparator;
+        this.scanner = new LocalTreeScanner(f);
     }
 
     @Override
@@ -133,7 +140,7 @@ public class UploadTransfer extends Transfer {
             }
         }
         final List<TransferItem> children = new ArrayList<TransferItem>();
-        for(Local local : directory.list().filter(comparator, filter)) {
+        for(Local local : scanner.list(directory).filter(comparator, filter)) {
             children.add(new TransferItem(new Path(remote, local.getName(),
                     local.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file)), local));
         }
@@ -221,6 +228,8 @@ public class UploadTransfer extends Transfer {
 
     @Override
     public void post(final Session<?> source, final Session<?> destination, final Map<Path, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
+        scanner.close();
+        scanner = new LocalTreeScanner(filter);
         final Bulk feature = source.getFeature(Bulk.class);
         feature.post(Type.upload, files, callback);
     }
@@ -276,6 +285,8 @@ public class UploadTransfer extends Transfer {
     @Override
     public void stop() {
         cache.clear();
+        scanner.close();
+        scanner = new LocalTreeScanner(filter);
         super.stop();
     }
 }
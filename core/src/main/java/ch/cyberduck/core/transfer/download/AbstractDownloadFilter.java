@@ -206,27 +206,31 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                         }
                         long remaining = status.getLength();
                         long offset = 0;
-                        // Part size from default setting of size divided by maximum number of connections
-                        long partsize = Math.max(
-                                preferences.getLong("queue.download.segments.size"),
-                                status.getLength() / preferences.getInteger("queue.connections.limit"));
+                        final long partsize = this.getSegmentSize(status.getLength());
+                        // Write segments to target file at their offset
+                        final boolean inplace = preferences.getBoolean("queue.download.segments.inplace");
                         // Sorted list
                         final List<TransferStatus> segments = new ArrayList<TransferStatus>();
                         final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
                         for(int segmentNumber = 1; remaining > 0; segmentNumber++) {
-                            final Local segmentFile = LocalFactory.get(
-                                    segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
-                            boolean skip = false;
                             // Last part can be less than 5 MB. Adjust part size.
                             Long length = Math.min(partsize, remaining);
                             final TransferStatus segmentStatus = new TransferStatus()
                                     .segment(true)
                                     .append(true)
                                     .skip(offset)
-                                    .length(length)
-                                    .rename(segmentFile);
+                                    .length(length);
+                            segmentStatus.setPart(segmentNumber);
+                            if(inplace) {
+                                segmentStatus.inplace(true);
+                            }
+                            else {
+                                final Local segmentFile = LocalFactory.get(
+                                        segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
+                                segmentStatus.rename(segmentFile);
+                            }
                             if(log.isDebugEnabled()) {
-                                log.debug(String.format("Adding status %s for segment %s", segmentStatus, segmentFile));
+                                log.debug(String.format("Adding status %s for segment %d", segmentStatus, segmentNumber));
                             }
                             segments.add(segmentStatus);
                             remaining -= length;
@@ -243,10 +247,36 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
         return status;
     }
 
+    /**
+     * @param length File length
+     * @return Part size from default setting of size divided by maximum number of connections
+     */
+    protected long getSegmentSize(final long length) {
+        return Math.max(
+                preferences.getLong("queue.download.segments.size"),
+                length / preferences.getInteger("queue.connections.limit"));
+    }
+
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
-        //
+        if(status.isSegmented()) {
+            final List<TransferStatus> segments = status.getSegments();
+            if(segments.get(0).isInplace()) {
+                // Length excludes completed segments when resuming
+                final long length = status.getLength() + status.getOffset();
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Allocate %d bytes for segments written to %s", length, local));
+                }
+                // Completed segments of previous attempt are only kept when resuming
+                new SegmentResumeState(local).save(length, this.getSegmentSize(length), status.isAppend());
+                local.allocate(length);
+                for(TransferStatus segment : segments) {
+                    // Target may have been renamed after segments were created
+                    segment.rename(local);
+                }
+            }
+        }
     }
 
     /**
@@ -260,13 +290,25 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
             log.debug(String.format("Complete %s with status %s", file.getAbsolute(), status));
         }
         if(status.isSegment()) {
+            if(status.isInplace()) {
+                if(status.isComplete()) {
+                    // Save progress to resume without downloading this segment again
+                    new SegmentResumeState(local).complete(status.getPart());
+                }
+            }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Skip completion for single segment %s", status));
             }
             return;
         }
         if(status.isComplete()) {
-            if(status.isSegmented()) {
+            if(status.isSegmented() && status.getSegments().get(0).isInplace()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Completed %d segments written to file %s", status.getSegments().size(), local));
+                }
+                new SegmentResumeState(local).delete();
+            }
+            else if(status.isSegmented()) {
                 // Obtain ordered list of segments to reassemble
                 final List<TransferStatus> segments = status.getSegments();
                 if(log.isInfoEnabled()) {
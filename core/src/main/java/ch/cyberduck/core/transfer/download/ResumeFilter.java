@@ -32,6 +32,9 @@ import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ResumeFilter extends AbstractDownloadFilter {
     private static final Logger log = Logger.getLogger(ResumeFilter.class);
 
@@ -55,6 +58,19 @@ public class ResumeFilter extends AbstractDownloadFilter {
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(local.isFile()) {
+            final SegmentResumeState state = new SegmentResumeState(local);
+            if(state.exists()) {
+                // Read remote attributes
+                final long length = attribute.find(file).getSize();
+                if(!state.isComplete(length, this.getSegmentSize(length))) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Resume segmented download to %s allocated with full size", local));
+                    }
+                    return super.accept(file, local, parent);
+                }
+                // All segments written but completion not run
+                state.delete();
+            }
             if(local.exists()) {
                 // Read remote attributes
                 final PathAttributes attributes = attribute.find(file);
@@ -87,7 +103,41 @@ public class ResumeFilter extends AbstractDownloadFilter {
     @Override
     public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) throws BackgroundException {
         final TransferStatus status = super.prepare(file, local, parent, progress);
-        if(status.isSegmented()) {
+        if(status.isSegmented() && status.getSegments().get(0).isInplace()) {
+            final SegmentResumeState state = new SegmentResumeState(local);
+            if(state.exists()) {
+                final long length = status.getLength();
+                final long size = this.getSegmentSize(length);
+                final List<TransferStatus> segments = new ArrayList<TransferStatus>();
+                // Bytes of completed segments
+                long skipped = 0L;
+                for(TransferStatus segmentStatus : status.getSegments()) {
+                    if(state.isComplete(length, size, segmentStatus.getPart())) {
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Skip completed part %s", segmentStatus));
+                        }
+                        skipped += segmentStatus.getLength();
+                        continue;
+                    }
+                    segments.add(segmentStatus);
+                }
+                if(segments.isEmpty()) {
+                    // Completed after accept. Transfer last segment again to run completion for file
+                    final TransferStatus last = status.getSegments().get(status.getSegments().size() - 1);
+                    skipped -= last.getLength();
+                    segments.add(last);
+                }
+                if(segments.size() < status.getSegments().size()) {
+                    // Keep completed segments in saved state
+                    status.setAppend(true);
+                    // Count completed segments as transferred
+                    status.setOffset(skipped);
+                    status.setLength(length - skipped);
+                    status.withSegments(segments);
+                }
+            }
+        }
+        else if(status.isSegmented()) {
             for(TransferStatus segmentStatus : status.getSegments()) {
                 final Local segmentFile = segmentStatus.getRename().local;
                 if(segmentFile.exists()) {
@@ -104,7 +154,8 @@ public class ResumeFilter extends AbstractDownloadFilter {
         }
         else {
             if(download.offset(file)) {
-                if(local.isFile()) {
+                // File allocated for segments written in place cannot be appended to
+                if(local.isFile() && !new SegmentResumeState(local).exists()) {
                     if(local.exists()) {
                         if(local.attributes().getSize() > 0) {
                             status.setAppend(true);
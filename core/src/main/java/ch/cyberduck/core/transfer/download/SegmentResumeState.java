@@ -0,0 +1,219 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Persist completed segments of a download written in place to the target file. Progress is only valid for the
+ * same file length and segment size.
+ */
+public class SegmentResumeState {
+    private static final Logger log = Logger.getLogger(SegmentResumeState.class);
+
+    private static final String LENGTH = "length";
+    private static final String SIZE = "size";
+    private static final String PARTS = "parts";
+
+    private final Local file;
+
+    /**
+     * @param local Download target
+     */
+    public SegmentResumeState(final Local local) {
+        this.file = LocalFactory.get(local.getParent(), String.format(".%s.cyberducksegment", local.getName()));
+    }
+
+    /**
+     * @return True if a segmented download to this file has been started
+     */
+    public boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Save segment layout
+     *
+     * @param length File length
+     * @param size   Segment size
+     * @param resume Keep completed segments if saved for the same layout
+     */
+    public void save(final long length, final long size, final boolean resume) throws AccessDeniedException {
+        synchronized(SegmentResumeState.class) {
+            if(resume) {
+                final Properties properties = this.read();
+                if(null != properties && this.matches(properties, length, size)) {
+                    return;
+                }
+            }
+            final Properties layout = new Properties();
+            layout.setProperty(LENGTH, String.valueOf(length));
+            layout.setProperty(SIZE, String.valueOf(size));
+            layout.setProperty(PARTS, String.valueOf((length + size - 1) / size));
+            this.write(layout);
+        }
+    }
+
+    /**
+     * @param length File length
+     * @param size   Segment size
+     * @param part   Segment number
+     * @return True if segment has been written completely with the same segment layout
+     */
+    public boolean isComplete(final long length, final long size, final int part) throws AccessDeniedException {
+        synchronized(SegmentResumeState.class) {
+            final Properties properties = this.read();
+            if(null == properties) {
+                return false;
+            }
+            if(!this.matches(properties, length, size)) {
+                log.warn(String.format("Ignore segment state %s saved for different length or segment size", file));
+                return false;
+            }
+            return properties.containsKey(String.valueOf(part));
+        }
+    }
+
+    /**
+     * @param length File length
+     * @param size   Segment size
+     * @return True if all segments have been written completely with the same segment layout
+     */
+    public boolean isComplete(final long length, final long size) throws AccessDeniedException {
+        synchronized(SegmentResumeState.class) {
+            final Properties properties = this.read();
+            if(null == properties) {
+                return false;
+            }
+            if(!this.matches(properties, length, size)) {
+                return false;
+            }
+            for(long part = 1; part <= (length + size - 1) / size; part++) {
+                if(!properties.containsKey(String.valueOf(part))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return True if all segments of the saved layout are complete
+     */
+    public boolean isComplete() throws AccessDeniedException {
+        synchronized(SegmentResumeState.class) {
+            final Properties properties = this.read();
+            if(null == properties) {
+                return false;
+            }
+            final int parts;
+            try {
+                parts = Integer.parseInt(properties.getProperty(PARTS, String.valueOf(-1)));
+            }
+            catch(NumberFormatException e) {
+                return false;
+            }
+            for(int part = 1; part <= parts; part++) {
+                if(!properties.containsKey(String.valueOf(part))) {
+                    return false;
+                }
+            }
+            return parts > 0;
+        }
+    }
+
+    /**
+     * @param part Segment number written completely
+     */
+    public void complete(final int part) throws AccessDeniedException {
+        synchronized(SegmentResumeState.class) {
+            final Properties properties = this.read();
+            if(null == properties) {
+                log.warn(String.format("Missing segment state %s", file));
+                return;
+            }
+            properties.setProperty(String.valueOf(part), String.valueOf(true));
+            this.write(properties);
+        }
+    }
+
+    /**
+     * Remove state after all segments are complete
+     */
+    public void delete() throws AccessDeniedException {
+        synchronized(SegmentResumeState.class) {
+            if(file.exists()) {
+                file.delete();
+            }
+        }
+    }
+
+    private boolean matches(final Properties properties, final long length, final long size) {
+        return String.valueOf(length).equals(properties.getProperty(LENGTH))
+                && String.valueOf(size).equals(properties.getProperty(SIZE));
+    }
+
+    private Properties read() throws AccessDeniedException {
+        if(!file.exists()) {
+            return null;
+        }
+        final Properties properties = new Properties();
+        final InputStream in = file.getInputStream();
+        try {
+            properties.load(in);
+        }
+        catch(IOException | IllegalArgumentException e) {
+            log.warn(String.format("Failure reading segment state %s. %s", file, e.getMessage()));
+            return null;
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+        return properties;
+    }
+
+    private void write(final Properties properties) throws AccessDeniedException {
+        final OutputStream out = file.getOutputStream(false);
+        try {
+            properties.store(out, null);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentResumeState{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
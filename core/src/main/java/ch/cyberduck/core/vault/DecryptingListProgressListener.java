@@ -24,41 +24,119 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.features.Vault;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
 public class DecryptingListProgressListener extends IndexedListProgressListener {
     private static final Logger log = Logger.getLogger(DecryptingListProgressListener.class);
 
+    /**
+     * Shared by all listings to decrypt filenames and read metadata concurrently
+     */
+    private static final ThreadPool pool = ThreadPoolFactory.get("decrypt",
+            Math.max(1, PreferencesFactory.get().getInteger("vault.decrypt.threads")));
+
     private final Session<?> session;
     private final Vault vault;
     private final ListProgressListener delegate;
 
+    /**
+     * Decrypt files of chunk concurrently
+     */
+    private final boolean concurrent;
+
+    /**
+     * Number of files in list already decrypted
+     */
+    private int decrypted;
+
     public DecryptingListProgressListener(final Session<?> session, final Vault vault,
                                           final ListProgressListener delegate) {
         this.session = session;
         this.vault = vault;
         this.delegate = delegate;
+        switch(session.getHost().getProtocol().getType()) {
+            case ftp:
+            case irods:
+                // Stateful protocol with single control connection
+                this.concurrent = false;
+                break;
+            default:
+                this.concurrent = PreferencesFactory.get().getInteger("vault.decrypt.threads") > 1;
+        }
+    }
+
+    @Override
+    public DecryptingListProgressListener reset() {
+        super.reset();
+        decrypted = 0;
+        return this;
     }
 
     @Override
     public void visit(final AttributedList<Path> list, final int index, final Path file) throws ListCanceledException {
-        for(int i = index; i < list.size(); i++) {
-            final Path f = list.get(i);
-            try {
-                f.getType().add(Path.Type.encrypted);
-                list.set(i, vault.decrypt(session, f));
-            }
-            catch(BackgroundException e) {
-                log.error(String.format("Failure decrypting %s. %s", f, e.getDetail()));
-                f.getType().remove(Path.Type.encrypted);
-            }
+        list.set(index, this.decrypt(file));
+    }
+
+    private Path decrypt(final Path f) {
+        try {
+            f.getType().add(Path.Type.encrypted);
+            return vault.decrypt(session, f);
+        }
+        catch(BackgroundException e) {
+            log.error(String.format("Failure decrypting %s. %s", f, e.getDetail()));
+            f.getType().remove(Path.Type.encrypted);
+            return f;
         }
     }
 
     @Override
     public void chunk(final Path folder, final AttributedList<Path> list) throws ConnectionCanceledException {
-        super.chunk(folder, list);
+        if(!concurrent || list.size() - decrypted < 2) {
+            for(int i = decrypted; i < list.size(); i++) {
+                this.visit(list, i, list.get(i));
+            }
+        }
+        else {
+            // Decrypt all files of chunk concurrently
+            final List<Future<Path>> futures = new ArrayList<Future<Path>>(list.size() - decrypted);
+            for(int i = decrypted; i < list.size(); i++) {
+                final Path f = list.get(i);
+                futures.add(pool.execute(new Callable<Path>() {
+                    @Override
+                    public Path call() {
+                        return decrypt(f);
+                    }
+                }));
+            }
+            try {
+                for(int i = 0; i < futures.size(); i++) {
+                    list.set(decrypted + i, futures.get(i).get());
+                }
+            }
+            catch(InterruptedException e) {
+                for(Future<Path> future : futures) {
+                    future.cancel(true);
+                }
+                throw new ListCanceledException(list, new ConnectionCanceledException(e));
+            }
+            catch(ExecutionException e) {
+                if(e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new ListCanceledException(list, e.getCause());
+            }
+        }
+        decrypted = list.size();
         delegate.chunk(folder, list);
     }
 
@@ -54,11 +54,13 @@ import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private static final Logger log = Logger.getLogger(AbstractTransferWorker.class);
@@ -91,6 +93,16 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
      */
     private final Map<Path, TransferStatus> table;
 
+    /**
+     * Transfer files as soon as their status is determined
+     */
+    private boolean pipelined;
+
+    /**
+     * Number of files with transfer status determined
+     */
+    private final AtomicInteger prepared = new AtomicInteger();
+
     /**
      * Workload
      */
@@ -117,7 +129,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                   final StreamListener stream,
                                   final ConnectionCallback connectionCallback, final PasswordCallback passwordCallback,
                                   final Cache<TransferItem> cache) {
-        this(transfer, options, prompt, meter, error, progress, stream, connectionCallback, passwordCallback, cache, new HashMap<Path, TransferStatus>());
+        this(transfer, options, prompt, meter, error, progress, stream, connectionCallback, passwordCallback, cache, new ConcurrentHashMap<Path, TransferStatus>());
     }
 
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
@@ -172,6 +184,24 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         // No need to implement for single threaded transfer
     }
 
+    /**
+     * Notified of failure in prepare or transfer before retry attempt
+     *
+     * @param failure Failure
+     */
+    protected void failure(final BackgroundException failure) {
+        //
+    }
+
+    /**
+     * @param source      Connection to source server of transfer. May be null.
+     * @param destination Connection to target server of transfer. May be null.
+     * @return True if files should be transferred while other files are still prepared
+     */
+    protected boolean isPipelined(final Session<?> source, final Session<?> destination) {
+        return false;
+    }
+
     @Override
     public Boolean run(final Session<?> source, final Session<?> destination) throws BackgroundException {
         final String lock = sleep.lock();
@@ -202,18 +232,32 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             }
             // Reset the cached size of the transfer and progress value
             transfer.reset();
-            // Calculate information about the files in advance to give progress information
-            for(TransferItem next : transfer.getRoots()) {
-                this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+            pipelined = this.isPipelined(source, destination);
+            if(pipelined) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Transfer files while preparing in %s", this));
+                }
+                meter.reset();
+                // Total size is refined incrementally while files are prepared
+                for(TransferItem next : transfer.getRoots()) {
+                    this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+                }
+                this.await();
             }
-            this.await();
-            meter.reset();
-            transfer.pre(source, destination, table, connectionCallback);
-            // Transfer all files sequentially
-            for(TransferItem next : transfer.getRoots()) {
-                this.transfer(next, action);
+            else {
+                // Calculate information about the files in advance to give progress information
+                for(TransferItem next : transfer.getRoots()) {
+                    this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+                }
+                this.await();
+                meter.reset();
+                transfer.pre(source, destination, table, connectionCallback);
+                // Transfer all files sequentially
+                for(TransferItem next : transfer.getRoots()) {
+                    this.transfer(next, action);
+                }
+                this.await();
             }
-            this.await();
         }
         finally {
             transfer.post(source, destination, table, connectionCallback);
@@ -271,6 +315,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             // Determine transfer status
                             final TransferStatus status = filter.prepare(file, local, parent, progress);
                             table.put(file, status);
+                            prepared.incrementAndGet();
                             final TransferItem item = new TransferItem(
                                 status.getRename().remote != null ? status.getRename().remote : file,
                                 status.getRename().local != null ? status.getRename().local : local
@@ -281,19 +326,35 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             transfer.addSize(status.getLength() + status.getOffset());
                             // Add skipped bytes
                             transfer.addTransferred(status.getOffset());
+                            if(pipelined) {
+                                transfer.pre(source, destination, Collections.singletonMap(file, status), connectionCallback);
+                            }
                             // Recursive
                             if(file.isDirectory()) {
+                                if(pipelined) {
+                                    // Create directory before any of its children is transferred
+                                    item.remote = transfer.transfer(source, destination, item.remote, item.local,
+                                            options, status, connectionCallback, passwordCallback, progress, stream);
+                                    filter.complete(item.remote, item.local, options, status, progress);
+                                    table.remove(file);
+                                }
                                 final List<TransferItem> children;
                                 // Call recursively for all children
                                 children = transfer.list(source, destination, file, local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
-                                // Put into cache for later reference when transferring
-                                cache.put(item, new AttributedList<TransferItem>(children));
+                                if(!pipelined) {
+                                    // Put into cache for later reference when transferring
+                                    cache.put(item, new AttributedList<TransferItem>(children));
+                                }
                                 // Call recursively
                                 for(TransferItem f : children) {
                                     // Change download path relative to parent local folder
                                     prepare(f.remote, f.local, status, action);
                                 }
                             }
+                            else if(pipelined) {
+                                // Submit segments while remaining files are still prepared
+                                transfer(new TransferItem(file, local), action);
+                            }
                             if(log.isInfoEnabled()) {
                                 log.info(String.format("Determined transfer status %s of %s for transfer %s", status, file, this));
                             }
@@ -304,11 +365,12 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         throw e;
                     }
                     catch(BackgroundException e) {
+                        failure(e);
                         if(this.retry(e, progress, new TransferBackgroundActionState(parent))) {
                             // Retry immediately
                             return call();
                         }
-                        if(table.size() == 0) {
+                        if(prepared.get() == 0) {
                             throw e;
                         }
                         // Prompt to continue or abort for application errors
@@ -349,6 +411,18 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         return null;
     }
 
+    /**
+     * @return True if the transfer consists of a single file and failures are not prompted for
+     */
+    private boolean isSingle() {
+        if(pipelined) {
+            // Table is incomplete while files are still prepared
+            final List<TransferItem> roots = transfer.getRoots();
+            return roots.size() == 1 && roots.get(0).remote.isFile();
+        }
+        return table.size() == 1;
+    }
+
     /**
      * @param item   File to transfer
      * @param action Transfer action for existing files
@@ -409,6 +483,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             throw e;
                         }
                         catch(BackgroundException e) {
+                            failure(e);
                             if(this.retry(e, progress, new TransferBackgroundActionState(status))) {
                                 // Set retry count to make multipart uploads search for existing segments
                                 segment.setRetry(this.getCount());
@@ -417,7 +492,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 return call();
                             }
                             segment.setFailure();
-                            if(table.size() == 1) {
+                            if(isSingle()) {
                                 throw e;
                             }
                             // Prompt to continue or abort for application errors
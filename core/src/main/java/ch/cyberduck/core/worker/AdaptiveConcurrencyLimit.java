@@ -0,0 +1,225 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
+import ch.cyberduck.core.exception.ConnectionTimeoutException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+import ch.cyberduck.core.threading.BackgroundActionState;
+
+import org.apache.log4j.Logger;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limit the number of concurrently running transfer tasks with additive increase and multiplicative decrease.
+ * The limit is raised by one as long as the throughput measured over a window of completed tasks improves and
+ * halved when the server signals overload with a rate limit, timeout or refused connection.
+ */
+public final class AdaptiveConcurrencyLimit {
+    private static final Logger log = Logger.getLogger(AdaptiveConcurrencyLimit.class);
+
+    /**
+     * Relative change in throughput to be considered significant
+     */
+    private static final double TOLERANCE = 0.05d;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    private final Clock clock;
+    private final int maximum;
+
+    private volatile int limit;
+    private int active;
+
+    /**
+     * Start of current measurement window in milliseconds
+     */
+    private long start;
+    /**
+     * Bytes and tasks completed in current window
+     */
+    private long bytes;
+    private int completed;
+    /**
+     * Throughput in bytes per second and tasks per second of previous window
+     */
+    private double throughput = -1;
+    private double rate = -1;
+    /**
+     * Last adjustment was an increase
+     */
+    private boolean increased;
+    /**
+     * Limit already decreased in current window
+     */
+    private boolean recovering;
+
+    /**
+     * @param initial Initial number of concurrent tasks
+     * @param maximum Upper bound for number of concurrent tasks
+     */
+    public AdaptiveConcurrencyLimit(final int initial, final int maximum) {
+        this(initial, maximum, Clock.systemUTC());
+    }
+
+    public AdaptiveConcurrencyLimit(final int initial, final int maximum, final Clock clock) {
+        this.maximum = Math.max(1, maximum);
+        this.limit = Math.max(1, Math.min(initial, this.maximum));
+        this.clock = clock;
+    }
+
+    /**
+     * Block until the number of running tasks is below the current limit
+     *
+     * @param state Cancel callback
+     */
+    public void acquire(final BackgroundActionState state) throws ConnectionCanceledException {
+        lock.lock();
+        try {
+            while(active >= limit) {
+                if(state.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                try {
+                    available.await(1L, TimeUnit.SECONDS);
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+            }
+            if(0 == start) {
+                start = clock.millis();
+            }
+            active++;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param transferred Number of bytes transferred by completed task
+     */
+    public void release(final long transferred) {
+        lock.lock();
+        try {
+            active--;
+            bytes += transferred;
+            completed++;
+            if(completed >= limit) {
+                this.adjust();
+            }
+            available.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Decrease limit multiplicatively when server is overloaded or throttling requests
+     *
+     * @param failure Failure of running task
+     */
+    public void failure(final BackgroundException failure) {
+        if(failure instanceof RetriableAccessDeniedException
+                || failure instanceof ConnectionTimeoutException
+                || failure instanceof ConnectionRefusedException) {
+            lock.lock();
+            try {
+                if(recovering) {
+                    // Decrease at most once for every window
+                    return;
+                }
+                final int previous = limit;
+                limit = Math.max(1, limit / 2);
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Decrease concurrency limit from %d to %d after failure %s", previous, limit, failure));
+                }
+                // Discard measurements taken with previous limit
+                this.reset();
+                throughput = -1;
+                rate = -1;
+                increased = false;
+                recovering = true;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void adjust() {
+        final long elapsed = clock.millis() - start;
+        if(elapsed <= 0) {
+            return;
+        }
+        final double throughput = bytes * 1000d / elapsed;
+        final double rate = completed * 1000d / elapsed;
+        final int previous = limit;
+        if(this.throughput < 0
+                || throughput > this.throughput * (1 + TOLERANCE)
+                || rate > this.rate * (1 + TOLERANCE)) {
+            // Additional connection improved throughput or first measurement
+            limit = Math.min(maximum, limit + 1);
+            increased = limit > previous;
+        }
+        else if(increased
+                && throughput < this.throughput * (1 - TOLERANCE)
+                && rate < this.rate * (1 - TOLERANCE)) {
+            // Revert last increase with no gain
+            limit = Math.max(1, limit - 1);
+            increased = false;
+        }
+        else {
+            increased = false;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Adjust concurrency limit from %d to %d with throughput %.0f bytes/s and %.2f tasks/s",
+                    previous, limit, throughput, rate));
+        }
+        this.throughput = throughput;
+        this.rate = rate;
+        this.recovering = false;
+        this.reset();
+    }
+
+    private void reset() {
+        start = active > 0 ? clock.millis() : 0;
+        bytes = 0;
+        completed = 0;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AdaptiveConcurrencyLimit{");
+        sb.append("limit=").append(limit);
+        sb.append(", maximum=").append(maximum);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -25,9 +25,12 @@ import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.Bulk;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.DisabledBulkFeature;
 import ch.cyberduck.core.threading.BackgroundActionState;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.threading.ThreadPoolFactory;
@@ -56,6 +59,16 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     // Keep number of submited tasks
     private final AtomicInteger size = new AtomicInteger();
 
+    /**
+     * Number of tasks running concurrently. Never exceeds the number of connections chosen by the user.
+     */
+    private final AdaptiveConcurrencyLimit limit;
+
+    /**
+     * Lower number of tasks running concurrently when server is overloaded
+     */
+    private final boolean adaptive;
+
     public ConcurrentTransferWorker(final SessionPool source,
                                     final SessionPool destination,
                                     final Transfer transfer,
@@ -70,10 +83,13 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         super(transfer, options, prompt, meter, error, progressListener, streamListener, connectionCallback, passwordCallback);
         this.source = source;
         this.destination = destination;
-        final ThreadPool pool = ThreadPoolFactory.get("transfer",
-                transfer.getSource().getTransferType() == Host.TransferType.newconnection ?
-                        1 : PreferencesFactory.get().getInteger("queue.connections.limit"));
+        final Preferences preferences = PreferencesFactory.get();
+        final int connections = transfer.getSource().getTransferType() == Host.TransferType.newconnection ?
+                1 : preferences.getInteger("queue.connections.limit");
+        final ThreadPool pool = ThreadPoolFactory.get("transfer", connections);
         this.completion = new ExecutorCompletionService<TransferStatus>(pool.executor());
+        this.limit = new AdaptiveConcurrencyLimit(connections, connections);
+        this.adaptive = preferences.getBoolean("queue.connections.adaptive");
     }
 
     @Override
@@ -119,16 +135,77 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         }
     }
 
+    @Override
+    protected boolean isPipelined(final Session<?> source, final Session<?> destination) {
+        if(!PreferencesFactory.get().getBoolean("queue.transfer.pipeline")) {
+            return false;
+        }
+        // Bulk features of the protocol require the status of all files before the first transfer
+        return this.isBulkDisabled(source) && this.isBulkDisabled(destination);
+    }
+
+    private boolean isBulkDisabled(final Session<?> session) {
+        if(null == session) {
+            return true;
+        }
+        return session._getFeature(Bulk.class) instanceof DisabledBulkFeature;
+    }
+
     @Override
     public Future<TransferStatus> submit(final TransferCallable callable) throws BackgroundException {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit %s to pool", callable));
         }
-        final Future<TransferStatus> f = completion.submit(callable);
+        final Future<TransferStatus> f;
+        if(callable instanceof RetryTransferCallable) {
+            // Tasks awaiting other tasks to complete are not limited to avoid deadlock
+            f = completion.submit(new TransferCallable() {
+                @Override
+                public TransferStatus call() throws BackgroundException {
+                    limit.acquire(new BackgroundActionState() {
+                        @Override
+                        public boolean isCanceled() {
+                            return ConcurrentTransferWorker.this.isCanceled();
+                        }
+
+                        @Override
+                        public boolean isRunning() {
+                            return true;
+                        }
+                    });
+                    long transferred = 0L;
+                    try {
+                        final TransferStatus status = callable.call();
+                        if(status != null && status.isComplete()) {
+                            transferred = status.getLength();
+                        }
+                        return status;
+                    }
+                    finally {
+                        limit.release(transferred);
+                    }
+                }
+
+                @Override
+                public String toString() {
+                    return callable.toString();
+                }
+            });
+        }
+        else {
+            f = completion.submit(callable);
+        }
         size.incrementAndGet();
         return f;
     }
 
+    @Override
+    protected void failure(final BackgroundException failure) {
+        if(adaptive) {
+            limit.failure(failure);
+        }
+    }
+
     @Override
     public void await() throws BackgroundException {
         while(size.get() > 0) {
@@ -169,6 +246,7 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         sb.append("source=").append(source);
         sb.append(", destination=").append(destination);
         sb.append(", pool=").append(completion);
+        sb.append(", limit=").append(limit);
         sb.append('}');
         return sb.toString();
     }
@@ -32,16 +32,28 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.UnsupportedException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.pool.StatefulSessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 public class DeleteWorker extends Worker<List<Path>> {
+    private static final Logger log = Logger.getLogger(DeleteWorker.class);
 
     private final Cache<Path> cache;
     /**
@@ -51,23 +63,46 @@ public class DeleteWorker extends Worker<List<Path>> {
     private final LoginCallback prompt;
     private final ProgressListener listener;
     private final Filter<Path> filter;
+    /**
+     * Connections to list and delete concurrently
+     */
+    private final SessionPool pool;
 
     public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final ProgressListener listener) {
         this(prompt, files, cache, new NullFilter<Path>(), listener);
     }
 
     public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final Filter<Path> filter, final ProgressListener listener) {
+        this(prompt, files, SessionPool.DISCONNECTED, cache, filter, listener);
+    }
+
+    public DeleteWorker(final LoginCallback prompt, final List<Path> files, final SessionPool pool, final Cache<Path> cache, final ProgressListener listener) {
+        this(prompt, files, pool, cache, new NullFilter<Path>(), listener);
+    }
+
+    public DeleteWorker(final LoginCallback prompt, final List<Path> files, final SessionPool pool, final Cache<Path> cache, final Filter<Path> filter, final ProgressListener listener) {
         this.files = files;
         this.prompt = prompt;
         this.listener = listener;
         this.filter = filter;
         this.cache = cache;
+        this.pool = pool;
     }
 
     @Override
     public List<Path> run(final Session<?> session) throws BackgroundException {
         final Delete delete = session.getFeature(Delete.class);
         final ListService list = session.getFeature(ListService.class);
+        // Stateful pool only hands out the single connection locked by the caller
+        if(pool != SessionPool.DISCONNECTED && !(pool instanceof StatefulSessionPool) && !delete.isRecursive()) {
+            for(Path file : files) {
+                if(!delete.isSupported(file)) {
+                    throw new UnsupportedException();
+                }
+            }
+            return new ConcurrentDelete(delete,
+                PreferencesFactory.get().getInteger("browser.delete.concurrency")).run();
+        }
         final List<Path> recursive = new ArrayList<Path>();
         for(Path file : files) {
             if(this.isCanceled()) {
@@ -112,9 +147,280 @@ public class DeleteWorker extends Worker<List<Path>> {
         return recursive;
     }
 
+    /**
+     * Lists directories concurrently using connections from the pool and deletes files in batches as soon as they
+     * are found. Directories are deleted bottom-up once all of their children are deleted. Only directories pending
+     * deletion and a single batch of files are kept in memory instead of the complete recursive list.
+     */
+    private final class ConcurrentDelete {
+        private final Delete delete;
+        private final int concurrency;
+        private final int partition;
+        private final ThreadPool threads;
+
+        /**
+         * Directories to list. Processed last in first out to keep the number of directories pending deletion
+         * bounded by the depth of the tree.
+         */
+        private final Deque<Directory> directories = new ArrayDeque<Directory>();
+        /**
+         * Files and empty directories to delete with next batch
+         */
+        private List<Entry> batch = new ArrayList<Entry>();
+        /**
+         * Selected files and all directories deleted
+         */
+        private final List<Path> deleted = new ArrayList<Path>();
+
+        private int listing;
+        private int running;
+        private BackgroundException failure;
+
+        public ConcurrentDelete(final Delete delete, final int concurrency) {
+            this.delete = delete;
+            this.concurrency = Math.max(1, concurrency);
+            this.partition = delete instanceof Delete.Batch ? ((Delete.Batch) delete).getPartition() : 1;
+            this.threads = ThreadPoolFactory.get("delete", this.concurrency);
+        }
+
+        public List<Path> run() throws BackgroundException {
+            try {
+                synchronized(this) {
+                    for(Path file : files) {
+                        if(file.isDirectory() && !file.isSymbolicLink()) {
+                            directories.push(new Directory(file, null));
+                        }
+                        else {
+                            batch.add(new Entry(file, null));
+                        }
+                    }
+                    this.schedule();
+                    while(running > 0) {
+                        try {
+                            this.wait(1000L);
+                        }
+                        catch(InterruptedException e) {
+                            throw new ConnectionCanceledException(e);
+                        }
+                        if(DeleteWorker.this.isCanceled() && null == failure) {
+                            failure = new ConnectionCanceledException();
+                        }
+                    }
+                    if(failure != null) {
+                        throw failure;
+                    }
+                    return deleted;
+                }
+            }
+            finally {
+                threads.shutdown(false);
+            }
+        }
+
+        /**
+         * Submit listing of pending directories and delete batch when full or no more files are listed. Must hold lock.
+         */
+        private void schedule() {
+            if(failure != null) {
+                return;
+            }
+            // Do not list further while deletes are queued
+            while(listing < concurrency && running - listing < 2 * concurrency && !directories.isEmpty()) {
+                final Directory directory = directories.pop();
+                listing++;
+                this.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws BackgroundException {
+                        try {
+                            list(directory);
+                        }
+                        finally {
+                            synchronized(ConcurrentDelete.this) {
+                                listing--;
+                            }
+                        }
+                        return null;
+                    }
+                });
+            }
+            while(batch.size() >= partition) {
+                this.flush(new ArrayList<Entry>(batch.subList(0, partition)));
+                batch = new ArrayList<Entry>(batch.subList(partition, batch.size()));
+            }
+            if(!batch.isEmpty() && 0 == listing) {
+                this.flush(batch);
+                batch = new ArrayList<Entry>();
+            }
+        }
+
+        private void flush(final List<Entry> entries) {
+            this.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws BackgroundException {
+                    delete(entries);
+                    return null;
+                }
+            });
+        }
+
+        private void submit(final Callable<Void> task) {
+            running++;
+            threads.execute(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    try {
+                        if(DeleteWorker.this.isCanceled()) {
+                            throw new ConnectionCanceledException();
+                        }
+                        task.call();
+                    }
+                    catch(BackgroundException e) {
+                        synchronized(ConcurrentDelete.this) {
+                            if(null == failure) {
+                                failure = e;
+                            }
+                        }
+                    }
+                    catch(Exception e) {
+                        log.error(String.format("Unexpected failure %s", e.getMessage()), e);
+                        synchronized(ConcurrentDelete.this) {
+                            if(null == failure) {
+                                failure = new BackgroundException(e);
+                            }
+                        }
+                    }
+                    finally {
+                        synchronized(ConcurrentDelete.this) {
+                            running--;
+                            schedule();
+                            ConcurrentDelete.this.notifyAll();
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+
+        private void list(final Directory directory) throws BackgroundException {
+            final Session<?> session = this.borrow();
+            try {
+                final ListService list = session.getFeature(ListService.class);
+                for(Path child : list.list(directory.file, new WorkerListProgressListener(DeleteWorker.this, listener)).filter(filter)) {
+                    if(DeleteWorker.this.isCanceled()) {
+                        throw new ConnectionCanceledException();
+                    }
+                    if(!delete.isSupported(child)) {
+                        throw new UnsupportedException();
+                    }
+                    synchronized(this) {
+                        directory.pending++;
+                        if(child.isDirectory() && !child.isSymbolicLink()) {
+                            directories.push(new Directory(child, directory));
+                        }
+                        else {
+                            batch.add(new Entry(child, directory));
+                        }
+                    }
+                }
+            }
+            finally {
+                pool.release(session, null);
+            }
+            synchronized(this) {
+                // Listing complete
+                directory.pending--;
+                this.complete(directory);
+            }
+        }
+
+        private void delete(final List<Entry> entries) throws BackgroundException {
+            final List<Path> paths = new ArrayList<Path>(entries.size());
+            for(Entry entry : entries) {
+                paths.add(entry.file);
+            }
+            final Session<?> session = this.borrow();
+            try {
+                session.getFeature(Delete.class).delete(paths, prompt, new Delete.Callback() {
+                    @Override
+                    public void delete(final Path file) {
+                        listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
+                            file.getName()));
+                    }
+                });
+            }
+            finally {
+                pool.release(session, null);
+            }
+            synchronized(this) {
+                for(Entry entry : entries) {
+                    if(null == entry.parent || entry.file.isDirectory()) {
+                        deleted.add(entry.file);
+                    }
+                    if(entry.parent != null) {
+                        entry.parent.pending--;
+                        this.complete(entry.parent);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Add directory to delete when all children are deleted. Must hold lock.
+         */
+        private void complete(final Directory directory) {
+            if(0 == directory.pending) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Delete empty directory %s", directory.file));
+                }
+                batch.add(new Entry(directory.file, directory.parent));
+            }
+        }
+
+        private Session<?> borrow() throws BackgroundException {
+            return pool.borrow(new BackgroundActionState() {
+                @Override
+                public boolean isCanceled() {
+                    return DeleteWorker.this.isCanceled();
+                }
+
+                @Override
+                public boolean isRunning() {
+                    return true;
+                }
+            });
+        }
+    }
+
+    private static final class Directory {
+        private final Path file;
+        private final Directory parent;
+        /**
+         * Number of children not yet deleted including pending listing
+         */
+        private int pending = 1;
+
+        public Directory(final Path file, final Directory parent) {
+            this.file = file;
+            this.parent = parent;
+        }
+    }
+
+    private static final class Entry {
+        private final Path file;
+        private final Directory parent;
+
+        public Entry(final Path file, final Directory parent) {
+            this.file = file;
+            this.parent = parent;
+        }
+    }
+
     @Override
     public void cleanup(final List<Path> deleted) {
         for(Path f : deleted) {
+            if(f.isDirectory()) {
+                cache.invalidate(f);
+            }
             cache.invalidate(f.getParent());
         }
     }
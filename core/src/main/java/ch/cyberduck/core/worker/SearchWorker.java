@@ -25,13 +25,23 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Search;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.pool.StatefulSessionPool;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
-import java.util.HashSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.regex.Pattern;
 
 public class SearchWorker extends Worker<AttributedList<Path>> {
@@ -41,44 +51,283 @@ public class SearchWorker extends Worker<AttributedList<Path>> {
     private final Filter<Path> filter;
     private final PathCache cache;
     private final ListProgressListener listener;
+    /**
+     * Connections to search concurrently
+     */
+    private final SessionPool pool;
+
+    private final Preferences preferences = PreferencesFactory.get();
 
     public SearchWorker(final Path directory, final Filter<Path> filter, final PathCache cache, final ListProgressListener listener) {
+        this(directory, filter, SessionPool.DISCONNECTED, cache, listener);
+    }
+
+    public SearchWorker(final Path directory, final Filter<Path> filter, final SessionPool pool, final PathCache cache, final ListProgressListener listener) {
         this.directory = directory;
         this.filter = filter;
+        this.pool = pool;
         this.cache = cache;
         this.listener = listener;
     }
 
     @Override
     public AttributedList<Path> run(final Session<?> session) throws BackgroundException {
-        // Run recursively
         final Search search = session.getFeature(Search.class).withCache(cache);
-        return this.search(search, directory);
+        if(search.isRecursive()) {
+            return search.search(directory, new RecursiveSearchFilter(), new WorkerListProgressListener(this, listener));
+        }
+        // Run recursively. Stateful pool only hands out the single connection locked by the caller
+        return new BreadthFirstSearch(search,
+            pool == SessionPool.DISCONNECTED || pool instanceof StatefulSessionPool ? 1 : preferences.getInteger("browser.search.concurrency"),
+            preferences.getInteger("browser.search.depth"),
+            preferences.getInteger("browser.search.limit")).run();
     }
 
-    private AttributedList<Path> search(final Search search, final Path workdir) throws BackgroundException {
-        if(this.isCanceled()) {
-            throw new ConnectionCanceledException();
-        }
-        // Get filtered list from search
-        final AttributedList<Path> list = search.search(workdir, new RecursiveSearchFilter(), new WorkerListProgressListener(this, listener));
-        if(!search.isRecursive()) {
-            final Set<Path> removal = new HashSet<>();
-            for(final Path file : list) {
-                if(file.isDirectory()) {
-                    if(log.isDebugEnabled()) {
-                        log.debug(String.format("Recursively search in %s", file));
+    /**
+     * Searches directories level by level with connections from the pool. Directories without any match are hidden
+     * from the parent listing once all of their subdirectories are searched. Matches are passed to the listener
+     * as soon as a directory is searched.
+     */
+    private final class BreadthFirstSearch {
+        private final Search search;
+        private final int concurrency;
+        private final int depth;
+        private final int limit;
+        private final ThreadPool threads;
+
+        /**
+         * Directories to search in order found
+         */
+        private final Deque<Directory> directories = new ArrayDeque<Directory>();
+
+        private int running;
+        private int found;
+        private BackgroundException failure;
+
+        public BreadthFirstSearch(final Search search, final int concurrency, final int depth, final int limit) {
+            this.search = search;
+            this.concurrency = Math.max(1, concurrency);
+            this.depth = depth;
+            this.limit = limit;
+            this.threads = this.concurrency > 1 ? ThreadPoolFactory.get("search", this.concurrency) : null;
+        }
+
+        public AttributedList<Path> run() throws BackgroundException {
+            final Directory root = new Directory(directory, null, 0);
+            if(null == threads) {
+                // Search with single connection
+                directories.add(root);
+                while(!directories.isEmpty()) {
+                    final Directory next = directories.poll();
+                    if(this.isCutoff()) {
+                        this.skip(next);
+                    }
+                    else {
+                        this.search(search, next);
                     }
-                    if(this.search(search, file).isEmpty()) {
-                        if(list.attributes().addHidden(file)) {
-                            removal.add(file);
+                }
+                return root.list;
+            }
+            try {
+                synchronized(this) {
+                    directories.add(root);
+                    this.schedule();
+                    while(running > 0) {
+                        try {
+                            this.wait(1000L);
+                        }
+                        catch(InterruptedException e) {
+                            throw new ConnectionCanceledException(e);
+                        }
+                        if(SearchWorker.this.isCanceled() && null == failure) {
+                            failure = new ConnectionCanceledException();
                         }
                     }
+                    if(failure != null) {
+                        throw failure;
+                    }
+                    return root.list;
                 }
             }
-            list.removeAll(removal);
+            finally {
+                threads.shutdown(false);
+            }
+        }
+
+        private boolean isCutoff() {
+            if(found >= limit) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Skip searching further with %d matches", found));
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Submit search of pending directories. Must hold lock.
+         */
+        private void schedule() {
+            while(running < concurrency && !directories.isEmpty()) {
+                final Directory next = directories.poll();
+                if(failure != null || this.isCutoff()) {
+                    this.skip(next);
+                    continue;
+                }
+                running++;
+                threads.execute(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        try {
+                            if(SearchWorker.this.isCanceled()) {
+                                throw new ConnectionCanceledException();
+                            }
+                            // Snapshot of cached listing not to share the session of the caller
+                            final AttributedList<Path> cached = cache.isCached(next.file) ? cache.get(next.file) : AttributedList.<Path>emptyList();
+                            if(AttributedList.<Path>emptyList() != cached) {
+                                // No connection required
+                                final AttributedList<Path> list = new AttributedList<Path>(cached).filter(new RecursiveSearchFilter());
+                                new WorkerListProgressListener(SearchWorker.this, listener).chunk(next.file, list);
+                                searched(next, list);
+                            }
+                            else {
+                                final Session<?> session = borrow();
+                                try {
+                                    search(session.getFeature(Search.class).withCache(cache), next);
+                                }
+                                finally {
+                                    pool.release(session, null);
+                                }
+                            }
+                        }
+                        catch(BackgroundException e) {
+                            synchronized(BreadthFirstSearch.this) {
+                                if(null == failure) {
+                                    failure = e;
+                                }
+                            }
+                        }
+                        finally {
+                            synchronized(BreadthFirstSearch.this) {
+                                running--;
+                                schedule();
+                                BreadthFirstSearch.this.notifyAll();
+                            }
+                        }
+                        return null;
+                    }
+                });
+            }
+        }
+
+        private void search(final Search feature, final Directory directory) throws BackgroundException {
+            if(SearchWorker.this.isCanceled()) {
+                throw new ConnectionCanceledException();
+            }
+            // Get filtered list from search
+            this.searched(directory, feature.search(directory.file, new RecursiveSearchFilter(),
+                new WorkerListProgressListener(SearchWorker.this, listener)));
+        }
+
+        /**
+         * Add subdirectories to search and pass matches to listener
+         *
+         * @param list Filtered listing of directory
+         */
+        private void searched(final Directory directory, final AttributedList<Path> list) throws ConnectionCanceledException {
+            final AttributedList<Path> matches = new AttributedList<Path>();
+            final List<Directory> children = new ArrayList<Directory>();
+            synchronized(this) {
+                directory.list = list;
+                for(Path file : list) {
+                    if(file.isDirectory()) {
+                        children.add(new Directory(file, directory, directory.depth + 1));
+                        directory.pending++;
+                    }
+                    else {
+                        matches.add(file);
+                    }
+                }
+                for(Directory child : children) {
+                    if(child.depth > depth) {
+                        this.skip(child);
+                    }
+                    else {
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("Recursively search in %s", child.file));
+                        }
+                        directories.add(child);
+                    }
+                }
+                found += matches.size();
+                // Search complete
+                directory.pending--;
+                this.complete(directory);
+            }
+            if(!matches.isEmpty()) {
+                listener.chunk(directory.file, matches);
+            }
+        }
+
+        /**
+         * Hide directory not searched. Must hold lock.
+         */
+        private void skip(final Directory directory) {
+            directory.list = AttributedList.emptyList();
+            directory.pending--;
+            this.complete(directory);
+        }
+
+        /**
+         * Hide directory from parent when no match is found in any of its subdirectories. Must hold lock.
+         */
+        private void complete(final Directory directory) {
+            if(directory.pending > 0) {
+                return;
+            }
+            final Directory parent = directory.parent;
+            if(null == parent) {
+                return;
+            }
+            if(directory.list.isEmpty()) {
+                if(parent.list.attributes().addHidden(directory.file)) {
+                    parent.list.remove(directory.file);
+                }
+            }
+            parent.pending--;
+            this.complete(parent);
+        }
+
+        private Session<?> borrow() throws BackgroundException {
+            return pool.borrow(new BackgroundActionState() {
+                @Override
+                public boolean isCanceled() {
+                    return SearchWorker.this.isCanceled();
+                }
+
+                @Override
+                public boolean isRunning() {
+                    return true;
+                }
+            });
+        }
+    }
+
+    private static final class Directory {
+        private final Path file;
+        private final Directory parent;
+        private final int depth;
+        /**
+         * Number of subdirectories not yet searched including own search
+         */
+        private int pending = 1;
+        private AttributedList<Path> list;
+
+        public Directory(final Path file, final Directory parent, final int depth) {
+            this.file = file;
+            this.parent = parent;
+            this.depth = depth;
         }
-        return list;
     }
 
     @Override
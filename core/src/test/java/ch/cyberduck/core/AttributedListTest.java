@@ -3,7 +3,9 @@ package ch.cyberduck.core;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
@@ -75,4 +77,46 @@ public class AttributedListTest {
         list.filter(new NullFilter<>());
         assertNotNull(list.find(new SimplePathPredicate(a)));
     }
+
+    @Test
+    public void testIndexOf() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        final Path c = new Path("/c", EnumSet.of(Path.Type.file));
+        assertTrue(list.add(c));
+        assertTrue(list.add(b));
+        assertTrue(list.add(a));
+        assertEquals(0, list.indexOf(c));
+        assertEquals(2, list.indexOf(a));
+        assertSame(a, list.get(new Path("/a", EnumSet.of(Path.Type.file))));
+        assertNull(list.get(new Path("/a", EnumSet.of(Path.Type.directory))));
+        list.filter(new Comparator<Path>() {
+            @Override
+            public int compare(final Path o1, final Path o2) {
+                return o1.getName().compareTo(o2.getName());
+            }
+        });
+        assertEquals(0, list.indexOf(a));
+        assertEquals(2, list.indexOf(c));
+        assertTrue(list.remove(a));
+        assertEquals(-1, list.indexOf(a));
+        assertEquals(0, list.indexOf(b));
+        assertFalse(list.contains(a));
+        assertTrue(list.contains(c));
+    }
+
+    @Test
+    public void testIteratorSnapshot() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        assertTrue(list.add(a));
+        final Iterator<Path> iterator = list.iterator();
+        assertTrue(list.add(new Path("/b", EnumSet.of(Path.Type.file))));
+        assertTrue(iterator.hasNext());
+        assertEquals(a, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertEquals(2, list.size());
+        assertEquals(2, list.toList().size());
+    }
 }
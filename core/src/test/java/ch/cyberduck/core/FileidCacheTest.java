@@ -0,0 +1,167 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.NotfoundException;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FileidCacheTest {
+
+    @Test
+    public void testLookup() throws Exception {
+        final FileidCache cache = new FileidCache(10);
+        final Path file = new Path("/a/f", EnumSet.of(Path.Type.file));
+        final AtomicInteger count = new AtomicInteger();
+        final Callable<String> loader = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                count.incrementAndGet();
+                return "1";
+            }
+        };
+        assertEquals("1", cache.lookup(file, loader));
+        assertEquals("1", cache.lookup(new Path("/a/f", EnumSet.of(Path.Type.file)), loader));
+        assertEquals(1, count.get());
+        assertEquals(1L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+        assertEquals(0.5d, cache.getHitRate(), 0d);
+        // Different type
+        assertEquals("1", cache.lookup(new Path("/a/f", EnumSet.of(Path.Type.directory)), loader));
+        assertEquals(2, count.get());
+    }
+
+    @Test(expected = NotfoundException.class)
+    public void testLookupFailure() throws Exception {
+        final FileidCache cache = new FileidCache(10);
+        cache.lookup(new Path("/a/f", EnumSet.of(Path.Type.file)), new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                throw new NotfoundException("/a/f");
+            }
+        });
+    }
+
+    @Test
+    public void testLookupConcurrent() throws Exception {
+        final FileidCache cache = new FileidCache(10);
+        final Path file = new Path("/a/f", EnumSet.of(Path.Type.file));
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<String>> results = new ArrayList<Future<String>>();
+        for(int i = 0; i < 8; i++) {
+            results.add(executor.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return cache.lookup(file, new Callable<String>() {
+                        @Override
+                        public String call() throws Exception {
+                            count.incrementAndGet();
+                            latch.await();
+                            return "1";
+                        }
+                    });
+                }
+            }));
+        }
+        Thread.sleep(500L);
+        latch.countDown();
+        for(Future<String> result : results) {
+            assertEquals("1", result.get());
+        }
+        executor.shutdown();
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testCacheInvalidate() throws Exception {
+        final FileidCache cache = new FileidCache(10);
+        final Path directory = new Path("/a", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> list = new AttributedList<Path>();
+        list.add(new Path(directory, "f", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("1")));
+        final PathAttributes hidden = new PathAttributes().withVersionId("2");
+        hidden.setDuplicate(true);
+        list.add(new Path(directory, "f", EnumSet.of(Path.Type.file), hidden));
+        list.add(new Path(directory, "d", EnumSet.of(Path.Type.directory), new PathAttributes().withVersionId("3")));
+        list.add(new Path(directory, "n", EnumSet.of(Path.Type.file)));
+        cache.cache(list);
+        cache.cache(new Path("/a-b", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("4")));
+        final Callable<String> missing = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return null;
+            }
+        };
+        assertEquals("1", cache.lookup(new Path("/a/f", EnumSet.of(Path.Type.file)), missing));
+        assertEquals("3", cache.lookup(new Path("/a/d", EnumSet.of(Path.Type.directory)), missing));
+        assertNull(cache.lookup(new Path("/a/n", EnumSet.of(Path.Type.file)), missing));
+        cache.invalidate(directory);
+        assertNull(cache.lookup(new Path("/a/f", EnumSet.of(Path.Type.file)), missing));
+        assertNull(cache.lookup(new Path("/a/d", EnumSet.of(Path.Type.directory)), missing));
+        assertEquals("4", cache.lookup(new Path("/a-b", EnumSet.of(Path.Type.file)), missing));
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        final FileidCache cache = new FileidCache(10, -1L);
+        final Path file = new Path("/a/f", EnumSet.of(Path.Type.file));
+        cache.cache(file, "1");
+        assertEquals("2", cache.lookup(file, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return "2";
+            }
+        }));
+        assertEquals(0L, cache.getHits());
+    }
+
+    @Test
+    public void testCacheId() throws Exception {
+        final FileidCache cache = new FileidCache(10);
+        final Path file = new Path("/a/f", EnumSet.of(Path.Type.file));
+        cache.cache(new Path("/a/f", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("1")));
+        cache.cache(file, "2");
+        final Callable<String> missing = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return null;
+            }
+        };
+        assertEquals("2", cache.lookup(file, missing));
+        cache.cache(file, null);
+        assertNull(cache.lookup(file, missing));
+    }
+
+    @Test
+    public void testGetHost() throws Exception {
+        final Host host = new Host(new TestProtocol(), "h");
+        assertSame(FileidCache.get(host), FileidCache.get(host));
+        assertNotSame(FileidCache.get(host), FileidCache.get(new Host(new TestProtocol(), "h")));
+    }
+}
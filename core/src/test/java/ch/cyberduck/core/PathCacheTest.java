@@ -3,6 +3,7 @@ package ch.cyberduck.core;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 
 import static org.junit.Assert.*;
@@ -85,4 +86,65 @@ public class PathCacheTest {
         assertFalse(cache.isHidden(new Path(parent, "a", EnumSet.of(Path.Type.file))));
         assertTrue(cache.isHidden(new Path(parent, "b", EnumSet.of(Path.Type.file))));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEvictSize() throws Exception {
+        final PathCache cache = new PathCache(1);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(a, "f", EnumSet.of(Path.Type.file));
+        cache.put(a, new AttributedList<Path>(Collections.singletonList(file)));
+        cache.put(b, new AttributedList<Path>(Collections.singletonList(new Path(b, "f", EnumSet.of(Path.Type.file)))));
+        assertFalse(cache.containsKey(a));
+        assertTrue(cache.containsKey(b));
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+        assertEquals(1L, cache.getMetrics().get(AbstractCache.Statistic.eviction));
+    }
+
+    @Test
+    public void testEvictWeight() throws Exception {
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.directory));
+        final Path c = new Path("/c", EnumSet.of(Path.Type.directory));
+        final PathCache cache = new PathCache(Integer.MAX_VALUE, 3 * 1024L);
+        cache.put(a, new AttributedList<Path>(Arrays.asList(new Path(a, "1", EnumSet.of(Path.Type.file)), new Path(a, "2", EnumSet.of(Path.Type.file)))));
+        cache.put(b, new AttributedList<Path>(Arrays.asList(new Path(b, "1", EnumSet.of(Path.Type.file)), new Path(b, "2", EnumSet.of(Path.Type.file)))));
+        // Access to keep most recently used
+        cache.get(a);
+        cache.put(c, new AttributedList<Path>(Arrays.asList(new Path(c, "1", EnumSet.of(Path.Type.file)), new Path(c, "2", EnumSet.of(Path.Type.file)))));
+        assertTrue(cache.containsKey(a));
+        assertFalse(cache.containsKey(b));
+        assertTrue(cache.containsKey(c));
+        assertTrue(cache.getWeight() <= 3 * 1024L);
+        cache.clear();
+        assertEquals(0L, cache.getWeight());
+    }
+
+    @Test
+    public void testWeightModified() throws Exception {
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final PathCache cache = new PathCache(Integer.MAX_VALUE, Long.MAX_VALUE);
+        final AttributedList<Path> list = new AttributedList<Path>(Collections.singletonList(new Path(a, "1", EnumSet.of(Path.Type.file))));
+        cache.put(a, list);
+        final long weight = cache.getWeight();
+        assertTrue(weight > 0L);
+        list.add(new Path(a, "2", EnumSet.of(Path.Type.file)));
+        assertSame(list, cache.get(a));
+        assertEquals(2 * weight, cache.getWeight());
+        cache.put(a, new AttributedList<Path>(Collections.singletonList(new Path(a, "1", EnumSet.of(Path.Type.file)))));
+        assertEquals(weight, cache.getWeight());
+        cache.remove(a);
+        assertEquals(0L, cache.getWeight());
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        final PathCache cache = new PathCache(1);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        cache.get(directory);
+        assertEquals(1L, cache.getMetrics().get(AbstractCache.Statistic.miss));
+        cache.put(directory, new AttributedList<Path>());
+        cache.get(directory);
+        assertEquals(1L, cache.getMetrics().get(AbstractCache.Statistic.hit));
+    }
+}
@@ -0,0 +1,27 @@
+package ch.cyberduck.core;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ResolverSortTest {
+
+    @Test
+    public void testSortAlternateAddressFamilies() throws Exception {
+        final InetAddress v6a = InetAddress.getByName("2001:db8::1");
+        final InetAddress v6b = InetAddress.getByName("2001:db8::2");
+        final InetAddress v4a = InetAddress.getByName("192.0.2.1");
+        final InetAddress v4b = InetAddress.getByName("192.0.2.2");
+        final InetAddress v4c = InetAddress.getByName("192.0.2.3");
+        final List<InetAddress> sorted = Resolver.sort(new InetAddress[]{v6a, v6b, v4a, v4b, v4c});
+        assertEquals(v6a, sorted.get(0));
+        assertEquals(v4a, sorted.get(1));
+        assertEquals(v6b, sorted.get(2));
+        assertEquals(v4b, sorted.get(3));
+        assertEquals(v4c, sorted.get(4));
+        assertEquals(v4a, Resolver.sort(new InetAddress[]{v4a, v6a}).get(0));
+    }
+}
@@ -0,0 +1,53 @@
+package ch.cyberduck.core.io;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class ByteBufferPoolTest {
+
+    @Test
+    public void testAcquire() throws Exception {
+        final ByteBufferPool pool = new ByteBufferPool(1024 * 1024, 4 * 1024 * 1024L, 1, true);
+        final ByteBuffer buffer = pool.acquire(32768 + 48);
+        assertEquals(0, buffer.position());
+        assertEquals(32768 + 48, buffer.limit());
+        assertTrue(buffer.hasArray());
+        assertEquals(65536, buffer.capacity());
+        assertEquals(65536L, pool.getAllocated());
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+        final ByteBufferPool pool = new ByteBufferPool(1024 * 1024, 4 * 1024 * 1024L, 1, true);
+        final ByteBuffer first = pool.acquire(16384);
+        first.put(new byte[100]);
+        pool.release(first);
+        final ByteBuffer second = pool.acquire(10000);
+        assertSame(first, second);
+        assertEquals(0, second.position());
+        assertEquals(10000, second.limit());
+        assertEquals(16384L, pool.getAllocated());
+        assertEquals(26384L, pool.getAcquired());
+    }
+
+    @Test
+    public void testUnpooled() throws Exception {
+        final ByteBufferPool pool = new ByteBufferPool(1024, 4096L, 0, false);
+        final ByteBuffer buffer = pool.acquire(2000);
+        assertEquals(2000, buffer.capacity());
+        pool.release(buffer);
+        assertNotSame(buffer, pool.acquire(2000));
+    }
+
+    @Test
+    public void testAllocationRate() throws Exception {
+        final ByteBufferPool pool = new ByteBufferPool(1024 * 1024, 4 * 1024 * 1024L, 1, false);
+        assertEquals(0d, pool.getAllocationRate(), 0d);
+        pool.release(pool.acquire(1024));
+        pool.transferred(1024L * 1024L * 1024L);
+        assertEquals(1024d, pool.getAllocationRate(), 0d);
+    }
+}
@@ -11,7 +11,14 @@ import org.apache.commons.text.RandomStringGenerator;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -168,4 +175,37 @@ public class StreamCopierTest {
         assertTrue(status.isCanceled());
         assertEquals(32768L, status.getOffset());
     }
+
+    @Test
+    public void testTransferFileChannel() throws Exception {
+        final byte[] bytes = new RandomStringGenerator.Builder().build().generate(2 * 1024 * 1024 + 1).getBytes();
+        final File source = File.createTempFile("source", null);
+        source.deleteOnExit();
+        Files.write(source.toPath(), bytes);
+        final File target = File.createTempFile("target", null);
+        target.deleteOnExit();
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).withOffset(3L).withLimit(bytes.length - 4L)
+                .transfer(new FileInputStream(source), new FileOutputStream(target));
+        assertTrue(status.isComplete());
+        assertEquals(bytes.length - 4L, status.getOffset(), 0L);
+        assertArrayEquals(Arrays.copyOfRange(bytes, 3, bytes.length - 1), Files.readAllBytes(target.toPath()));
+    }
+
+    @Test
+    public void testTransferToFileChannel() throws Exception {
+        final byte[] bytes = new RandomStringGenerator.Builder().build().generate(39865).getBytes();
+        final File source = File.createTempFile("source", null);
+        source.deleteOnExit();
+        Files.write(source.toPath(), bytes);
+        final File target = File.createTempFile("target", null);
+        target.deleteOnExit();
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).transfer(
+                new ThrottledInputStream(new ChannelInputStream(FileChannel.open(source.toPath(), StandardOpenOption.READ)), new BandwidthThrottle(BandwidthThrottle.UNLIMITED)),
+                new VoidStatusOutputStream(new ChannelOutputStream(FileChannel.open(target.toPath(), StandardOpenOption.WRITE))));
+        assertTrue(status.isComplete());
+        assertEquals(bytes.length, status.getOffset(), 0L);
+        assertArrayEquals(bytes, Files.readAllBytes(target.toPath()));
+    }
 }
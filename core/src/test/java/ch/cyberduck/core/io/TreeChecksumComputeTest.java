@@ -0,0 +1,80 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class TreeChecksumComputeTest {
+
+    @Test
+    public void testCompute() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1025);
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write(content, out);
+        out.close();
+        final TreeChecksum checksum = new TreeChecksumCompute().compute(local, HashAlgorithm.md5, 512L);
+        assertEquals(new MD5ChecksumCompute().compute(new ByteArrayInputStream(content), new TransferStatus()), checksum.getChecksum());
+        assertEquals(3, checksum.getCount());
+        assertEquals(new MD5ChecksumCompute().compute(new ByteArrayInputStream(content, 512, 512), new TransferStatus()),
+                checksum.getPart(512L, 512L));
+        assertEquals(new MD5ChecksumCompute().compute(new ByteArrayInputStream(content, 1024, 1), new TransferStatus()),
+                checksum.getPart(1024L, 1L));
+        assertSame(Checksum.NONE, checksum.getPart(100L, 512L));
+        assertSame(Checksum.NONE, checksum.getPart(1024L, 512L));
+        // Cached
+        assertSame(checksum, new TreeChecksumCompute().compute(local, HashAlgorithm.md5, 512L));
+        local.delete();
+    }
+
+    @Test
+    public void testComputeEmpty() throws Exception {
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        local.getOutputStream(false).close();
+        final TreeChecksum checksum = new TreeChecksumCompute().compute(local, HashAlgorithm.sha1, 512L);
+        assertEquals("da39a3ee5e6b4b0d3255bfef95601890afd80709", checksum.getChecksum().hash);
+        assertEquals(0, checksum.getCount());
+        local.delete();
+    }
+
+    @Test
+    public void testComputeRegion() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1025);
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write(content, out);
+        out.close();
+        assertEquals(new SHA256ChecksumCompute().compute(new ByteArrayInputStream(content, 512, 513), new TransferStatus()),
+                new TreeChecksumCompute().compute(local, HashAlgorithm.sha256, 512L, 513L));
+        local.delete();
+    }
+
+    @Test(expected = ChecksumException.class)
+    public void testUnsupported() throws Exception {
+        new TreeChecksumCompute().compute(new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()), HashAlgorithm.crc32);
+    }
+}
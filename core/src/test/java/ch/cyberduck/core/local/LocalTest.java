@@ -6,9 +6,12 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -167,6 +170,26 @@ public class LocalTest {
                 PreferencesFactory.get().getProperty("local.delimiter")), new Local(System.getProperty("java.io.tmpdir")).getAbsolute());
     }
 
+    @Test
+    public void testWriteAtPosition() throws Exception {
+        final TestLocal l = new TestLocal(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        l.allocate(6L);
+        assertEquals(6L, l.attributes().getSize());
+        final OutputStream second = l.getOutputStream(3L);
+        second.write("def".getBytes());
+        second.close();
+        final OutputStream first = l.getOutputStream(0L);
+        first.write("abc".getBytes());
+        first.close();
+        assertEquals(6L, l.attributes().getSize());
+        final InputStream in = l.getInputStream();
+        assertEquals("abcdef", IOUtils.toString(in, "UTF-8"));
+        in.close();
+        l.allocate(3L);
+        assertEquals(3L, l.attributes().getSize());
+        l.delete();
+    }
+
     private static class WindowsLocal extends Local {
 
         public WindowsLocal(final String parent, final String name, final String delimiter) throws LocalAccessDeniedException {
@@ -0,0 +1,108 @@
+package ch.cyberduck.core.local;
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.NullFilter;
+import ch.cyberduck.core.exception.AccessDeniedException;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class LocalTreeScannerTest {
+
+    @Test
+    public void testList() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        directory.mkdir();
+        final Local file = new Local(directory, UUID.randomUUID().toString());
+        final OutputStream out = file.getOutputStream(false);
+        IOUtils.write(new byte[3], out);
+        out.close();
+        final Local folder = new Local(directory, UUID.randomUUID().toString());
+        folder.mkdir();
+        final Local child = new Local(folder, UUID.randomUUID().toString());
+        new DefaultLocalTouchFeature().touch(child);
+        final LocalTreeScanner scanner = new LocalTreeScanner();
+        final AttributedList<Local> list = scanner.list(directory);
+        assertEquals(2, list.size());
+        assertTrue(list.contains(file));
+        assertTrue(list.contains(folder));
+        final Local f = list.get(file);
+        assertNotNull(f.attributes().getSnapshot());
+        assertTrue(f.isFile());
+        assertFalse(f.isDirectory());
+        assertEquals(3L, f.attributes().getSize());
+        assertEquals(file.attributes().getModificationDate(), f.attributes().getModificationDate());
+        assertTrue(list.get(folder).isDirectory());
+        final AttributedList<Local> children = scanner.list(folder);
+        assertEquals(1, children.size());
+        assertTrue(children.contains(child));
+        scanner.close();
+        child.delete();
+        folder.delete();
+        file.delete();
+        directory.delete();
+    }
+
+    @Test
+    public void testFilter() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        directory.mkdir();
+        final Local folder = new Local(directory, UUID.randomUUID().toString());
+        folder.mkdir();
+        final LocalTreeScanner scanner = new LocalTreeScanner(new NullFilter<Local>() {
+            @Override
+            public boolean accept(final Local file) {
+                return false;
+            }
+        });
+        assertEquals(1, scanner.list(directory).size());
+        // Not scanned ahead
+        assertTrue(scanner.list(folder).isEmpty());
+        folder.delete();
+        directory.delete();
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        directory.mkdir();
+        final Local file = new Local(directory, UUID.randomUUID().toString());
+        new DefaultLocalTouchFeature().touch(file);
+        final AttributedList<Local> list = new LocalTreeScanner().list(directory);
+        final Local f = list.get(file);
+        assertEquals(0L, f.attributes().getSize());
+        final OutputStream out = f.getOutputStream(false);
+        assertNull(f.attributes().getSnapshot());
+        IOUtils.write(new byte[1], out);
+        out.close();
+        assertEquals(1L, f.attributes().getSize());
+        f.delete();
+        directory.delete();
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        directory.mkdir();
+        final Local file = new Local(directory, UUID.randomUUID().toString());
+        new DefaultLocalTouchFeature().touch(file);
+        final LocalTreeScanner scanner = new LocalTreeScanner();
+        final Local f = scanner.list(directory).get(file);
+        assertNotNull(f.attributes().getSnapshot());
+        scanner.close();
+        assertNull(f.attributes().getSnapshot());
+        f.delete();
+        directory.delete();
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void testListNotfound() throws Exception {
+        new LocalTreeScanner().list(new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()));
+    }
+}
@@ -0,0 +1,107 @@
+package ch.cyberduck.core.socket;
+
+import ch.cyberduck.core.Resolver;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HappyEyeballsAddressSelectorTest {
+
+    private final HappyEyeballsAddressSelector.Callback callback = new HappyEyeballsAddressSelector.Callback() {
+        @Override
+        public SocketAddress prepare(final Socket socket, final InetSocketAddress address) {
+            return address;
+        }
+    };
+
+    @Test
+    public void testConnectReturnsWinner() throws Exception {
+        final ServerSocket server = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        try {
+            final Socket socket = new HappyEyeballsAddressSelector(new Resolver(), 250L, 0L).connect(
+                    Collections.singletonList(InetAddress.getByName("127.0.0.1")), server.getLocalPort(), 5000, callback);
+            assertTrue(socket.isConnected());
+            // Plain socket with independent input and output streams
+            assertNull(socket.getChannel());
+            assertEquals(InetAddress.getByName("127.0.0.1"), socket.getInetAddress());
+            final Socket accepted = server.accept();
+            accepted.getOutputStream().write(1);
+            assertEquals(1, socket.getInputStream().read());
+            // No second connection to selected address
+            server.setSoTimeout(500);
+            try {
+                server.accept();
+                fail();
+            }
+            catch(SocketTimeoutException e) {
+                //
+            }
+            accepted.close();
+            socket.close();
+        }
+        finally {
+            server.close();
+        }
+    }
+
+    @Test(timeout = 5000L)
+    public void testConnectNextAttemptAfterFailure() throws Exception {
+        final ServerSocket server = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        try {
+            // Attempt delay exceeds test timeout
+            final Socket socket = new HappyEyeballsAddressSelector(new Resolver(), 60000L, 0L).connect(
+                    Arrays.asList(InetAddress.getByName("::1"), InetAddress.getByName("127.0.0.1")), server.getLocalPort(), 0, callback);
+            assertEquals(InetAddress.getByName("127.0.0.1"), socket.getInetAddress());
+            socket.close();
+        }
+        finally {
+            server.close();
+        }
+    }
+
+    @Test(expected = ConnectException.class)
+    public void testConnectFailure() throws Exception {
+        final ServerSocket server = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        final int port = server.getLocalPort();
+        server.close();
+        new HappyEyeballsAddressSelector(new Resolver(), 250L, 0L).connect(
+                Collections.singletonList(InetAddress.getByName("127.0.0.1")), port, 5000, callback);
+    }
+
+    @Test
+    public void testConnectPrepareSocket() throws Exception {
+        final ServerSocket server = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        try {
+            final AtomicInteger attempts = new AtomicInteger();
+            final Socket socket = new HappyEyeballsAddressSelector(new Resolver(), 250L, 0L).connect(
+                    new InetSocketAddress("127.0.0.1", server.getLocalPort()), 5000, new HappyEyeballsAddressSelector.Callback() {
+                        @Override
+                        public SocketAddress prepare(final Socket socket, final InetSocketAddress address) throws IOException {
+                            attempts.incrementAndGet();
+                            socket.setTcpNoDelay(true);
+                            return address;
+                        }
+                    });
+            assertEquals(1, attempts.get());
+            assertTrue(socket.getTcpNoDelay());
+            assertEquals(server.getLocalPort(), socket.getPort());
+            socket.close();
+        }
+        finally {
+            server.close();
+        }
+    }
+}
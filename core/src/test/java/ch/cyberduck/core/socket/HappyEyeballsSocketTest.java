@@ -0,0 +1,100 @@
+package ch.cyberduck.core.socket;
+
+import ch.cyberduck.core.Resolver;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HappyEyeballsSocketTest {
+
+    @Test
+    public void testConnect() throws Exception {
+        final ServerSocket server = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        try {
+            final Socket socket = new HappyEyeballsSocket(new HappyEyeballsAddressSelector(new Resolver(), 250L, 0L),
+                    new HappyEyeballsAddressSelector.Callback() {
+                        @Override
+                        public SocketAddress prepare(final Socket socket, final InetSocketAddress address) {
+                            return address;
+                        }
+                    });
+            assertFalse(socket.isConnected());
+            socket.setSoTimeout(1234);
+            socket.setKeepAlive(true);
+            socket.connect(new InetSocketAddress("127.0.0.1", server.getLocalPort()), 5000);
+            assertTrue(socket.isConnected());
+            assertEquals(1234, socket.getSoTimeout());
+            assertTrue(socket.getKeepAlive());
+            assertEquals(server.getLocalPort(), socket.getPort());
+            final Socket accepted = server.accept();
+            socket.getOutputStream().write(1);
+            assertEquals(1, accepted.getInputStream().read());
+            socket.close();
+            assertTrue(socket.isClosed());
+            assertEquals(-1, accepted.getInputStream().read());
+            accepted.close();
+        }
+        finally {
+            server.close();
+        }
+    }
+
+    @Test(timeout = 10000L)
+    public void testCloseWhileConnecting() throws Exception {
+        final ServerSocket server = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+        final List<Socket> backlog = new ArrayList<Socket>();
+        try {
+            // Fill backlog of server not accepting connections
+            for(int i = 0; i < 4; i++) {
+                final Socket s = new Socket();
+                backlog.add(s);
+                try {
+                    s.connect(new InetSocketAddress("127.0.0.1", server.getLocalPort()), 200);
+                }
+                catch(IOException e) {
+                    //
+                }
+            }
+            final Socket socket = new HappyEyeballsSocket(new HappyEyeballsAddressSelector(new Resolver(), 250L, 0L),
+                    new HappyEyeballsAddressSelector.Callback() {
+                        @Override
+                        public SocketAddress prepare(final Socket socket, final InetSocketAddress address) {
+                            return address;
+                        }
+                    });
+            final Thread connect = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        socket.connect(new InetSocketAddress("127.0.0.1", server.getLocalPort()));
+                    }
+                    catch(IOException e) {
+                        //
+                    }
+                }
+            });
+            connect.start();
+            Thread.sleep(500L);
+            socket.close();
+            connect.join(5000L);
+            assertFalse(connect.isAlive());
+            assertTrue(socket.isClosed());
+        }
+        finally {
+            for(Socket s : backlog) {
+                s.close();
+            }
+            server.close();
+        }
+    }
+}
@@ -7,6 +7,8 @@ import ch.cyberduck.core.TestProtocol;
 import org.junit.Test;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class CustomTrustSSLProtocolSocketFactoryTest {
 
@@ -16,4 +18,23 @@ public class CustomTrustSSLProtocolSocketFactoryTest {
                 new DisabledCertificateStore(),
                 new Host(new TestProtocol()))).getSSLContext());
     }
+
+    @Test
+    public void testSharedSSLContext() throws Exception {
+        final X509KeyManager key = new CertificateStoreX509KeyManager(new DisabledCertificateStore(), new Host(new TestProtocol()));
+        final CustomTrustSSLProtocolSocketFactory f = new CustomTrustSSLProtocolSocketFactory(new DefaultX509TrustManager(), key);
+        assertSame(f.getSSLContext(), new CustomTrustSSLProtocolSocketFactory(new DefaultX509TrustManager(), key).getSSLContext());
+        assertNotSame(f.getSSLContext(), new CustomTrustSSLProtocolSocketFactory(new DefaultX509TrustManager(),
+                new CertificateStoreX509KeyManager(new DisabledCertificateStore(), new Host(new TestProtocol()))).getSSLContext());
+    }
+
+    @Test
+    public void testSharedSSLContextAfterGarbageCollection() throws Exception {
+        final X509KeyManager key = new CertificateStoreX509KeyManager(new DisabledCertificateStore(), new Host(new TestProtocol()));
+        final CustomTrustSSLProtocolSocketFactory f = new CustomTrustSSLProtocolSocketFactory(new DefaultX509TrustManager(), key);
+        for(int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        assertSame(f.getSSLContext(), new CustomTrustSSLProtocolSocketFactory(new DefaultX509TrustManager(), key).getSSLContext());
+    }
 }
@@ -2,7 +2,15 @@ package ch.cyberduck.core.ssl;
 
 import org.junit.Test;
 
+import java.io.FileInputStream;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 public class ThreadLocalHostnameDelegatingTrustManagerTest {
 
@@ -15,4 +23,45 @@ public class ThreadLocalHostnameDelegatingTrustManagerTest {
         assertEquals("cyber.duck.s3.amazonaws.com",
                 new ThreadLocalHostnameDelegatingTrustManager(new DisabledX509TrustManager(), "cyber.duck.s3.amazonaws.com").getTarget());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCheckServerTrustedCached() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadLocalHostnameDelegatingTrustManager m = new ThreadLocalHostnameDelegatingTrustManager(new DisabledX509TrustManager() {
+            @Override
+            public void verify(final String hostname, final X509Certificate[] certs, final String cipher) throws CertificateException {
+                count.incrementAndGet();
+            }
+        }, String.format("%s.cyberduck.io", UUID.randomUUID().toString()));
+        final X509Certificate cert = (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(
+                new FileInputStream("src/test/resources/cyberduck.io.cer"));
+        for(int i = 0; i < 2; i++) {
+            m.checkServerTrusted(new X509Certificate[]{cert}, "RSA");
+        }
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testCheckServerTrustedFailureNotCached() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadLocalHostnameDelegatingTrustManager m = new ThreadLocalHostnameDelegatingTrustManager(new DisabledX509TrustManager() {
+            @Override
+            public void verify(final String hostname, final X509Certificate[] certs, final String cipher) throws CertificateException {
+                count.incrementAndGet();
+                throw new CertificateException();
+            }
+        }, "cyberduck.ch");
+        final X509Certificate cert = (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(
+                new FileInputStream("src/test/resources//OXxlRDVcWqdPEvFm.cer"));
+        for(int i = 0; i < 2; i++) {
+            try {
+                m.checkServerTrusted(new X509Certificate[]{cert}, "RSA");
+                fail();
+            }
+            catch(CertificateException e) {
+                //
+            }
+        }
+        assertEquals(2, count.get());
+    }
+}
@@ -2,6 +2,7 @@ package ch.cyberduck.core.transfer.download;
 
 import ch.cyberduck.core.DisabledProgressListener;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocalAttributes;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
@@ -9,6 +10,8 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultDownloadFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
@@ -16,6 +19,7 @@ import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
 import org.junit.Test;
 
 import java.util.EnumSet;
+import java.util.UUID;
 
 import static org.junit.Assert.*;
 
@@ -90,6 +94,54 @@ public class ResumeFilterTest {
         assertEquals(1L, status.getOffset(), 0L);
     }
 
+    @Test
+    public void testPrepareSegmentsInplace() throws Exception {
+        final Preferences preferences = PreferencesFactory.get();
+        preferences.setProperty("queue.download.segments", true);
+        preferences.setProperty("queue.download.segments.inplace", true);
+        preferences.setProperty("queue.download.segments.threshold", 0L);
+        preferences.setProperty("queue.download.segments.size", 100L);
+        preferences.setProperty("queue.connections.limit", 10);
+        try {
+            final NullSession session = new NullSession(new Host(new TestProtocol()));
+            final ResumeFilter f = new ResumeFilter(new DisabledDownloadSymlinkResolver(), session,
+                    new DownloadFilterOptions(), new DefaultDownloadFeature(session.getFeature(Read.class)) {
+                @Override
+                public boolean offset(final Path file) throws BackgroundException {
+                    return true;
+                }
+            });
+            final Path p = new Path("a", EnumSet.of(Path.Type.file));
+            p.attributes().setSize(300L);
+            final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+            local.allocate(300L);
+            final SegmentResumeState state = new SegmentResumeState(local);
+            state.save(300L, 100L, false);
+            state.complete(1);
+            state.complete(2);
+            assertTrue(f.accept(p, local, new TransferStatus()));
+            final TransferStatus status = f.prepare(p, local, new TransferStatus(), new DisabledProgressListener());
+            assertTrue(status.isAppend());
+            assertEquals(1, status.getSegments().size());
+            assertEquals(Integer.valueOf(3), status.getSegments().get(0).getPart());
+            // Completed segments counted as transferred
+            assertEquals(200L, status.getOffset());
+            assertEquals(100L, status.getLength());
+            state.complete(3);
+            // Skip when all segments are complete
+            assertFalse(f.accept(p, local, new TransferStatus()));
+            assertFalse(state.exists());
+            local.delete();
+        }
+        finally {
+            preferences.deleteProperty("queue.download.segments");
+            preferences.deleteProperty("queue.download.segments.inplace");
+            preferences.deleteProperty("queue.download.segments.threshold");
+            preferences.deleteProperty("queue.download.segments.size");
+            preferences.deleteProperty("queue.connections.limit");
+        }
+    }
+
     @Test
     public void testPrepareDirectoryExists() throws Exception {
         final NullSession session = new NullSession(new Host(new TestProtocol()));
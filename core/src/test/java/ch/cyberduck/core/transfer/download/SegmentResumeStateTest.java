@@ -0,0 +1,71 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SegmentResumeStateTest {
+
+    @Test
+    public void testComplete() throws Exception {
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final SegmentResumeState state = new SegmentResumeState(local);
+        assertFalse(state.exists());
+        state.save(250L, 100L, false);
+        assertTrue(state.exists());
+        assertFalse(state.isComplete());
+        state.complete(1);
+        state.complete(3);
+        assertTrue(state.isComplete(250L, 100L, 1));
+        assertFalse(state.isComplete(250L, 100L, 2));
+        assertTrue(state.isComplete(250L, 100L, 3));
+        // Different segment layout
+        assertFalse(state.isComplete(250L, 90L, 1));
+        assertFalse(state.isComplete());
+        assertFalse(state.isComplete(250L, 100L));
+        state.complete(2);
+        assertTrue(state.isComplete());
+        assertTrue(state.isComplete(250L, 100L));
+        assertFalse(state.isComplete(250L, 90L));
+        state.delete();
+        assertFalse(state.exists());
+    }
+
+    @Test
+    public void testSaveResume() throws Exception {
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final SegmentResumeState state = new SegmentResumeState(local);
+        state.save(250L, 100L, false);
+        state.complete(1);
+        // Keep completed segments with same layout
+        state.save(250L, 100L, true);
+        assertTrue(state.isComplete(250L, 100L, 1));
+        // Discard completed segments with different layout
+        state.save(250L, 90L, true);
+        assertFalse(state.isComplete(250L, 90L, 1));
+        state.complete(1);
+        // Discard completed segments when not resuming
+        state.save(250L, 90L, false);
+        assertFalse(state.isComplete(250L, 90L, 1));
+        state.delete();
+    }
+}
@@ -0,0 +1,135 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+import ch.cyberduck.core.threading.BackgroundActionState;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final class ManualClock extends Clock {
+        private long millis = 1L;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        public void advance(final long duration) {
+            millis += duration;
+        }
+    }
+
+    private final BackgroundActionState state = new BackgroundActionState() {
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return true;
+        }
+    };
+
+    private void window(final AdaptiveConcurrencyLimit limit, final ManualClock clock, final long bytes, final long duration) throws Exception {
+        final int tasks = limit.getLimit();
+        for(int i = 0; i < tasks; i++) {
+            limit.acquire(state);
+        }
+        clock.advance(duration);
+        for(int i = 0; i < tasks; i++) {
+            limit.release(bytes / tasks);
+        }
+    }
+
+    @Test
+    public void testIncrease() throws Exception {
+        final ManualClock clock = new ManualClock();
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 4, clock);
+        assertEquals(2, limit.getLimit());
+        window(limit, clock, 1000L, 1000L);
+        assertEquals(3, limit.getLimit());
+        window(limit, clock, 2000L, 1000L);
+        assertEquals(4, limit.getLimit());
+        window(limit, clock, 4000L, 1000L);
+        // Bound by maximum
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    public void testRevertIncreaseWithoutGain() throws Exception {
+        final ManualClock clock = new ManualClock();
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 8, clock);
+        window(limit, clock, 2000L, 1000L);
+        assertEquals(3, limit.getLimit());
+        // Throughput and task rate dropped with additional connection
+        window(limit, clock, 1500L, 2000L);
+        assertEquals(2, limit.getLimit());
+        // Hold limit without gain
+        window(limit, clock, 1500L, 2000L);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void testDecreaseOnRateLimit() throws Exception {
+        final ManualClock clock = new ManualClock();
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 8, clock);
+        limit.failure(new RetriableAccessDeniedException("Too Many Requests"));
+        assertEquals(4, limit.getLimit());
+        // Decrease only once per window
+        limit.failure(new RetriableAccessDeniedException("Too Many Requests"));
+        assertEquals(4, limit.getLimit());
+        window(limit, clock, 1000L, 1000L);
+        assertEquals(5, limit.getLimit());
+        limit.failure(new RetriableAccessDeniedException("Service Unavailable"));
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void testIgnoreApplicationFailure() throws Exception {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 8);
+        limit.failure(new NotfoundException("f"));
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    public void testMinimum() throws Exception {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 8);
+        limit.failure(new RetriableAccessDeniedException("Too Many Requests"));
+        assertEquals(1, limit.getLimit());
+    }
+}
@@ -2,8 +2,11 @@ package ch.cyberduck.core.worker;
 
 import ch.cyberduck.core.AbstractPath;
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordCallback;
 import ch.cyberduck.core.DisabledProgressListener;
+import ch.cyberduck.core.DisabledTranscriptListener;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.NullSession;
@@ -11,19 +14,28 @@ import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.TestLoginConnectionService;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.exception.UnsupportedException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.pool.StatefulSessionPool;
+import ch.cyberduck.core.pool.StatelessSessionPool;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.CancelCallback;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class DeleteWorkerTest {
@@ -81,6 +93,159 @@ public class DeleteWorkerTest {
         assertEquals(4, worker.run(session).size());
     }
 
+    @Test
+    public void testConcurrent() throws Exception {
+        final List<Path> deleted = Collections.synchronizedList(new ArrayList<Path>());
+        final List<Integer> batches = Collections.synchronizedList(new ArrayList<Integer>());
+        // Assertion errors on pool threads are not propagated to the worker
+        final List<String> violations = Collections.synchronizedList(new ArrayList<String>());
+        final class BatchDelete implements Delete, Delete.Batch {
+            @Override
+            public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+                for(Path file : files) {
+                    synchronized(deleted) {
+                        for(Path d : deleted) {
+                            if(file.isChild(d)) {
+                                violations.add(String.format("Parent %s deleted before %s", d, file));
+                            }
+                        }
+                    }
+                }
+                batches.add(files.size());
+                deleted.addAll(files);
+            }
+
+            @Override
+            public int getPartition() {
+                return 2;
+            }
+
+            @Override
+            public boolean isSupported(final Path file) {
+                return true;
+            }
+
+            @Override
+            public boolean isRecursive() {
+                return false;
+            }
+        }
+        final Session session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Delete.class) {
+                    return (T) new BatchDelete();
+                }
+                return (T) super._getFeature(type);
+            }
+
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) throws BackgroundException {
+                if(file.equals(new Path("/t", EnumSet.of(Path.Type.directory)))) {
+                    return new AttributedList<Path>(Arrays.asList(
+                        new Path("/t/a", EnumSet.of(Path.Type.file)),
+                        new Path("/t/d", EnumSet.of(Path.Type.directory)),
+                        new Path("/t/e", EnumSet.of(Path.Type.directory))
+                    ));
+                }
+                if(file.equals(new Path("/t/d", EnumSet.of(Path.Type.directory)))) {
+                    return new AttributedList<Path>(Arrays.asList(
+                        new Path("/t/d/b", EnumSet.of(Path.Type.file)),
+                        new Path("/t/d/c", EnumSet.of(Path.Type.file)),
+                        new Path("/t/d/f", EnumSet.of(Path.Type.file))
+                    ));
+                }
+                if(file.equals(new Path("/t/e", EnumSet.of(Path.Type.directory)))) {
+                    return AttributedList.emptyList();
+                }
+                throw new NotfoundException(file.getAbsolute());
+            }
+        };
+        final StatelessSessionPool pool = new StatelessSessionPool(new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final Cache<Path> cache, final CancelCallback callback) throws BackgroundException {
+                return true;
+            }
+        }, session, PathCache.empty(), new DisabledTranscriptListener(), new DefaultVaultRegistry(new DisabledPasswordCallback()));
+        final DeleteWorker worker = new DeleteWorker(new DisabledLoginCallback(),
+            Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))),
+            pool, PathCache.empty(), new DisabledProgressListener());
+        final List<Path> result = worker.run(session);
+        assertTrue(violations.toString(), violations.isEmpty());
+        assertEquals(3, result.size());
+        assertTrue(result.contains(new Path("/t", EnumSet.of(Path.Type.directory))));
+        assertTrue(result.contains(new Path("/t/d", EnumSet.of(Path.Type.directory))));
+        assertTrue(result.contains(new Path("/t/e", EnumSet.of(Path.Type.directory))));
+        assertEquals(7, deleted.size());
+        assertEquals(new Path("/t", EnumSet.of(Path.Type.directory)), deleted.get(deleted.size() - 1));
+        for(Integer size : batches) {
+            assertTrue(size <= 2);
+        }
+    }
+
+    @Test(timeout = 10000L)
+    public void testStatefulPool() throws Exception {
+        final Session session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Delete.class) {
+                    return (T) new Delete() {
+                        @Override
+                        public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+                            assertEquals(3, files.size());
+                        }
+
+                        @Override
+                        public boolean isSupported(final Path file) {
+                            return true;
+                        }
+
+                        @Override
+                        public boolean isRecursive() {
+                            return false;
+                        }
+                    };
+                }
+                return (T) super._getFeature(type);
+            }
+
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                if(file.equals(new Path("/t", EnumSet.of(Path.Type.directory)))) {
+                    return new AttributedList<Path>(Collections.singletonList(
+                        new Path("/t/d", EnumSet.of(Path.Type.directory))
+                    ));
+                }
+                if(file.equals(new Path("/t/d", EnumSet.of(Path.Type.directory)))) {
+                    return new AttributedList<Path>(Collections.singletonList(
+                        new Path("/t/d/b", EnumSet.of(Path.Type.file))
+                    ));
+                }
+                fail();
+                return null;
+            }
+        };
+        final StatefulSessionPool pool = new StatefulSessionPool(new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final Cache<Path> cache, final CancelCallback callback) throws BackgroundException {
+                return true;
+            }
+        }, session, PathCache.empty(), new DisabledTranscriptListener(), new DefaultVaultRegistry(new DisabledPasswordCallback()));
+        // Lock held by background action running the worker
+        final Session<?> borrowed = pool.borrow(BackgroundActionState.running);
+        try {
+            final DeleteWorker worker = new DeleteWorker(new DisabledLoginCallback(),
+                Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))),
+                pool, PathCache.empty(), new DisabledProgressListener());
+            assertEquals(3, worker.run(borrowed).size());
+        }
+        finally {
+            pool.release(borrowed, null);
+        }
+    }
+
     @Test(expected = UnsupportedException.class)
     public void testUnsupported() throws Exception {
         final Session session = new NullSession(new Host(new TestProtocol())) {
@@ -16,19 +16,35 @@ package ch.cyberduck.core.worker;
  */
 
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.DefaultPathPredicate;
 import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.DisabledTranscriptListener;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.TestLoginConnectionService;
 import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.pool.StatefulSessionPool;
+import ch.cyberduck.core.pool.StatelessSessionPool;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.CancelCallback;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
 import ch.cyberduck.ui.browser.SearchFilter;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -98,4 +114,85 @@ public class SearchWorkerTest {
         assertNotNull(cache.lookup(new DefaultPathPredicate(new Path("/t1.png", EnumSet.of(Path.Type.file)))));
         assertNotNull(cache.lookup(new DefaultPathPredicate(new Path(new Path("/folder", EnumSet.of(Path.Type.directory)), "/t2.gif", EnumSet.of(Path.Type.file)))));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRunConcurrent() throws Exception {
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path folder = new Path(home, "folder", EnumSet.of(Path.Type.directory));
+        final Path sub = new Path(folder, "sub", EnumSet.of(Path.Type.directory));
+        final Path empty = new Path(home, "empty", EnumSet.of(Path.Type.directory));
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                if(file.equals(home)) {
+                    return new AttributedList<Path>(Arrays.asList(
+                        new Path(home, "t1.png", EnumSet.of(Path.Type.file)), folder, empty));
+                }
+                if(file.equals(folder)) {
+                    return new AttributedList<Path>(Arrays.asList(
+                        new Path(folder, "t2.gif", EnumSet.of(Path.Type.file)), sub));
+                }
+                if(file.equals(sub)) {
+                    return new AttributedList<Path>(Collections.singletonList(
+                        new Path(sub, "t3.png", EnumSet.of(Path.Type.file))));
+                }
+                return AttributedList.emptyList();
+            }
+        };
+        final StatelessSessionPool pool = new StatelessSessionPool(new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final Cache<Path> cache, final CancelCallback callback) throws BackgroundException {
+                return true;
+            }
+        }, session, PathCache.empty(), new DisabledTranscriptListener(), new DefaultVaultRegistry(new DisabledPasswordCallback()));
+        final List<Path> streamed = Collections.synchronizedList(new ArrayList<Path>());
+        final AttributedList<Path> found = new SearchWorker(home, new SearchFilter(".png"), pool, PathCache.empty(), new DisabledListProgressListener() {
+            @Override
+            public void chunk(final Path parent, final AttributedList<Path> list) {
+                streamed.addAll(list.toList());
+            }
+        }).run(session);
+        assertTrue(found.contains(new Path(home, "t1.png", EnumSet.of(Path.Type.file))));
+        assertTrue(found.contains(folder));
+        assertFalse(found.contains(empty));
+        assertEquals(2, streamed.size());
+        assertTrue(streamed.contains(new Path(sub, "t3.png", EnumSet.of(Path.Type.file))));
+    }
+
+    @Test(timeout = 10000L)
+    public void testRunStatefulPool() throws Exception {
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path folder = new Path(home, "folder", EnumSet.of(Path.Type.directory));
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                if(file.equals(home)) {
+                    return new AttributedList<Path>(Arrays.asList(
+                        new Path(home, "t1.png", EnumSet.of(Path.Type.file)), folder));
+                }
+                if(file.equals(folder)) {
+                    return new AttributedList<Path>(Collections.singletonList(
+                        new Path(folder, "t2.png", EnumSet.of(Path.Type.file))));
+                }
+                return AttributedList.emptyList();
+            }
+        };
+        final StatefulSessionPool pool = new StatefulSessionPool(new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final Cache<Path> cache, final CancelCallback callback) throws BackgroundException {
+                return true;
+            }
+        }, session, PathCache.empty(), new DisabledTranscriptListener(), new DefaultVaultRegistry(new DisabledPasswordCallback()));
+        // Lock held by background action running the worker
+        final Session<?> borrowed = pool.borrow(BackgroundActionState.running);
+        try {
+            final AttributedList<Path> found = new SearchWorker(home, new SearchFilter(".png"), pool, PathCache.empty(),
+                new DisabledListProgressListener()).run(borrowed);
+            assertTrue(found.contains(new Path(home, "t1.png", EnumSet.of(Path.Type.file))));
+            assertTrue(found.contains(folder));
+        }
+        finally {
+            pool.release(borrowed, null);
+        }
+    }
+}
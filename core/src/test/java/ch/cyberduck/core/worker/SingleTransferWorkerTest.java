@@ -22,8 +22,11 @@ import ch.cyberduck.core.transfer.download.AbstractDownloadFilter;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
@@ -250,6 +253,98 @@ public class SingleTransferWorkerTest {
         assertTrue(cache.isEmpty());
     }
 
+    @Test
+    public void testDownloadPipelined() throws Exception {
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(root, "a", EnumSet.of(Path.Type.file));
+        final Path directory = new Path(root, "d", EnumSet.of(Path.Type.directory));
+        final Path child = new Path(directory, "b", EnumSet.of(Path.Type.file));
+        final List<String> events = new ArrayList<String>();
+        final NullLocal local = new NullLocal("l") {
+            @Override
+            public boolean exists() {
+                return true;
+            }
+
+            @Override
+            public boolean isDirectory() {
+                return true;
+            }
+
+            @Override
+            public boolean isFile() {
+                return false;
+            }
+
+            @Override
+            public AttributedList<Local> list() throws AccessDeniedException {
+                return AttributedList.emptyList();
+            }
+        };
+        final Transfer t = new DownloadTransfer(new Host(new TestProtocol()), root, local) {
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final PasswordCallback passwordCallback, final ProgressListener listener, final StreamListener streamListener) throws BackgroundException {
+                events.add(String.format("transfer %s", file.getAbsolute()));
+                return file;
+            }
+
+            @Override
+            public AbstractDownloadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
+                return super.filter(source, destination, action, listener).withAttributes(new AttributesFinder() {
+                    @Override
+                    public PathAttributes find(final Path file) throws BackgroundException {
+                        return file.attributes();
+                    }
+
+                    @Override
+                    public AttributesFinder withCache(final Cache<Path> cache) {
+                        return this;
+                    }
+
+                });
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path folder, final ListProgressListener listener) {
+                events.add(String.format("list %s", folder.getAbsolute()));
+                final AttributedList<Path> children = new AttributedList<Path>();
+                if(folder.equals(root)) {
+                    children.add(file);
+                    children.add(directory);
+                }
+                if(folder.equals(directory)) {
+                    children.add(child);
+                }
+                return children;
+            }
+        };
+        final Cache<TransferItem> cache = new TransferItemCache(Integer.MAX_VALUE);
+        final SingleTransferWorker worker = new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+            @Override
+            public TransferAction prompt(final TransferItem file) {
+                return TransferAction.overwrite;
+            }
+        }, new DisabledTransferErrorCallback(),
+                new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback(), cache) {
+            @Override
+            protected boolean isPipelined(final Session<?> source, final Session<?> destination) {
+                return true;
+            }
+        };
+        assertTrue(worker.run(session, session));
+        // Files are transferred before the listing of sibling folders is complete
+        assertEquals(Arrays.asList(
+                "transfer /t", "list /t",
+                "transfer /t/a",
+                "transfer /t/d", "list /t/d",
+                "transfer /t/d/b"), events);
+        assertTrue(cache.isEmpty());
+    }
+
     @Test(expected = NotfoundException.class)
     public void testUploadFileNotFound() throws Exception {
         // #7791
@@ -15,6 +15,8 @@ package ch.cyberduck.core.cryptomator;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.io.ByteBufferPool;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.ProxyInputStream;
 import org.cryptomator.cryptolib.api.CryptoException;
@@ -78,29 +80,38 @@ public class CryptoInputStream extends ProxyInputStream {
     public long skip(final long ln) throws IOException {
         long remaining = ln;
         while(remaining > 0) {
-            final int read = this.read(new byte[(int) Math.min(remaining, Integer.MAX_VALUE)]);
-            if(read == IOUtils.EOF) {
-                break;
+            if(!buffer.hasRemaining()) {
+                if(this.readNextChunk() == IOUtils.EOF) {
+                    break;
+                }
             }
-            remaining -= read;
+            final int skipped = (int) Math.min(remaining, buffer.remaining());
+            buffer.position(buffer.position() + skipped);
+            remaining -= skipped;
         }
         return ln - remaining;
     }
 
     private int readNextChunk() throws IOException {
-        final ByteBuffer ciphertextBuf = ByteBuffer.allocate(chunkSize);
-        final int read = IOUtils.read(proxy, ciphertextBuf.array());
-        if(read == 0) {
-            return IOUtils.EOF;
-        }
-        ciphertextBuf.position(read);
-        ciphertextBuf.flip();
+        final ByteBufferPool pool = ByteBufferPool.get();
+        final ByteBuffer ciphertextBuf = pool.acquire(chunkSize);
         try {
-            buffer = cryptor.fileContentCryptor().decryptChunk(ciphertextBuf, chunkIndexOffset++, header, true);
+            final int read = IOUtils.read(proxy, ciphertextBuf.array(), 0, chunkSize);
+            if(read == 0) {
+                return IOUtils.EOF;
+            }
+            ciphertextBuf.position(read);
+            ciphertextBuf.flip();
+            try {
+                buffer = cryptor.fileContentCryptor().decryptChunk(ciphertextBuf, chunkIndexOffset++, header, true);
+            }
+            catch(CryptoException e) {
+                throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+            }
+            return read;
         }
-        catch(CryptoException e) {
-            throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+        finally {
+            pool.release(ciphertextBuf);
         }
-        return read;
     }
 }
\ No newline at end of file
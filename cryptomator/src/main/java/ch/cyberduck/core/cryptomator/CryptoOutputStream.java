@@ -16,6 +16,7 @@ package ch.cyberduck.core.cryptomator;
  */
 
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.io.ByteBufferPool;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.random.NonceGenerator;
@@ -28,7 +29,6 @@ import org.cryptomator.cryptolib.api.FileHeader;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 
 public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
@@ -80,17 +80,23 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
-            try {
-                for(int chunkOffset = off; chunkOffset < len; chunkOffset += chunksize) {
-                    int chunkLen = Math.min(chunksize, len - chunkOffset);
+            final ByteBufferPool pool = ByteBufferPool.get();
+            for(int chunkOffset = off; chunkOffset < off + len; chunkOffset += chunksize) {
+                final int chunkLen = Math.min(chunksize, off + len - chunkOffset);
+                final ByteBuffer cleartext = pool.acquire(chunkLen);
+                try {
+                    cleartext.put(b, chunkOffset, chunkLen);
+                    cleartext.flip();
                     final ByteBuffer encryptedChunk = cryptor.fileContentCryptor().encryptChunk(
-                            ByteBuffer.wrap(Arrays.copyOfRange(b, chunkOffset, chunkOffset + chunkLen)),
-                            chunkIndexOffset++, header, nonces.next());
+                            cleartext, chunkIndexOffset++, header, nonces.next());
                     super.write(encryptedChunk.array());
                 }
-            }
-            catch(CryptoException e) {
-                throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+                catch(CryptoException e) {
+                    throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+                }
+                finally {
+                    pool.release(cleartext);
+                }
             }
         }
     }
@@ -121,6 +121,7 @@ public class CryptoVault implements Vault {
         final Path vault = directory.mkdir(home, region, new TransferStatus());
         new ContentWriter(session).write(masterKeyFile, masterKeyFileContent.serialize());
         this.open(KeyFile.parse(masterKeyFileContent.serialize()), passphrase);
+        directoryProvider.open(bookmark, masterKeyFileContent);
         final Path secondLevel = directoryProvider.toEncrypted(session, home.attributes().getDirectoryId(), home);
         final Path firstLevel = secondLevel.getParent();
         final Path dataDir = firstLevel.getParent();
@@ -185,7 +186,9 @@ public class CryptoVault implements Vault {
             credentials.setSaved(preferences.getBoolean("vault.keychain"));
         }
         try {
-            this.open(this.upgrade(session, masterKeyFileContent, credentials.getPassword()), credentials.getPassword());
+            final KeyFile keyFile = this.upgrade(session, masterKeyFileContent, credentials.getPassword());
+            this.open(keyFile, credentials.getPassword());
+            directoryProvider.open(bookmark, keyFile);
             if(credentials.isSaved()) {
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Save passphrase for %s", masterKeyFile));
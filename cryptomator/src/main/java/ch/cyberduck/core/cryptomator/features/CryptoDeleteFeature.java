@@ -74,6 +74,12 @@ public class CryptoDeleteFeature implements Delete {
         if(!encrypted.isEmpty()) {
             proxy.delete(encrypted, prompt, callback);
         }
+        for(Path f : files) {
+            if(f.isDirectory()) {
+                // Forget directory ID of deleted folder
+                vault.getDirectoryProvider().delete(f);
+            }
+        }
         for(Path f : files) {
             if(f.equals(vault.getHome())) {
                 log.warn(String.format("Recursively delete vault %s", f));
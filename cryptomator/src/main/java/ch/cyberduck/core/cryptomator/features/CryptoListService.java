@@ -20,11 +20,17 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.cryptomator.CryptoVault;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Vault;
 import ch.cyberduck.core.vault.DecryptingListProgressListener;
 
+import org.apache.log4j.Logger;
+
 public class CryptoListService implements ListService {
+    private static final Logger log = Logger.getLogger(CryptoListService.class);
 
     private final Session<?> session;
     private final ListService delegate;
@@ -38,8 +44,21 @@ public class CryptoListService implements ListService {
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
-        return delegate.list(vault.encrypt(session, directory),
-                new DecryptingListProgressListener(session, vault, listener));
+        try {
+            return delegate.list(vault.encrypt(session, directory),
+                    new DecryptingListProgressListener(session, vault, listener));
+        }
+        catch(NotfoundException e) {
+            if(vault instanceof CryptoVault && !new SimplePathPredicate(directory).test(vault.getHome())) {
+                // Directory ID may be outdated when folder was replaced by another client
+                log.warn(String.format("Read directory ID of %s again after failure %s", directory, e));
+                final CryptoVault cryptomator = (CryptoVault) vault;
+                cryptomator.getDirectoryProvider().delete(directory);
+                return delegate.list(cryptomator.encrypt(session, directory, null, false),
+                        new DecryptingListProgressListener(session, vault, listener));
+            }
+            throw e;
+        }
     }
 
     @Override
@@ -18,6 +18,10 @@ package ch.cyberduck.core.cryptomator.impl;
 import ch.cyberduck.core.AbstractPath;
 import ch.cyberduck.core.CacheReference;
 import ch.cyberduck.core.DefaultPathPredicate;
+import ch.cyberduck.core.DefaultUrlProvider;
+import ch.cyberduck.core.DescriptiveUrl;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.LocalFactory;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.RandomStringService;
@@ -27,16 +31,26 @@ import ch.cyberduck.core.UUIDRandomStringService;
 import ch.cyberduck.core.cryptomator.ContentReader;
 import ch.cyberduck.core.cryptomator.CryptoVault;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections4.map.LRUMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
+import org.cryptomator.cryptolib.api.KeyFile;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 public class CryptoDirectoryProvider {
     private static final Logger log = Logger.getLogger(CryptoDirectoryProvider.class);
@@ -51,8 +65,27 @@ public class CryptoDirectoryProvider {
     private final RandomStringService random
             = new UUIDRandomStringService();
 
-    private final Map<CacheReference<Path>, String> cache = new LRUMap<CacheReference<Path>, String>(
-            PreferencesFactory.get().getInteger("browser.cache.size"));
+    private final Preferences preferences = PreferencesFactory.get();
+
+    private final Map<CacheReference<Path>, String> cache = Collections.synchronizedMap(new LRUMap<CacheReference<Path>, String>(
+            preferences.getInteger("browser.cache.size")));
+
+    /**
+     * Pending reads of directory ID files. Concurrent lookups for the same directory wait for a single read.
+     */
+    private final Map<CacheReference<Path>, FutureTask<String>> loading
+            = new ConcurrentHashMap<CacheReference<Path>, FutureTask<String>>();
+
+    /**
+     * Directory IDs of this vault persisted across sessions keyed by the encrypted directory name or null. Values
+     * are prefixed with the time the ID was read from the vault.
+     */
+    private volatile CryptoPersistentCache persistent;
+
+    /**
+     * Time in milliseconds a persisted directory ID is used before reading it from the vault again
+     */
+    private final long ttl = preferences.getLong("cryptomator.cache.directories.ttl") * 1000L;
 
     public CryptoDirectoryProvider(final Path vault, final CryptoVault cryptomator) {
         this.home = vault;
@@ -60,6 +93,28 @@ public class CryptoDirectoryProvider {
         this.cryptomator = cryptomator;
     }
 
+    /**
+     * Load directory IDs saved for this vault when opened previously with the same master key.
+     *
+     * @param bookmark  Host of vault
+     * @param masterkey Master key file content
+     */
+    public void open(final Host bookmark, final KeyFile masterkey) {
+        if(!preferences.getBoolean("cryptomator.cache.persistent")) {
+            return;
+        }
+        // Identify vault by its location and master key fingerprint
+        final String fingerprint = DigestUtils.sha256Hex(String.format("%s%s",
+                new DefaultUrlProvider(bookmark).toUrl(home).find(DescriptiveUrl.Type.provider).getUrl(),
+                new String(masterkey.serialize(), StandardCharsets.UTF_8)));
+        persistent = new CryptoPersistentCache(LocalFactory.get(LocalFactory.get(LocalFactory.get(
+                preferences.getProperty("application.support.path"), "Cryptomator"), "Directories"), fingerprint),
+                preferences.getInteger("cryptomator.cache.directories.size"));
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Use persistent cache %s for directory IDs", persistent));
+        }
+    }
+
     /**
      * Get encrypted filename for given clear text filename with id of parent encrypted directory.
      *
@@ -115,20 +170,64 @@ public class CryptoDirectoryProvider {
         if(new SimplePathPredicate(home).test(directory)) {
             return ROOT_DIR_ID;
         }
+        final CacheReference<Path> reference = new DefaultPathPredicate(directory);
         if(StringUtils.isBlank(directoryId)) {
-            if(cache.containsKey(new DefaultPathPredicate(directory))) {
-                return cache.get(new DefaultPathPredicate(directory));
+            final String cached = cache.get(reference);
+            if(cached != null) {
+                return cached;
+            }
+            final FutureTask<String> task = new FutureTask<String>(new Callable<String>() {
+                @Override
+                public String call() throws BackgroundException {
+                    final String id = load(session, directory);
+                    cache.put(reference, id);
+                    return id;
+                }
+            });
+            final FutureTask<String> pending = loading.putIfAbsent(reference, task);
+            if(null == pending) {
+                try {
+                    task.run();
+                }
+                finally {
+                    loading.remove(reference, task);
+                }
+            }
+            try {
+                return null == pending ? task.get() : pending.get();
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
+                }
+                throw new DefaultExceptionMappingService().map(e.getCause());
+            }
+        }
+        if(!directoryId.equals(cache.put(reference, directoryId))) {
+            final CryptoPersistentCache persistent = this.persistent;
+            if(persistent != null) {
+                persistent.put(this.toPersistentKey(session, directory), this.toPersistentValue(directoryId));
             }
-            final String id = this.load(session, directory);
-            cache.put(new DefaultPathPredicate(directory), id);
-            return id;
         }
-        cache.put(new DefaultPathPredicate(directory), directoryId);
         return directoryId;
     }
 
     private String load(final Session<?> session, final Path directory) throws BackgroundException {
         final Path parent = this.toEncrypted(session, directory.getParent().attributes().getDirectoryId(), directory.getParent());
+        final CryptoPersistentCache persistent = this.persistent;
+        final String key = null == persistent ? null : this.toPersistentKey(parent.attributes().getDirectoryId(), directory);
+        if(persistent != null) {
+            final String id = this.fromPersistentValue(persistent.get(key));
+            if(id != null) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Use persisted directory ID for folder %s", directory));
+                }
+                return id;
+            }
+        }
         final String cleartextName = directory.getName();
         final String ciphertextName = this.toEncrypted(session, parent.attributes().getDirectoryId(), cleartextName, EnumSet.of(Path.Type.directory));
         // Read directory id from file
@@ -137,7 +236,11 @@ public class CryptoDirectoryProvider {
                 log.debug(String.format("Read directory ID for folder %s from %s", directory, ciphertextName));
             }
             final Path metadataFile = new Path(parent, ciphertextName, EnumSet.of(Path.Type.file, Path.Type.encrypted));
-            return new ContentReader(session).read(metadataFile);
+            final String id = new ContentReader(session).read(metadataFile);
+            if(persistent != null) {
+                persistent.put(key, this.toPersistentValue(id));
+            }
+            return id;
         }
         catch(NotfoundException e) {
             log.warn(String.format("Missing directory ID for folder %s", directory));
@@ -145,14 +248,68 @@ public class CryptoDirectoryProvider {
         }
     }
 
+    private String toPersistentKey(final Session<?> session, final Path directory) throws BackgroundException {
+        return this.toPersistentKey(this.toDirectoryId(session, directory.getParent(), directory.getParent().attributes().getDirectoryId()), directory);
+    }
+
+    /**
+     * @return Encrypted directory name not shortened which is unique within the vault and does not reveal the clear text name
+     */
+    private String toPersistentKey(final String parentDirectoryId, final Path directory) {
+        return cryptomator.getCryptor().fileNameCryptor().encryptFilename(directory.getName(), parentDirectoryId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String toPersistentValue(final String directoryId) {
+        return String.format("%d %s", System.currentTimeMillis(), directoryId);
+    }
+
+    /**
+     * @return Directory ID or null if missing or expired
+     */
+    private String fromPersistentValue(final String value) {
+        if(null == value) {
+            return null;
+        }
+        final int separator = value.indexOf(' ');
+        if(-1 == separator) {
+            return null;
+        }
+        final long timestamp;
+        try {
+            timestamp = Long.parseLong(value.substring(0, separator));
+        }
+        catch(NumberFormatException e) {
+            return null;
+        }
+        if(timestamp + ttl < System.currentTimeMillis()) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Expired persisted directory ID %s", value));
+            }
+            return null;
+        }
+        return value.substring(separator + 1);
+    }
+
     /**
      * Remove from cache
      */
     public void delete(final Path directory) {
         cache.remove(new DefaultPathPredicate(directory));
+        final CryptoPersistentCache persistent = this.persistent;
+        if(persistent != null) {
+            final String parentDirectoryId = new SimplePathPredicate(home).test(directory.getParent()) ?
+                    ROOT_DIR_ID : cache.get(new DefaultPathPredicate(directory.getParent()));
+            if(parentDirectoryId != null) {
+                persistent.remove(this.toPersistentKey(parentDirectoryId, directory));
+            }
+        }
     }
 
+    /**
+     * Clear directory IDs in memory. Persisted directory IDs are kept for the next time the vault is opened.
+     */
     public void destroy() {
         cache.clear();
+        persistent = null;
     }
 }
@@ -15,6 +15,7 @@ package ch.cyberduck.core.cryptomator.impl;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.LocalFactory;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.cryptomator.ContentReader;
@@ -22,6 +23,7 @@ import ch.cyberduck.core.cryptomator.ContentWriter;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Find;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.log4j.Logger;
@@ -42,6 +44,14 @@ public class CryptoFilenameProvider {
 
     private static final int NAME_SHORTENING_THRESHOLD = 129;
 
+    /**
+     * Inflated names by short name. Metadata files are named after the hash of their content and never change.
+     */
+    private static final CryptoPersistentCache longNames = new CryptoPersistentCache(
+            PreferencesFactory.get().getBoolean("cryptomator.cache.persistent") ?
+                    LocalFactory.get(LocalFactory.get(PreferencesFactory.get().getProperty("application.support.path"), "Cryptomator"), "longnames") : null,
+            PreferencesFactory.get().getInteger("cryptomator.cache.longnames.size"));
+
     private final Path metadataRoot;
 
     public CryptoFilenameProvider(final Path vault) {
@@ -53,7 +63,13 @@ public class CryptoFilenameProvider {
     }
 
     public String inflate(final Session<?> session, final String shortName) throws BackgroundException {
-        return new ContentReader(session).read(resolve(shortName));
+        final String cached = longNames.get(shortName);
+        if(cached != null) {
+            return cached;
+        }
+        final String filename = new ContentReader(session).read(resolve(shortName));
+        longNames.put(shortName, filename);
+        return filename;
     }
 
     public String deflate(final Session<?> session, final String filename) throws BackgroundException {
@@ -78,6 +94,7 @@ public class CryptoFilenameProvider {
             mkdir.mkdir(secondLevel, null, new TransferStatus());
         }
         new ContentWriter(session).write(metadataFile, longFileNameBytes);
+        longNames.put(shortName, filename);
         if(log.isInfoEnabled()) {
             log.info(String.format("Deflated %s to %s", filename, shortName));
         }
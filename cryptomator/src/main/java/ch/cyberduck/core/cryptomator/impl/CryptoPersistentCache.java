@@ -0,0 +1,198 @@
+package ch.cyberduck.core.cryptomator.impl;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.Local;
+
+import org.apache.commons.collections4.map.LRUMap;
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Memory bounded cache of strings optionally backed by an append only file. Entries are loaded from the file when
+ * first accessed. The file is rewritten with the entries kept in memory once it has grown to twice the maximum
+ * number of entries. Failures reading or writing the file are logged and the cache is used in memory only.
+ */
+public class CryptoPersistentCache {
+    private static final Logger log = Logger.getLogger(CryptoPersistentCache.class);
+
+    private static final char SEPARATOR = '\t';
+
+    /**
+     * File to persist entries or null
+     */
+    private final Local file;
+    private final int size;
+    private final Map<String, String> cache;
+
+    private boolean loaded;
+
+    /**
+     * Number of lines in file
+     */
+    private int lines;
+
+    /**
+     * @param size Maximum number of entries kept in memory
+     */
+    public CryptoPersistentCache(final int size) {
+        this(null, size);
+    }
+
+    /**
+     * @param file File to persist entries or null
+     * @param size Maximum number of entries kept in memory
+     */
+    public CryptoPersistentCache(final Local file, final int size) {
+        this.file = file;
+        this.size = Math.max(1, size);
+        this.cache = new LRUMap<String, String>(this.size);
+    }
+
+    public synchronized String get(final String key) {
+        this.load();
+        return cache.get(key);
+    }
+
+    public synchronized void put(final String key, final String value) {
+        this.load();
+        if(value.equals(cache.put(key, value))) {
+            return;
+        }
+        this.append(String.format("%s%c%s", StringEscapeUtils.escapeJava(key), SEPARATOR, StringEscapeUtils.escapeJava(value)));
+    }
+
+    public synchronized void remove(final String key) {
+        this.load();
+        if(null == cache.remove(key)) {
+            return;
+        }
+        // Line without value marks removed entry
+        this.append(StringEscapeUtils.escapeJava(key));
+    }
+
+    /**
+     * Remove all entries from memory and delete file
+     */
+    public synchronized void clear() {
+        cache.clear();
+        lines = 0;
+        if(null == file) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(file.getAbsolute()));
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure deleting %s. %s", file, e.getMessage()));
+        }
+    }
+
+    private void load() {
+        if(loaded) {
+            return;
+        }
+        loaded = true;
+        if(null == file) {
+            return;
+        }
+        try {
+            for(String line : Files.readAllLines(Paths.get(file.getAbsolute()), UTF_8)) {
+                lines++;
+                final int separator = line.indexOf(SEPARATOR);
+                if(-1 == separator) {
+                    cache.remove(StringEscapeUtils.unescapeJava(line));
+                }
+                else {
+                    cache.put(StringEscapeUtils.unescapeJava(line.substring(0, separator)),
+                            StringEscapeUtils.unescapeJava(line.substring(separator + 1)));
+                }
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Loaded %d entries from %s", cache.size(), file));
+            }
+        }
+        catch(NoSuchFileException e) {
+            // Not yet persisted
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading %s. %s", file, e.getMessage()));
+        }
+        if(lines > 2 * size) {
+            this.compact();
+        }
+    }
+
+    private void append(final String line) {
+        if(null == file) {
+            return;
+        }
+        if(++lines > 2 * size) {
+            this.compact();
+            return;
+        }
+        try {
+            Files.createDirectories(Paths.get(file.getParent().getAbsolute()));
+            try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(file.getAbsolute()), UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure writing %s. %s", file, e.getMessage()));
+        }
+    }
+
+    /**
+     * Rewrite file with entries in memory
+     */
+    private void compact() {
+        final List<String> content = new ArrayList<String>(cache.size());
+        for(Map.Entry<String, String> entry : cache.entrySet()) {
+            content.add(String.format("%s%c%s", StringEscapeUtils.escapeJava(entry.getKey()), SEPARATOR,
+                    StringEscapeUtils.escapeJava(entry.getValue())));
+        }
+        try {
+            Files.createDirectories(Paths.get(file.getParent().getAbsolute()));
+            Files.write(Paths.get(file.getAbsolute()), content, UTF_8);
+            lines = content.size();
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure writing %s. %s", file, e.getMessage()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CryptoPersistentCache{");
+        sb.append("file=").append(file);
+        sb.append(", size=").append(size);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -35,7 +35,9 @@ import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.EnumSet;
 
 import static org.junit.Assert.*;
@@ -150,4 +152,81 @@ public class CryptoOutputStreamTest {
 
         assertArrayEquals(cleartext, read);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWriteWithOffset() throws Exception {
+        final CryptoVault vault = this.getVault();
+        final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+        final FileHeader header = vault.getCryptor().fileHeaderCryptor().create();
+        final CryptoOutputStream<?> stream = new CryptoOutputStream<>(new StatusOutputStream<Void>(cipherText) {
+            @Override
+            public Void getStatus() throws BackgroundException {
+                return null;
+            }
+        }, vault.getCryptor(), header, new RandomNonceGenerator(), 0);
+        final int chunksize = vault.getCryptor().fileContentCryptor().cleartextChunkSize();
+        final byte[] content = RandomUtils.nextBytes(2 * chunksize + 100);
+        // Skip first bytes of array
+        stream.write(content, 100, 2 * chunksize);
+        stream.close();
+        final byte[] read = new byte[2 * chunksize];
+        final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(cipherText.toByteArray()), vault.getCryptor(), header, 0);
+        IOUtils.readFully(cryptoInputStream, read);
+        assertEquals(IOUtils.EOF, cryptoInputStream.read(new byte[1]));
+        cryptoInputStream.close();
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 100 + 2 * chunksize), read);
+    }
+
+    @Test
+    public void testReadFromChunkOffset() throws Exception {
+        final CryptoVault vault = this.getVault();
+        final FileHeader header = vault.getCryptor().fileHeaderCryptor().create();
+        final int chunksize = vault.getCryptor().fileContentCryptor().cleartextChunkSize();
+        final byte[] cleartext = RandomUtils.nextBytes(20 * chunksize + 1);
+        final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+        final CryptoOutputStream<?> stream = new CryptoOutputStream<>(new StatusOutputStream<Void>(cipherText) {
+            @Override
+            public Void getStatus() throws BackgroundException {
+                return null;
+            }
+        }, vault.getCryptor(), header, new RandomNonceGenerator(), 0);
+        IOUtils.write(cleartext, stream);
+        stream.close();
+        final int ciphertextChunkSize = vault.getCryptor().fileContentCryptor().ciphertextChunkSize();
+        final byte[] ciphertext = cipherText.toByteArray();
+        final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(
+                Arrays.copyOfRange(ciphertext, 5 * ciphertextChunkSize, ciphertext.length)), vault.getCryptor(), header, 5);
+        assertArrayEquals(Arrays.copyOfRange(cleartext, 5 * chunksize, cleartext.length), IOUtils.toByteArray(cryptoInputStream));
+        cryptoInputStream.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testSwappedChunksAuthenticationFailure() throws Exception {
+        final CryptoVault vault = this.getVault();
+        final FileHeader header = vault.getCryptor().fileHeaderCryptor().create();
+        final int chunksize = vault.getCryptor().fileContentCryptor().cleartextChunkSize();
+        final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+        final CryptoOutputStream<?> stream = new CryptoOutputStream<>(new StatusOutputStream<Void>(cipherText) {
+            @Override
+            public Void getStatus() throws BackgroundException {
+                return null;
+            }
+        }, vault.getCryptor(), header, new RandomNonceGenerator(), 0);
+        IOUtils.write(RandomUtils.nextBytes(8 * chunksize), stream);
+        stream.close();
+        final byte[] ciphertext = cipherText.toByteArray();
+        // Swap order of chunks
+        final int ciphertextChunkSize = vault.getCryptor().fileContentCryptor().ciphertextChunkSize();
+        final byte[] swapped = new byte[ciphertext.length];
+        System.arraycopy(ciphertext, 0, swapped, ciphertextChunkSize, ciphertextChunkSize);
+        System.arraycopy(ciphertext, ciphertextChunkSize, swapped, 0, ciphertextChunkSize);
+        System.arraycopy(ciphertext, 2 * ciphertextChunkSize, swapped, 2 * ciphertextChunkSize, ciphertext.length - 2 * ciphertextChunkSize);
+        final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(swapped), vault.getCryptor(), header, 0);
+        try {
+            IOUtils.toByteArray(cryptoInputStream);
+        }
+        finally {
+            cryptoInputStream.close();
+        }
+    }
+}
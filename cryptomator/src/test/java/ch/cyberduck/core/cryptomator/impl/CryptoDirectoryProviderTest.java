@@ -20,6 +20,7 @@ import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.DisabledPasswordCallback;
 import ch.cyberduck.core.DisabledPasswordStore;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LoginOptions;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
@@ -29,17 +30,30 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.LoginCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.vault.VaultCredentials;
 
 import org.apache.commons.io.IOUtils;
+import org.cryptomator.cryptolib.api.KeyFile;
 import org.junit.Test;
 
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 
 public class CryptoDirectoryProviderTest {
@@ -105,4 +119,146 @@ public class CryptoDirectoryProviderTest {
         assertNotNull(provider.toEncrypted(session, null, f));
         assertEquals(provider.toEncrypted(session, null, f), provider.toEncrypted(session, null, f));
     }
+
+    @Test
+    public void testToEncryptedDirectoryConcurrent() throws Exception {
+        final Path home = new Path("/vault", EnumSet.of(Path.Type.directory));
+        final AtomicInteger reads = new AtomicInteger();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Read.class) {
+                    return (T) new Read() {
+                        @Override
+                        public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                            if(file.getName().equals("masterkey.cryptomator")) {
+                                final String masterKey = "{\n" +
+                                        "  \"scryptSalt\": \"NrC7QGG/ouc=\",\n" +
+                                        "  \"scryptCostParam\": 16384,\n" +
+                                        "  \"scryptBlockSize\": 8,\n" +
+                                        "  \"primaryMasterKey\": \"Q7pGo1l0jmZssoQh9rXFPKJE9NIXvPbL+HcnVSR9CHdkeR8AwgFtcw==\",\n" +
+                                        "  \"hmacMasterKey\": \"xzBqT4/7uEcQbhHFLC0YmMy4ykVKbuvJEA46p1Xm25mJNuTc20nCbw==\",\n" +
+                                        "  \"versionMac\": \"hlNr3dz/CmuVajhaiGyCem9lcVIUjDfSMLhjppcXOrM=\",\n" +
+                                        "  \"version\": 5\n" +
+                                        "}";
+                                return IOUtils.toInputStream(masterKey, Charset.defaultCharset());
+                            }
+                            reads.incrementAndGet();
+                            return IOUtils.toInputStream(file.getName(), Charset.defaultCharset());
+                        }
+
+                        @Override
+                        public boolean offset(final Path file) throws BackgroundException {
+                            return false;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        final CryptoVault vault = new CryptoVault(home, new DisabledPasswordStore());
+        vault.load(session, new DisabledPasswordCallback() {
+            @Override
+            public Credentials prompt(final Host bookmark, final String title, final String reason, final LoginOptions options) throws LoginCanceledException {
+                return new VaultCredentials("vault");
+            }
+        });
+        final CryptoDirectoryProvider provider = new CryptoDirectoryProvider(home, vault);
+        final Path f = new Path("/vault/f", EnumSet.of(Path.Type.directory));
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<Path>> results = new ArrayList<Future<Path>>();
+        for(int i = 0; i < 32; i++) {
+            results.add(executor.submit(new Callable<Path>() {
+                @Override
+                public Path call() throws Exception {
+                    return provider.toEncrypted(session, null, f);
+                }
+            }));
+        }
+        final Path encrypted = results.get(0).get();
+        for(Future<Path> result : results) {
+            assertEquals(encrypted, result.get());
+        }
+        executor.shutdown();
+        // Single read of directory ID file
+        assertEquals(1, reads.get());
+        provider.delete(f);
+        assertEquals(encrypted, provider.toEncrypted(session, null, f));
+        assertEquals(2, reads.get());
+        assertNotEquals(encrypted, provider.toEncrypted(session, null, new Path("/vault/g", EnumSet.of(Path.Type.directory))));
+    }
+
+    @Test
+    public void testPersistedDirectoryIdExpired() throws Exception {
+        final Path home = new Path("/vault", EnumSet.of(Path.Type.directory));
+        final String masterKey = "{\n" +
+                "  \"scryptSalt\": \"NrC7QGG/ouc=\",\n" +
+                "  \"scryptCostParam\": 16384,\n" +
+                "  \"scryptBlockSize\": 8,\n" +
+                "  \"primaryMasterKey\": \"Q7pGo1l0jmZssoQh9rXFPKJE9NIXvPbL+HcnVSR9CHdkeR8AwgFtcw==\",\n" +
+                "  \"hmacMasterKey\": \"xzBqT4/7uEcQbhHFLC0YmMy4ykVKbuvJEA46p1Xm25mJNuTc20nCbw==\",\n" +
+                "  \"versionMac\": \"hlNr3dz/CmuVajhaiGyCem9lcVIUjDfSMLhjppcXOrM=\",\n" +
+                "  \"version\": 5\n" +
+                "}";
+        final AtomicInteger reads = new AtomicInteger();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Read.class) {
+                    return (T) new Read() {
+                        @Override
+                        public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                            if(file.getName().equals("masterkey.cryptomator")) {
+                                return IOUtils.toInputStream(masterKey, Charset.defaultCharset());
+                            }
+                            // Folder replaced with new directory ID on every read
+                            return IOUtils.toInputStream(String.valueOf(reads.incrementAndGet()), Charset.defaultCharset());
+                        }
+
+                        @Override
+                        public boolean offset(final Path file) throws BackgroundException {
+                            return false;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        final CryptoVault vault = new CryptoVault(home, new DisabledPasswordStore());
+        vault.load(session, new DisabledPasswordCallback() {
+            @Override
+            public Credentials prompt(final Host bookmark, final String title, final String reason, final LoginOptions options) throws LoginCanceledException {
+                return new VaultCredentials("vault");
+            }
+        });
+        final Preferences preferences = PreferencesFactory.get();
+        final String support = preferences.getProperty("application.support.path");
+        preferences.setProperty("application.support.path", new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()).getAbsolute());
+        preferences.setProperty("cryptomator.cache.persistent", true);
+        try {
+            final Path f = new Path("/vault/f", EnumSet.of(Path.Type.directory));
+            final KeyFile keyFile = KeyFile.parse(masterKey.getBytes(StandardCharsets.UTF_8));
+            final CryptoDirectoryProvider provider = new CryptoDirectoryProvider(home, vault);
+            provider.open(session.getHost(), keyFile);
+            final Path encrypted = provider.toEncrypted(session, null, f);
+            assertEquals(1, reads.get());
+            // Directory ID persisted for next session
+            final CryptoDirectoryProvider reopened = new CryptoDirectoryProvider(home, vault);
+            reopened.open(session.getHost(), keyFile);
+            assertEquals(encrypted, reopened.toEncrypted(session, null, f));
+            assertEquals(1, reads.get());
+            preferences.setProperty("cryptomator.cache.directories.ttl", -1L);
+            final CryptoDirectoryProvider expired = new CryptoDirectoryProvider(home, vault);
+            expired.open(session.getHost(), keyFile);
+            assertNotEquals(encrypted, expired.toEncrypted(session, null, f));
+            assertEquals(2, reads.get());
+        }
+        finally {
+            preferences.setProperty("application.support.path", support);
+            preferences.deleteProperty("cryptomator.cache.persistent");
+            preferences.deleteProperty("cryptomator.cache.directories.ttl");
+        }
+    }
 }
@@ -0,0 +1,73 @@
+package ch.cyberduck.core.cryptomator.impl;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class CryptoPersistentCacheTest {
+
+    @Test
+    public void testMemory() throws Exception {
+        final CryptoPersistentCache cache = new CryptoPersistentCache(2);
+        assertNull(cache.get("a"));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertEquals("1", cache.get("a"));
+        cache.put("c", "3");
+        // Evicted least recently used
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    public void testPersist() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final CryptoPersistentCache cache = new CryptoPersistentCache(file, 10);
+        cache.put("a", "1");
+        cache.put("b\tkey\nwith separators", "2\t\n");
+        cache.put("c", "3");
+        cache.remove("c");
+        assertTrue(file.exists());
+        final CryptoPersistentCache reopened = new CryptoPersistentCache(file, 10);
+        assertEquals("1", reopened.get("a"));
+        assertEquals("2\t\n", reopened.get("b\tkey\nwith separators"));
+        assertNull(reopened.get("c"));
+        reopened.clear();
+        assertFalse(file.exists());
+        assertNull(new CryptoPersistentCache(file, 10).get("a"));
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final CryptoPersistentCache cache = new CryptoPersistentCache(file, 2);
+        for(int i = 0; i < 10; i++) {
+            cache.put(String.valueOf(i), String.valueOf(i));
+        }
+        final CryptoPersistentCache reopened = new CryptoPersistentCache(file, 2);
+        assertEquals("9", reopened.get("9"));
+        assertEquals("8", reopened.get("8"));
+        assertNull(reopened.get("0"));
+        reopened.clear();
+    }
+}
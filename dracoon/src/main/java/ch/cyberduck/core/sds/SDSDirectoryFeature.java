@@ -54,16 +54,20 @@ public class SDSDirectoryFeature implements Directory {
                 roomRequest.setAdminGroupIds(null);
                 roomRequest.setName(folder.getName());
                 final Node r = new NodesApi(session.getClient()).createRoom(StringUtils.EMPTY, null, roomRequest);
-                return new Path(folder.getParent(), folder.getName(), EnumSet.of(Path.Type.directory, Path.Type.volume),
-                    new PathAttributes(folder.attributes()));
+                final Path room = new Path(folder.getParent(), folder.getName(), EnumSet.of(Path.Type.directory, Path.Type.volume),
+                    new PathAttributes(folder.attributes()).withVersionId(String.valueOf(r.getId())));
+                session.getFileidCache().cache(room);
+                return room;
             }
             else {
                 final CreateFolderRequest folderRequest = new CreateFolderRequest();
                 folderRequest.setParentId(Long.parseLong(new SDSNodeIdProvider(session).getFileid(folder.getParent(), new DisabledListProgressListener())));
                 folderRequest.setName(folder.getName());
                 final Node f = new NodesApi(session.getClient()).createFolder(StringUtils.EMPTY, folderRequest, null);
-                return new Path(folder.getParent(), folder.getName(), folder.getType(),
-                    new PathAttributes(folder.attributes()));
+                final Path directory = new Path(folder.getParent(), folder.getName(), folder.getType(),
+                    new PathAttributes(folder.attributes()).withVersionId(String.valueOf(f.getId())));
+                session.getFileidCache().cache(directory);
+                return directory;
             }
         }
         catch(ApiException e) {
@@ -53,36 +53,35 @@ public class SDSMoveFeature implements Move {
             if(status.isExists()) {
                 new SDSDeleteFeature(session).delete(Collections.singletonList(renamed), connectionCallback, callback);
             }
+            // Node ID is kept when moved or renamed
+            final long nodeId = Long.parseLong(new SDSNodeIdProvider(session).getFileid(file, new DisabledListProgressListener()));
             if(!new SimplePathPredicate(file.getParent()).test(renamed.getParent())) {
                 // Change parent node
                 new NodesApi(session.getClient()).moveNodes(StringUtils.EMPTY,
                     Long.parseLong(new SDSNodeIdProvider(session).getFileid(renamed.getParent(), new DisabledListProgressListener())),
                     new MoveNodesRequest().resolutionStrategy(MoveNodesRequest.ResolutionStrategyEnum.OVERWRITE).addNodeIdsItem(
-                        Long.parseLong(new SDSNodeIdProvider(session).getFileid(file,
-                            new DisabledListProgressListener()))), null);
+                        nodeId), null);
             }
             if(!StringUtils.equals(file.getName(), renamed.getName())) {
                 if(containerService.isContainer(file)) {
                     new NodesApi(session.getClient()).updateRoom(StringUtils.EMPTY,
-                        Long.parseLong(new SDSNodeIdProvider(session).getFileid(file, new DisabledListProgressListener())),
-                        new UpdateRoomRequest().name(renamed.getName()), null);
+                        nodeId, new UpdateRoomRequest().name(renamed.getName()), null);
                 }
                 // Rename
                 else if(file.isDirectory()) {
                     new NodesApi(session.getClient()).updateFolder(StringUtils.EMPTY,
-                        Long.parseLong(new SDSNodeIdProvider(session).getFileid(
-                            new Path(renamed.getParent(), file.getName(), file.getType()), new DisabledListProgressListener())),
-                        new UpdateFolderRequest().name(renamed.getName()), null);
+                        nodeId, new UpdateFolderRequest().name(renamed.getName()), null);
                 }
                 else {
                     new NodesApi(session.getClient()).updateFile(StringUtils.EMPTY,
-                        Long.parseLong(new SDSNodeIdProvider(session).getFileid(
-                            new Path(renamed.getParent(), file.getName(), file.getType()), new DisabledListProgressListener())),
-                        new UpdateFileRequest().name(renamed.getName()), null);
+                        nodeId, new UpdateFileRequest().name(renamed.getName()), null);
                 }
             }
-            return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
-                new PathAttributes(renamed.attributes()).withVersionId(file.attributes().getVersionId()));
+            session.getFileidCache().invalidate(file);
+            final Path target = new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
+                new PathAttributes(renamed.attributes()).withVersionId(String.valueOf(nodeId)));
+            session.getFileidCache().cache(target);
+            return target;
         }
         catch(ApiException e) {
             throw new SDSExceptionMappingService().map("Cannot rename {0}", e, file);
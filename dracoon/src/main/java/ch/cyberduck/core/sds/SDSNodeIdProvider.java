@@ -31,6 +31,8 @@ import ch.cyberduck.core.sds.io.swagger.client.model.NodeList;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.util.concurrent.Callable;
+
 public class SDSNodeIdProvider implements IdProvider {
     private static final Logger log = Logger.getLogger(SDSNodeIdProvider.class);
 
@@ -56,6 +58,15 @@ public class SDSNodeIdProvider implements IdProvider {
         if(file.isRoot()) {
             return ROOT_NODE_ID;
         }
+        return session.getFileidCache().lookup(file, new Callable<String>() {
+            @Override
+            public String call() throws BackgroundException {
+                return load(file);
+            }
+        });
+    }
+
+    private String load(final Path file) throws BackgroundException {
         try {
             final String type;
             if(file.isDirectory()) {
@@ -85,7 +96,12 @@ public class SDSNodeIdProvider implements IdProvider {
             throw new NotfoundException(file.getAbsolute());
         }
         catch(ApiException e) {
-            throw new SDSExceptionMappingService().map("Failure to read attributes of {0}", e, file);
+            final BackgroundException failure = new SDSExceptionMappingService().map("Failure to read attributes of {0}", e, file);
+            if(failure instanceof NotfoundException) {
+                // Cached node of parent no longer found
+                session.getFileidCache().invalidate(file.getParent());
+            }
+            throw failure;
         }
     }
 
@@ -18,6 +18,7 @@ package ch.cyberduck.core.sds;
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.ExpiringObjectHolder;
+import ch.cyberduck.core.FileidCache;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostKeyCallback;
 import ch.cyberduck.core.HostPasswordStore;
@@ -90,6 +91,8 @@ public class SDSSession extends HttpSession<SDSApiClient> {
 
     private final List<KeyValueEntry> configuration = new ArrayList<>();
 
+    private final FileidCache fileid = FileidCache.get(host);
+
     public SDSSession(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         super(host, new ThreadLocalHostnameDelegatingTrustManager(trust, host.getHostname()), key);
         this.authorizationService = new OAuth2RequestInterceptor(builder.build(this).addInterceptorLast(new HttpRequestInterceptor() {
@@ -228,6 +231,10 @@ public class SDSSession extends HttpSession<SDSApiClient> {
         client.getHttpClient().close();
     }
 
+    public FileidCache getFileidCache() {
+        return fileid;
+    }
+
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         return new SDSListService(this).list(directory, listener);
@@ -62,8 +62,10 @@ public class SDSTouchFeature implements Touch<VersionId> {
             }
             final StatusOutputStream<VersionId> out = writer.write(file, status, new DisabledConnectionCallback());
             out.close();
-            return new Path(file.getParent(), file.getName(), file.getType(),
+            final Path touched = new Path(file.getParent(), file.getName(), file.getType(),
                 new PathAttributes(file.attributes()).withVersionId(out.getStatus().toString()));
+            session.getFileidCache().cache(touched);
+            return touched;
         }
         catch(IOException e) {
             throw new DefaultIOExceptionMappingService().map("Cannot create file {0}", e, file);
@@ -19,7 +19,11 @@ package ch.cyberduck.core.ftp;
  * dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Protocol;
+import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
@@ -41,15 +45,19 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 public class FTPClient extends FTPSClient {
@@ -101,7 +109,8 @@ public class FTPClient extends FTPSClient {
                         final Object cache = sessionHostPortCache.get(context);
                         final Method method = cache.getClass().getDeclaredMethod("put", Object.class, Object.class);
                         method.setAccessible(true);
-                        method.invoke(cache, String.format("%s:%s", socket.getInetAddress().getHostName(),
+                        // Avoid reverse lookup of address
+                        method.invoke(cache, String.format("%s:%s", ((InetSocketAddress) socket.getRemoteSocketAddress()).getHostString(),
                                 String.valueOf(socket.getPort())).toLowerCase(Locale.ROOT), session);
                         method.invoke(cache, String.format("%s:%s", socket.getInetAddress().getHostAddress(),
                                 String.valueOf(socket.getPort())).toLowerCase(Locale.ROOT), session);
@@ -196,6 +205,90 @@ public class FTPClient extends FTPSClient {
         return results;
     }
 
+    /**
+     * Parse lines of the response on the data connection as they arrive without buffering the whole reply
+     *
+     * @param directory Directory to list
+     * @param reader    Parser for lines in reply
+     * @param listener  Notified with parsed files
+     * @return Parsed files
+     */
+    public AttributedList<Path> list(final FTPCmd command, final String pathname, final Path directory,
+                                     final FTPDataResponseReader reader, final ListProgressListener listener) throws IOException, BackgroundException {
+        this.pret(command, pathname);
+
+        final Socket socket = _openDataConnection_(command, pathname);
+
+        final BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), getControlEncoding()));
+        final AttributedList<Path> list;
+        try {
+            try {
+                list = reader.read(directory, new Iterable<String>() {
+                    @Override
+                    public Iterator<String> iterator() {
+                        return new DataResponseIterator(in);
+                    }
+                }, listener);
+            }
+            catch(UncheckedIOException e) {
+                throw e.getCause();
+            }
+            finally {
+                in.close();
+                socket.close();
+            }
+        }
+        catch(BackgroundException e) {
+            // Read reply for empty or interrupted listing
+            this.completePendingCommand();
+            throw e;
+        }
+        if(!this.completePendingCommand()) {
+            throw new FTPException(this.getReplyCode(), this.getReplyString());
+        }
+        return list;
+    }
+
+    private final class DataResponseIterator implements Iterator<String> {
+        private final BufferedReader reader;
+
+        /**
+         * Line read ahead
+         */
+        private String next;
+
+        public DataResponseIterator(final BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if(null == next) {
+                try {
+                    next = reader.readLine();
+                }
+                catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if(null != next) {
+                    _commandSupport_.fireReplyReceived(-1, next);
+                }
+            }
+            return null != next;
+        }
+
+        @Override
+        public String next() {
+            if(!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final String line = next;
+            next = null;
+            return line;
+        }
+    }
+
     /**
      * Query the server for a supported feature, and returns its values (if any).
      * Caches the parsed response to avoid resending the command repeatedly.
@@ -6,10 +6,12 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 
 import java.io.IOException;
-import java.util.List;
 
 public interface FTPDataResponseReader {
 
-    AttributedList<Path> read(Path parent, List<String> replies, ListProgressListener listener)
+    /**
+     * @param replies Lines of reply. May be read from the data connection while iterating.
+     */
+    AttributedList<Path> read(Path parent, Iterable<String> replies, ListProgressListener listener)
             throws IOException, FTPInvalidListException, ConnectionCanceledException;
 }
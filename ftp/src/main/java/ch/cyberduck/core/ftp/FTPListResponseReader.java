@@ -25,6 +25,7 @@ import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.ftp.parser.FTPExtendedFile;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.net.ftp.FTPFile;
@@ -43,24 +44,37 @@ public class FTPListResponseReader implements FTPDataResponseReader {
 
     private final boolean lenient;
 
+    /**
+     * Number of parsed files to notify listener with at once
+     */
+    private final int chunksize;
+
     public FTPListResponseReader(final FTPFileEntryParser parser) {
         this(parser, false);
     }
 
     public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient) {
+        this(parser, lenient, PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient, final int chunksize) {
         this.parser = parser;
         this.lenient = lenient;
+        this.chunksize = chunksize;
     }
 
     @Override
-    public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener)
+    public AttributedList<Path> read(final Path directory, final Iterable<String> replies, final ListProgressListener listener)
             throws IOException, FTPInvalidListException, ConnectionCanceledException {
         final AttributedList<Path> children = new AttributedList<Path>();
         // At least one entry successfully parsed
         boolean success = false;
-        // Call hook for those implementors which need to perform some action upon the list after it has been created
-        // from the server stream, but before any clients see the list
-        parser.preParse(replies);
+        if(replies instanceof List) {
+            // Call hook for those implementors which need to perform some action upon the list after it has been created
+            // from the server stream, but before any clients see the list. Not available when parsing lines as they
+            // are read from the data connection.
+            parser.preParse((List<String>) replies);
+        }
         for(String line : replies) {
             final FTPFile f = parser.parseFTPEntry(line);
             if(null == f) {
@@ -163,6 +177,9 @@ public class FTPListResponseReader implements FTPDataResponseReader {
                 parsed.attributes().setModificationDate(timestamp.getTimeInMillis());
             }
             children.add(parsed);
+            if(children.size() % chunksize == 0) {
+                listener.chunk(directory, children);
+            }
         }
         if(!success) {
             throw new FTPInvalidListException(children);
@@ -102,7 +102,7 @@ public class FTPListService implements ListService {
                           final String system, final TimeZone zone) {
         this.session = session;
         // Directory listing parser depending on response for SYST command
-        final CompositeFileEntryParser parser = new FTPParserSelector().getParser(system, zone);
+        final CompositeFileEntryParser parser = new FTPParserSelector().getParser(session.getHost(), system, zone);
         this.implementations.put(Command.list, new FTPDefaultListService(session, keychain, prompt, parser, Command.list));
         if(PreferencesFactory.get().getBoolean("ftp.command.stat")) {
             if(StringUtils.isNotBlank(system)) {
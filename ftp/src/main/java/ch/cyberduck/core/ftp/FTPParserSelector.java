@@ -17,16 +17,46 @@ package ch.cyberduck.core.ftp;
  * Bug fixes, suggestions and comments should be sent to feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ftp.parser.CompositeFileEntryParser;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
+import org.apache.commons.collections4.map.LRUMap;
 import org.apache.log4j.Logger;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FTPParserSelector {
     private static final Logger log = Logger.getLogger(FTPParserSelector.class);
 
+    /**
+     * Matching parser implementation by host to skip probing all parsers in new connections
+     */
+    private static final Map<String, AtomicInteger> selections = Collections.synchronizedMap(new LRUMap<String, AtomicInteger>(
+            PreferencesFactory.get().getInteger("ftp.parser.cache.size")));
+
+    /**
+     * @param host   Server
+     * @param system Response to SYST command
+     * @param zone   Timezone of server or null for default
+     * @return Parser starting with implementation previously matching for host
+     */
+    public CompositeFileEntryParser getParser(final Host host, final String system, final TimeZone zone) {
+        final String key = String.format("%s:%d %s %s", host.getHostname(), host.getPort(), system,
+                null == zone ? null : zone.getID());
+        final AtomicInteger selection;
+        synchronized(selections) {
+            if(!selections.containsKey(key)) {
+                selections.put(key, new AtomicInteger(-1));
+            }
+            selection = selections.get(key);
+        }
+        return this.getParser(system, zone).withSelection(selection);
+    }
+
     public CompositeFileEntryParser getParser(final String system) {
         return this.getParser(system, null);
     }
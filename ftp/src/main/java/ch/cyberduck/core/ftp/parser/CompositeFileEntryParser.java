@@ -8,6 +8,7 @@ import org.apache.commons.net.ftp.FTPFileEntryParserImpl;
 import org.apache.log4j.Logger;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This implementation allows to pack some FileEntryParsers together
@@ -24,10 +25,27 @@ public class CompositeFileEntryParser extends FTPFileEntryParserImpl implements
     private final List<? extends FTPFileEntryParser> parsers;
     private FTPFileEntryParser current;
 
+    /**
+     * Index of matching parser shared with parsers for the same host
+     */
+    private AtomicInteger selection = new AtomicInteger(-1);
+
     public CompositeFileEntryParser(final List<? extends FTPFileEntryParser> parsers) {
         this.parsers = parsers;
     }
 
+    /**
+     * @param selection Index of parser previously matching for host
+     */
+    public CompositeFileEntryParser withSelection(final AtomicInteger selection) {
+        this.selection = selection;
+        final int index = selection.get();
+        if(index >= 0 && index < parsers.size()) {
+            current = parsers.get(index);
+        }
+        return this;
+    }
+
     @Override
     public List<String> preParse(final List<String> original) {
         for(FTPFileEntryParser parser : parsers) {
@@ -38,8 +56,8 @@ public class CompositeFileEntryParser extends FTPFileEntryParserImpl implements
 
     @Override
     public FTPFile parseFTPEntry(final String line) {
-        if(log.isDebugEnabled()) {
-            log.debug(String.format("Parse %s", line));
+        if(log.isTraceEnabled()) {
+            log.trace(String.format("Parse %s", line));
         }
         if(current != null) {
             final FTPFile parsed = current.parseFTPEntry(line);
@@ -55,6 +73,7 @@ public class CompositeFileEntryParser extends FTPFileEntryParserImpl implements
             final FTPFile matched = parser.parseFTPEntry(line);
             if(matched != null) {
                 current = parser;
+                selection.set(parsers.indexOf(parser));
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Caching %s parser implementation", current));
                 }
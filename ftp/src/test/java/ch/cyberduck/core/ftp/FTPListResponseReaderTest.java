@@ -30,9 +30,11 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -251,4 +253,29 @@ public class FTPListResponseReaderTest {
         assertNull(list.get(2).getSymlinkTarget());
         assertFalse(list.get(2).isSymbolicLink());
     }
+
+    @Test
+    public void testChunk() throws Exception {
+        final Path directory = new Path("/", EnumSet.of(Path.Type.directory));
+        final List<Integer> chunks = new ArrayList<Integer>();
+        final AttributedList<Path> list = new FTPListResponseReader(new FTPParserSelector().getParser("UNIX"), false, 2).read(directory,
+                new Iterable<String>() {
+                    @Override
+                    public Iterator<String> iterator() {
+                        return Arrays.asList(
+                                "-rw-r--r--   1 ftp      ftp           1 Jan 01  2010 a",
+                                "-rw-r--r--   1 ftp      ftp           1 Jan 01  2010 b",
+                                "-rw-r--r--   1 ftp      ftp           1 Jan 01  2010 c",
+                                "-rw-r--r--   1 ftp      ftp           1 Jan 01  2010 d",
+                                "-rw-r--r--   1 ftp      ftp           1 Jan 01  2010 e").iterator();
+                    }
+                }, new DisabledListProgressListener() {
+                    @Override
+                    public void chunk(final Path parent, final AttributedList<Path> list) {
+                        chunks.add(list.size());
+                    }
+                });
+        assertEquals(5, list.size());
+        assertEquals(Arrays.asList(2, 4), chunks);
+    }
 }
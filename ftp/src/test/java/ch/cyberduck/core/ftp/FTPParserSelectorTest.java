@@ -1,12 +1,16 @@
 package ch.cyberduck.core.ftp;
 
+import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ftp.parser.CompositeFileEntryParser;
+import ch.cyberduck.core.ftp.parser.EPLFFTPEntryParser;
 
 import org.junit.Test;
 
 import java.util.Arrays;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class FTPParserSelectorTest {
 
@@ -22,4 +26,15 @@ public class FTPParserSelectorTest {
         parser.preParse(Arrays.asList("total 66", line));
         assertNotNull(parser.parseFTPEntry(line));
     }
+
+    @Test
+    public void testGetParserCachedForHost() throws Exception {
+        final Host host = new Host(new FTPProtocol(), "eplf.example.net");
+        final CompositeFileEntryParser parser = new FTPParserSelector().getParser(host, "UNIX", null);
+        assertNull(parser.getCurrent());
+        assertNotNull(parser.parseFTPEntry("+m825718503,r,s280,\tdjb.html"));
+        assertTrue(parser.getCurrent() instanceof EPLFFTPEntryParser);
+        assertTrue(new FTPParserSelector().getParser(host, "UNIX", null).getCurrent() instanceof EPLFFTPEntryParser);
+        assertNull(new FTPParserSelector().getParser(new Host(new FTPProtocol(), "unix.example.net"), "UNIX", null).getCurrent());
+    }
 }
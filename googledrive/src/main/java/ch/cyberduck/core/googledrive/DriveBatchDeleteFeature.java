@@ -18,9 +18,11 @@ package ch.cyberduck.core.googledrive;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.collections.Partition;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.http.HttpResponseExceptionMappingService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.http.client.HttpResponseException;
 import org.apache.log4j.Logger;
@@ -34,7 +36,7 @@ import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
 import com.google.api.client.googleapis.json.GoogleJsonError;
 import com.google.api.client.http.HttpHeaders;
 
-public class DriveBatchDeleteFeature implements Delete {
+public class DriveBatchDeleteFeature implements Delete, Delete.Batch {
     private static final Logger log = Logger.getLogger(DriveBatchDeleteFeature.class);
 
     private final DriveSession session;
@@ -45,6 +47,13 @@ public class DriveBatchDeleteFeature implements Delete {
 
     @Override
     public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+        // Maximum number of calls in a single batch request is 100
+        for(List<Path> partition : new Partition<Path>(files, this.getPartition())) {
+            this.batch(partition, callback);
+        }
+    }
+
+    private void batch(final List<Path> files, final Callback callback) throws BackgroundException {
         final BatchRequest batch = session.getClient().batch();
         final List<BackgroundException> failures = new ArrayList<>();
         for(Path file : files) {
@@ -60,6 +69,7 @@ public class DriveBatchDeleteFeature implements Delete {
 
                             @Override
                             public void onSuccess(final Void aVoid, final HttpHeaders responseHeaders) throws IOException {
+                                session.getFileidCache().invalidate(file);
                                 callback.delete(file);
                             }
                         });
@@ -81,6 +91,11 @@ public class DriveBatchDeleteFeature implements Delete {
         }
     }
 
+    @Override
+    public int getPartition() {
+        return PreferencesFactory.get().getInteger("googledrive.delete.multiple.partition");
+    }
+
     @Override
     public boolean isSupported(final Path file) {
         return true;
@@ -24,6 +24,7 @@ import java.util.EnumSet;
 
 public class DriveDefaultListService extends AbstractDriveListService {
 
+    private final DriveSession session;
     private final DriveFileidProvider fileid;
 
     public DriveDefaultListService(final DriveSession session) {
@@ -32,6 +33,7 @@ public class DriveDefaultListService extends AbstractDriveListService {
 
     public DriveDefaultListService(final DriveSession session, final DriveFileidProvider fileid) {
         super(session);
+        this.session = session;
         this.fileid = fileid;
     }
 
@@ -41,6 +43,7 @@ public class DriveDefaultListService extends AbstractDriveListService {
 
     public DriveDefaultListService(final DriveSession session, final DriveFileidProvider fileid, final int pagesize) {
         super(session, pagesize);
+        this.session = session;
         this.fileid = fileid;
     }
 
@@ -51,6 +54,7 @@ public class DriveDefaultListService extends AbstractDriveListService {
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         final AttributedList<Path> list = super.list(directory, listener);
+        session.getFileidCache().cache(list);
         if(directory.isRoot()) {
             list.add(new Path(DriveHomeFinderService.SHARED_FOLDER_NAME, EnumSet.of(Path.Type.directory, Path.Type.placeholder, Path.Type.volume)));
             listener.chunk(directory, list);
@@ -41,6 +41,7 @@ public class DriveDeleteFeature implements Delete {
             callback.delete(file);
             try {
                 session.getClient().files().delete(new DriveFileidProvider(session).getFileid(file, new DisabledListProgressListener())).execute();
+                session.getFileidCache().invalidate(file);
             }
             catch(IOException e) {
                 throw new DriveExceptionMappingService().map("Cannot delete {0}", e, file);
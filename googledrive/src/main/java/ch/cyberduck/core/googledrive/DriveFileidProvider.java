@@ -28,6 +28,8 @@ import ch.cyberduck.core.features.IdProvider;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.concurrent.Callable;
+
 public class DriveFileidProvider implements IdProvider {
 
     private final DriveSession session;
@@ -44,7 +46,24 @@ public class DriveFileidProvider implements IdProvider {
         if(file.isRoot()) {
             return DriveHomeFinderService.ROOT_FOLDER_ID;
         }
-        final AttributedList<Path> list = new FileidDriveListService(session, this, file).list(file.getParent(), new DisabledListProgressListener());
+        return session.getFileidCache().lookup(file, new Callable<String>() {
+            @Override
+            public String call() throws BackgroundException {
+                return load(file);
+            }
+        });
+    }
+
+    private String load(final Path file) throws BackgroundException {
+        final AttributedList<Path> list;
+        try {
+            list = new FileidDriveListService(session, this, file).list(file.getParent(), new DisabledListProgressListener());
+        }
+        catch(NotfoundException e) {
+            // Cached identifier of parent no longer found
+            session.getFileidCache().invalidate(file.getParent());
+            throw e;
+        }
         final Path found = list.filter(new NullFilter<>()).find(new SimplePathPredicate(file));
         if(null == found) {
             throw new NotfoundException(file.getAbsolute());
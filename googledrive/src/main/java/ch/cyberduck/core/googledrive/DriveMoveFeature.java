@@ -81,8 +81,11 @@ public class DriveMoveFeature implements Move {
                     .setRemoveParents(previousParents.toString())
                     .setFields("id, parents")
                     .execute();
-            return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
+            session.getFileidCache().invalidate(file);
+            final Path target = new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
                     new PathAttributes(renamed.attributes()).withVersionId(fileid));
+            session.getFileidCache().cache(target);
+            return target;
         }
         catch(IOException e) {
             throw new DriveExceptionMappingService().map("Cannot rename {0}", e, file);
@@ -16,6 +16,7 @@ package ch.cyberduck.core.googledrive;
  */
 
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.FileidCache;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostKeyCallback;
 import ch.cyberduck.core.HostPasswordStore;
@@ -62,6 +63,8 @@ public class DriveSession extends HttpSession<Drive> {
     private final OAuth2ErrorResponseInterceptor retryHandler = new OAuth2ErrorResponseInterceptor(
         authorizationService);
 
+    private final FileidCache fileid = FileidCache.get(host);
+
     public DriveSession(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         super(host, new ThreadLocalHostnameDelegatingTrustManager(trust, host.getHostname()), key);
     }
@@ -93,6 +96,10 @@ public class DriveSession extends HttpSession<Drive> {
         transport.shutdown();
     }
 
+    public FileidCache getFileidCache() {
+        return fileid;
+    }
+
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         return new DriveListService(this, new DriveFileidProvider(this)).list(directory, listener);
@@ -50,8 +50,10 @@ public class DriveTouchFeature implements Touch<Void> {
                     .setMimeType(status.getMime())
                     .setParents(Collections.singletonList(new DriveFileidProvider(session).getFileid(file.getParent(), new DisabledListProgressListener()))));
             final File execute = insert.execute();
-            return new Path(file.getParent(), file.getName(), file.getType(),
+            final Path touched = new Path(file.getParent(), file.getName(), file.getType(),
                     new PathAttributes(file.attributes()).withVersionId(execute.getId()));
+            session.getFileidCache().cache(touched);
+            return touched;
         }
         catch(IOException e) {
             throw new DriveExceptionMappingService().map("Cannot create file {0}", e, file);
@@ -17,31 +17,70 @@ package ch.cyberduck.core.onedrive;
 
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.MultipartWrite;
 import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.http.HttpRange;
+import ch.cyberduck.core.http.HttpResponseExceptionMappingService;
 import ch.cyberduck.core.http.HttpResponseOutputStream;
-import ch.cyberduck.core.io.BufferInputStream;
-import ch.cyberduck.core.io.BufferOutputStream;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.io.DisabledChecksumCompute;
-import ch.cyberduck.core.io.FileBuffer;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.DefaultThreadPool;
+import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
 import org.apache.log4j.Logger;
+import org.nuxeo.onedrive.client.OneDriveAPIException;
+import org.nuxeo.onedrive.client.OneDriveFile;
+import org.nuxeo.onedrive.client.OneDriveUploadSession;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 
 public class OneDriveBufferWriteFeature implements MultipartWrite<Void> {
     private static final Logger log = Logger.getLogger(OneDriveBufferWriteFeature.class);
 
+    /**
+     * Fragments must be a multiple of 320 KiB
+     */
+    private static final int FRAGMENT_SIZE_MULTIPLE = 320 * 1024;
+
+    private final Preferences preferences
+        = PreferencesFactory.get();
+
     private final OneDriveSession session;
     private final Find finder;
     private final AttributesFinder attributes;
@@ -58,36 +97,7 @@ public class OneDriveBufferWriteFeature implements MultipartWrite<Void> {
 
     @Override
     public HttpResponseOutputStream<Void> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final FileBuffer buffer = new FileBuffer();
-        return new HttpResponseOutputStream<Void>(new BufferOutputStream(buffer) {
-            @Override
-            public void flush() throws IOException {
-                //
-            }
-
-            @Override
-            public void close() throws IOException {
-                try {
-                    // Reset offset in transfer status because data was already streamed
-                    // through StreamCopier when writing to buffer
-                    final TransferStatus range = new TransferStatus(status).length(buffer.length()).append(false);
-                    if(0L == buffer.length()) {
-                        new OneDriveTouchFeature(session).touch(file, new TransferStatus());
-                    }
-                    else {
-                        final HttpResponseOutputStream<Void> out = new OneDriveWriteFeature(session).write(file,
-                            range, callback);
-                        IOUtils.copy(new BufferInputStream(buffer), out);
-                        out.close();
-                        log.info(String.format("Completed upload for %s with status %s", file, range));
-                    }
-                    super.close();
-                }
-                catch(BackgroundException e) {
-                    throw new IOException(e);
-                }
-            }
-        }) {
+        return new HttpResponseOutputStream<Void>(new FragmentOutputStream(file, status)) {
             @Override
             public Void getStatus() throws BackgroundException {
                 return null;
@@ -118,4 +128,241 @@ public class OneDriveBufferWriteFeature implements MultipartWrite<Void> {
     public ChecksumCompute checksum(final Path file) {
         return new DisabledChecksumCompute();
     }
+
+    /**
+     * Upload fragments of fixed size in the background while the next fragment is written. Fragments of an upload
+     * session must be sent in order and are therefore uploaded one after another by a single thread. The last
+     * fragment is kept until the stream is closed to declare the total size when the length is not known upfront.
+     */
+    private final class FragmentOutputStream extends OutputStream {
+        private final Path file;
+        private final TransferStatus status;
+        /**
+         * Maximum number of fragments waiting to be uploaded
+         */
+        private final int queue;
+        private final Deque<Future<Void>> pending = new ArrayDeque<Future<Void>>();
+        private final AtomicBoolean close = new AtomicBoolean();
+
+        private byte[] buffer;
+        private int position;
+        /**
+         * Number of bytes submitted for upload
+         */
+        private long offset;
+
+        private OneDriveUploadSession upload;
+        private ThreadPool pool;
+        private volatile boolean failed;
+
+        public FragmentOutputStream(final Path file, final TransferStatus status) {
+            this.file = file;
+            this.status = status;
+            // Fragment size must be a multiple of 320 KiB
+            this.buffer = new byte[Math.max(1, preferences.getInteger("onedrive.upload.multipart.partsize") / FRAGMENT_SIZE_MULTIPLE) * FRAGMENT_SIZE_MULTIPLE];
+            this.queue = Math.max(1, preferences.getInteger("onedrive.upload.multipart.queue"));
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            int written = 0;
+            while(written < len) {
+                if(position == buffer.length) {
+                    // More data follows full buffer
+                    this.submit(false);
+                }
+                final int n = Math.min(len - written, buffer.length - position);
+                System.arraycopy(b, off + written, buffer, position, n);
+                position += n;
+                written += n;
+            }
+        }
+
+        private void submit(final boolean last) throws IOException {
+            if(failed) {
+                throw new IOException(String.format("Upload of fragment for %s failed", file));
+            }
+            if(null == upload) {
+                upload = session.toFile(file).createUploadSession();
+                pool = new DefaultThreadPool("onedrive", 1);
+            }
+            while(pending.size() >= queue) {
+                this.await(pending.removeFirst());
+            }
+            final byte[] content = position == buffer.length ? buffer : Arrays.copyOf(buffer, position);
+            final HttpRange range = HttpRange.byLength(offset, content.length);
+            final String length;
+            if(last) {
+                length = String.valueOf(offset + content.length);
+            }
+            else if(status.getLength() == -1L) {
+                length = "*";
+            }
+            else {
+                length = String.valueOf(status.getLength());
+            }
+            final DefaultRetryCallable<Void> retry = new DefaultRetryCallable<Void>(new BackgroundExceptionCallable<Void>() {
+                private boolean attempted;
+
+                @Override
+                public Void call() throws BackgroundException {
+                    if(failed) {
+                        throw new ConnectionCanceledException();
+                    }
+                    long start = range.getStart();
+                    if(attempted) {
+                        // The range may have been accepted by the server when only the response was lost
+                        start = FragmentOutputStream.this.expected();
+                        if(start > range.getEnd()) {
+                            log.warn(String.format("Skip fragment %d-%d already received for %s", range.getStart(), range.getEnd(), file));
+                            return null;
+                        }
+                        if(start < range.getStart()) {
+                            throw new InteroperabilityException(String.format("Unexpected range %d- for upload session %s", start, upload));
+                        }
+                    }
+                    attempted = true;
+                    final String header = String.format("%d-%d/%s", start, range.getEnd(), length);
+                    try {
+                        if(upload.uploadFragment(header, Arrays.copyOfRange(content, (int) (start - range.getStart()), content.length))
+                            instanceof OneDriveFile.Metadata) {
+                            log.info(String.format("Completed upload for %s", file));
+                        }
+                        else {
+                            log.debug(String.format("Uploaded fragment %s for file %s", header, file));
+                        }
+                        return null;
+                    }
+                    catch(OneDriveAPIException e) {
+                        throw new OneDriveExceptionMappingService().map("Upload {0} failed", e, file);
+                    }
+                    catch(IOException e) {
+                        throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
+                    }
+                }
+            }, status);
+            pending.add(pool.execute(new BackgroundExceptionCallable<Void>() {
+                @Override
+                public Void call() throws BackgroundException {
+                    try {
+                        return retry.call();
+                    }
+                    catch(BackgroundException e) {
+                        // Fail fragments queued after this one without waiting for the writer
+                        failed = true;
+                        throw e;
+                    }
+                }
+            }));
+            offset += content.length;
+            // Buffer is handed over to upload
+            buffer = new byte[buffer.length];
+            position = 0;
+        }
+
+        /**
+         * Query the upload session with a plain request for the ranges still missing
+         *
+         * @return Offset of the first byte not yet received by the server or Long.MAX_VALUE if all ranges are received
+         */
+        private long expected() throws BackgroundException {
+            final HttpGet request = new HttpGet(upload.getUploadUrl().toString());
+            try {
+                final HttpResponse response = ((OneDriveCommonsHttpRequestExecutor) session.getClient().getExecutor()).getClient().execute(request);
+                try {
+                    if(response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+                        throw new HttpResponseException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase());
+                    }
+                    final JsonObject json = new JsonParser().parse(new InputStreamReader(response.getEntity().getContent(),
+                        StandardCharsets.UTF_8)).getAsJsonObject();
+                    final JsonArray ranges = json.getAsJsonArray("nextExpectedRanges");
+                    if(null == ranges || ranges.size() == 0) {
+                        // All ranges received
+                        return Long.MAX_VALUE;
+                    }
+                    // Ranges are formatted as start-end with end optional
+                    return Long.parseLong(StringUtils.substringBefore(ranges.get(0).getAsString(), "-"));
+                }
+                finally {
+                    EntityUtils.consume(response.getEntity());
+                }
+            }
+            catch(HttpResponseException e) {
+                throw new HttpResponseExceptionMappingService().map("Upload {0} failed", e, file);
+            }
+            catch(IOException e) {
+                throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
+            }
+            catch(JsonParseException | IllegalStateException | NumberFormatException e) {
+                throw new InteroperabilityException(e.getMessage(), e);
+            }
+        }
+
+        private void await(final Future<Void> fragment) throws IOException {
+            try {
+                fragment.get();
+            }
+            catch(InterruptedException e) {
+                failed = true;
+                throw new IOException(new ConnectionCanceledException(e));
+            }
+            catch(ExecutionException e) {
+                failed = true;
+                if(e.getCause() instanceof BackgroundException) {
+                    throw new IOException(e.getCause());
+                }
+                throw new IOException(new DefaultExceptionMappingService().map(e.getCause()));
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Only fragments of fixed size are uploaded
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if(close.get()) {
+                    log.warn(String.format("Skip double close of stream %s", this));
+                    return;
+                }
+                if(0L == offset && 0 == position) {
+                    // Use touch feature for empty file upload
+                    new OneDriveTouchFeature(session).touch(file, new TransferStatus());
+                    return;
+                }
+                this.submit(true);
+                while(!pending.isEmpty()) {
+                    this.await(pending.removeFirst());
+                }
+            }
+            catch(IOException e) {
+                if(upload != null) {
+                    log.warn(String.format("Abort upload session %s after failure %s", upload, e.getMessage()));
+                    try {
+                        upload.cancelUpload();
+                    }
+                    catch(IOException f) {
+                        log.warn(String.format("Failure canceling upload session %s. %s", upload, f.getMessage()));
+                    }
+                }
+                throw e;
+            }
+            catch(BackgroundException e) {
+                throw new IOException(e);
+            }
+            finally {
+                close.set(true);
+                if(pool != null) {
+                    pool.shutdown(false);
+                }
+            }
+        }
+    }
 }
@@ -137,6 +137,29 @@ public class OneDriveBufferWriteFeatureTest extends AbstractOneDriveTest {
         new OneDriveDeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
 
+    @Test
+    public void testWriteUnknownLengthMultipleFragments() throws Exception {
+        final OneDriveBufferWriteFeature feature = new OneDriveBufferWriteFeature(session);
+        final Path container = new OneDriveHomeFinderFeature(session).find();
+        final byte[] content = RandomUtils.nextBytes(25 * 1024 * 1024 + 1);
+        final TransferStatus status = new TransferStatus();
+        status.setLength(-1L);
+        final Path file = new Path(container, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        final HttpResponseOutputStream<Void> out = feature.write(file, status, new DisabledConnectionCallback());
+        final ByteArrayInputStream in = new ByteArrayInputStream(content);
+        new StreamCopier(status, status).transfer(in, out);
+        in.close();
+        out.close();
+        assertNull(out.getStatus());
+        assertTrue(new DefaultFindFeature(session).find(file));
+        final byte[] compare = new byte[content.length];
+        final InputStream stream = new OneDriveReadFeature(session).read(file, new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        IOUtils.readFully(stream, compare);
+        stream.close();
+        assertArrayEquals(content, compare);
+        new OneDriveDeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
     @Test
     public void testWriteZeroLength() throws Exception {
         final OneDriveBufferWriteFeature feature = new OneDriveBufferWriteFeature(session);
@@ -37,7 +37,7 @@ import java.util.Map;
 import ch.iterate.openstack.swift.exception.GenericException;
 import ch.iterate.openstack.swift.model.Region;
 
-public class SwiftMultipleDeleteFeature implements Delete {
+public class SwiftMultipleDeleteFeature implements Delete, Delete.Batch {
 
     private final SwiftSession session;
 
@@ -125,6 +125,11 @@ public class SwiftMultipleDeleteFeature implements Delete {
         }
     }
 
+    @Override
+    public int getPartition() {
+        return PreferencesFactory.get().getInteger("openstack.delete.multiple.partition");
+    }
+
     @Override
     public boolean isSupported(final Path file) {
         return true;
@@ -1756,7 +1756,7 @@ public class BrowserController extends WindowController
                                     if(returncode == DEFAULT_OPTION) {
                                         // Delay render until path is cached in the background
                                         background(new WorkerBackgroundAction<AttributedList<Path>>(BrowserController.this, pool,
-                                                new SearchWorker(workdir, filenameFilter, cache, listener) {
+                                                new SearchWorker(workdir, filenameFilter, pool, cache, listener) {
                                                     @Override
                                                     public void cleanup(final AttributedList<Path> list) {
                                                         super.cleanup(list);
@@ -31,10 +31,14 @@ import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.MD5ChecksumCompute;
+import ch.cyberduck.core.io.SHA256ChecksumCompute;
 import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
+import ch.cyberduck.core.io.TreeChecksumCompute;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
@@ -259,9 +263,7 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                 status.setNonces(overall.getNonces());
                 switch(session.getSignatureVersion()) {
                     case AWS4HMACSHA256:
-                        status.setChecksum(writer.checksum(file)
-                                .compute(StreamCopier.skip(new BoundedInputStream(local.getInputStream(), offset + length), offset), status)
-                        );
+                        status.setChecksum(checksum(file, local, offset, length, status));
                         break;
                 }
                 status.setSegment(true);
@@ -292,6 +294,23 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
         }, overall));
     }
 
+    /**
+     * Compute SHA-256 digest of part required for signing request from region of file. Computed
+     * with the part upload so that uploads start as soon as their own digest is available.
+     */
+    private Checksum checksum(final Path file, final Local local, final long offset, final long length, final TransferStatus status) throws BackgroundException {
+        if(writer.checksum(file) instanceof SHA256ChecksumCompute) {
+            try {
+                return new TreeChecksumCompute().compute(local, HashAlgorithm.sha256, offset, length);
+            }
+            catch(ChecksumException e) {
+                log.warn(String.format("Failure computing checksum of part for %s. %s", local, e.getDetail()));
+            }
+        }
+        return writer.checksum(file)
+                .compute(StreamCopier.skip(new BoundedInputStream(local.getInputStream(), offset + length), offset), status);
+    }
+
     @Override
     public Upload<StorageObject> withWriter(final Write<StorageObject> writer) {
         this.writer = writer;
@@ -25,6 +25,8 @@ import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.DefaultThreadPool;
+import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.lang3.StringUtils;
@@ -38,6 +40,7 @@ import org.jets3t.service.model.S3Object;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -45,7 +48,12 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPart>> {
     private static final Logger log = Logger.getLogger(S3MultipartWriteFeature.class);
@@ -87,9 +95,20 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
         catch(ServiceException e) {
             throw new S3ExceptionMappingService().map("Upload {0} failed", e, file);
         }
+        final int partsize = preferences.getInteger("s3.upload.multipart.partsize.minimum");
+        final int concurrency = preferences.getInteger("s3.upload.multipart.concurrency");
+        if(preferences.getBoolean("s3.upload.multipart.pipeline") && concurrency > 1) {
+            // Segments written to ring of part buffers
+            final PipelinedMultipartOutputStream proxy = new PipelinedMultipartOutputStream(multipart, file, status, partsize, concurrency);
+            return new HttpResponseOutputStream<List<MultipartPart>>(proxy) {
+                @Override
+                public List<MultipartPart> getStatus() throws BackgroundException {
+                    return proxy.getCompleted();
+                }
+            };
+        }
         final MultipartOutputStream proxy = new MultipartOutputStream(multipart, file, status);
-        return new HttpResponseOutputStream<List<MultipartPart>>(new MemorySegementingOutputStream(proxy,
-            preferences.getInteger("s3.upload.multipart.partsize.minimum"))) {
+        return new HttpResponseOutputStream<List<MultipartPart>>(new MemorySegementingOutputStream(proxy, partsize)) {
             @Override
             public List<MultipartPart> getStatus() throws BackgroundException {
                 return proxy.getCompleted();
@@ -116,17 +135,17 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
         return false;
     }
 
-    private final class MultipartOutputStream extends OutputStream {
+    private class MultipartOutputStream extends OutputStream {
         /**
          * Completed parts
          */
-        private final List<MultipartPart> completed
+        protected final List<MultipartPart> completed
             = new ArrayList<MultipartPart>();
 
-        private final MultipartUpload multipart;
-        private final Path file;
-        private final TransferStatus overall;
-        private final AtomicBoolean close = new AtomicBoolean();
+        protected final MultipartUpload multipart;
+        protected final Path file;
+        protected final TransferStatus overall;
+        protected final AtomicBoolean close = new AtomicBoolean();
         private int partNumber;
 
         public MultipartOutputStream(final MultipartUpload multipart, final Path file, final TransferStatus status) {
@@ -147,46 +166,55 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
         @Override
         public void write(final byte[] content, final int off, final int len) throws IOException {
             try {
-                completed.add(new DefaultRetryCallable<MultipartPart>(new BackgroundExceptionCallable<MultipartPart>() {
-                    @Override
-                    public MultipartPart call() throws BackgroundException {
-                        final Map<String, String> parameters = new HashMap<String, String>();
-                        parameters.put("uploadId", multipart.getUploadId());
-                        parameters.put("partNumber", String.valueOf(++partNumber));
-                        final TransferStatus status = new TransferStatus().withParameters(parameters).length(len);
-                        switch(session.getSignatureVersion()) {
-                            case AWS4HMACSHA256:
-                                status.setChecksum(ChecksumComputeFactory.get(HashAlgorithm.sha256)
-                                    .compute(new ByteArrayInputStream(content, off, len), status)
-                                );
-                                break;
-                        }
-                        status.setSegment(true);
-                        final S3Object part = new S3WriteFeature(session, new S3DisabledMultipartService())
-                            .getDetails(containerService.getKey(file), status);
-                        try {
-                            session.getClient().putObjectWithRequestEntityImpl(
-                                containerService.getContainer(file).getName(), part,
-                                new ByteArrayEntity(content, off, len), parameters);
-                        }
-                        catch(ServiceException e) {
-                            throw new S3ExceptionMappingService().map("Upload {0} failed", e, file);
-                        }
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Saved object %s with checksum %s", file, part.getETag()));
-                        }
-                        return new MultipartPart(partNumber,
-                            null == part.getLastModifiedDate() ? new Date(System.currentTimeMillis()) : part.getLastModifiedDate(),
-                            null == part.getETag() ? StringUtils.EMPTY : part.getETag(),
-                            part.getContentLength());
-                    }
-                }, overall).call());
+                completed.add(this.upload(++partNumber, content, off, len));
             }
             catch(BackgroundException e) {
                 throw new IOException(e.getMessage(), e);
             }
         }
 
+        /**
+         * Upload part with retry
+         *
+         * @param partNumber Part number starting at 1
+         */
+        protected MultipartPart upload(final int partNumber, final byte[] content, final int off, final int len) throws BackgroundException {
+            return new DefaultRetryCallable<MultipartPart>(new BackgroundExceptionCallable<MultipartPart>() {
+                @Override
+                public MultipartPart call() throws BackgroundException {
+                    final Map<String, String> parameters = new HashMap<String, String>();
+                    parameters.put("uploadId", multipart.getUploadId());
+                    parameters.put("partNumber", String.valueOf(partNumber));
+                    final TransferStatus status = new TransferStatus().withParameters(parameters).length(len);
+                    switch(session.getSignatureVersion()) {
+                        case AWS4HMACSHA256:
+                            status.setChecksum(ChecksumComputeFactory.get(HashAlgorithm.sha256)
+                                .compute(new ByteArrayInputStream(content, off, len), status)
+                            );
+                            break;
+                    }
+                    status.setSegment(true);
+                    final S3Object part = new S3WriteFeature(session, new S3DisabledMultipartService())
+                        .getDetails(containerService.getKey(file), status);
+                    try {
+                        session.getClient().putObjectWithRequestEntityImpl(
+                            containerService.getContainer(file).getName(), part,
+                            new ByteArrayEntity(content, off, len), parameters);
+                    }
+                    catch(ServiceException e) {
+                        throw new S3ExceptionMappingService().map("Upload {0} failed", e, file);
+                    }
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Saved object %s with checksum %s", file, part.getETag()));
+                    }
+                    return new MultipartPart(partNumber,
+                        null == part.getLastModifiedDate() ? new Date(System.currentTimeMillis()) : part.getLastModifiedDate(),
+                        null == part.getETag() ? StringUtils.EMPTY : part.getETag(),
+                        part.getContentLength());
+                }
+            }, overall).call();
+        }
+
         @Override
         public void close() throws IOException {
             try {
@@ -256,6 +284,183 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
         }
     }
 
+    /**
+     * Upload parts concurrently while the next part is written. Parts are copied to a fixed number of reusable
+     * buffers and writing blocks until a buffer is available, limiting memory to the number of buffers times
+     * the part size.
+     */
+    private final class PipelinedMultipartOutputStream extends MultipartOutputStream {
+        private final int partsize;
+        private final int concurrency;
+
+        /**
+         * Buffers available for reuse
+         */
+        private final BlockingQueue<byte[]> buffers;
+        private final ThreadPool pool;
+        private final List<Future<MultipartPart>> parts
+            = new ArrayList<Future<MultipartPart>>();
+        private final AtomicReference<BackgroundException> failure
+            = new AtomicReference<BackgroundException>();
+
+        private int allocated;
+        private int partNumber;
+        private byte[] buffer;
+        private int position;
+
+        public PipelinedMultipartOutputStream(final MultipartUpload multipart, final Path file, final TransferStatus status,
+                                              final int partsize, final int concurrency) {
+            super(multipart, file, status);
+            this.partsize = partsize;
+            this.concurrency = concurrency;
+            this.buffers = new ArrayBlockingQueue<byte[]>(concurrency);
+            this.pool = new DefaultThreadPool("multipart", concurrency);
+        }
+
+        @Override
+        public void write(final byte[] content, final int off, final int len) throws IOException {
+            int offset = off;
+            int remaining = len;
+            while(remaining > 0) {
+                if(null == buffer) {
+                    buffer = this.acquire();
+                    position = 0;
+                }
+                final int length = Math.min(remaining, partsize - position);
+                System.arraycopy(content, offset, buffer, position, length);
+                position += length;
+                offset += length;
+                remaining -= length;
+                if(position == partsize) {
+                    this.submit();
+                }
+            }
+        }
+
+        /**
+         * Wait for a buffer to be returned if all buffers are in use
+         */
+        private byte[] acquire() throws IOException {
+            this.verify();
+            final byte[] free = buffers.poll();
+            if(free != null) {
+                return free;
+            }
+            if(allocated < concurrency) {
+                allocated++;
+                return new byte[partsize];
+            }
+            try {
+                return buffers.take();
+            }
+            catch(InterruptedException e) {
+                throw new InterruptedIOException(e.getMessage());
+            }
+        }
+
+        private void submit() throws IOException {
+            this.verify();
+            final byte[] content = buffer;
+            final int length = position;
+            final int number = ++partNumber;
+            buffer = null;
+            position = 0;
+            parts.add(pool.execute(new BackgroundExceptionCallable<MultipartPart>() {
+                @Override
+                public MultipartPart call() throws BackgroundException {
+                    try {
+                        return PipelinedMultipartOutputStream.this.upload(number, content, 0, length);
+                    }
+                    catch(BackgroundException e) {
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    }
+                    finally {
+                        // Return buffer for reuse
+                        buffers.offer(content);
+                    }
+                }
+            }));
+        }
+
+        /**
+         * Fail early when upload of a previous part failed
+         */
+        private void verify() throws IOException {
+            final BackgroundException e = failure.get();
+            if(e != null) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Cancel parts not yet started and wait for parts in progress before aborting the multipart upload. Parts
+         * still uploading after the abort would otherwise be kept by the server.
+         */
+        private void abort() {
+            close.set(true);
+            for(Future<MultipartPart> part : parts) {
+                part.cancel(false);
+            }
+            for(Future<MultipartPart> part : parts) {
+                if(part.isCancelled()) {
+                    continue;
+                }
+                try {
+                    part.get();
+                }
+                catch(InterruptedException e) {
+                    log.warn(String.format("Interrupted waiting for part of multipart upload %s", multipart));
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Failure uploading part of multipart upload %s. %s", multipart, e.getCause().getMessage()));
+                }
+            }
+            try {
+                log.warn(String.format("Abort multipart upload %s after failure", multipart));
+                session.getClient().multipartAbortUpload(multipart);
+            }
+            catch(ServiceException e) {
+                log.warn(String.format("Failure aborting multipart upload %s. %s", multipart, e.getErrorMessage()));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(close.get()) {
+                log.warn(String.format("Skip double close of stream %s", this));
+                return;
+            }
+            try {
+                if(position > 0) {
+                    this.submit();
+                }
+                // Preserve order of parts
+                for(Future<MultipartPart> part : parts) {
+                    completed.add(part.get());
+                }
+            }
+            catch(InterruptedException e) {
+                this.abort();
+                throw new InterruptedIOException(e.getMessage());
+            }
+            catch(ExecutionException e) {
+                this.abort();
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            }
+            catch(IOException e) {
+                this.abort();
+                throw e;
+            }
+            finally {
+                pool.shutdown(false);
+            }
+            super.close();
+        }
+    }
+
     @Override
     public ChecksumCompute checksum(final Path file) {
         return new DisabledChecksumCompute();
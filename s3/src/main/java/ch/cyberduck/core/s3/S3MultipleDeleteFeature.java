@@ -43,7 +43,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class S3MultipleDeleteFeature implements Delete {
+public class S3MultipleDeleteFeature implements Delete, Delete.Batch {
     private static final Logger log = Logger.getLogger(S3MultipleDeleteFeature.class);
 
     private final S3Session session;
@@ -179,6 +179,11 @@ public class S3MultipleDeleteFeature implements Delete {
         }
     }
 
+    @Override
+    public int getPartition() {
+        return PreferencesFactory.get().getInteger("s3.delete.multiple.partition");
+    }
+
     @Override
     public boolean isSupported(final Path file) {
         return true;
@@ -20,6 +20,7 @@ package ch.cyberduck.core.s3;
 
 import ch.cyberduck.core.AbstractPath;
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
@@ -28,8 +29,13 @@ import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -37,7 +43,16 @@ import org.jets3t.service.ServiceException;
 import org.jets3t.service.StorageObjectsChunk;
 import org.jets3t.service.model.StorageObject;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class S3ObjectListService implements ListService {
     private static final Logger log = Logger.getLogger(S3ObjectListService.class);
@@ -52,6 +67,12 @@ public class S3ObjectListService implements ListService {
 
     private final S3AttributesFinderFeature attributes;
 
+    /**
+     * Shared by all listings of key ranges
+     */
+    private static final ThreadPool pool = ThreadPoolFactory.get("listing",
+            Math.max(1, PreferencesFactory.get().getInteger("s3.listing.concurrency")));
+
     public S3ObjectListService(final S3Session session) {
         this.session = session;
         this.attributes = new S3AttributesFinderFeature(session);
@@ -63,6 +84,14 @@ public class S3ObjectListService implements ListService {
     }
 
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener, final String delimiter, final int chunksize) throws BackgroundException {
+        return this.list(directory, listener, delimiter, chunksize, preferences.getInteger("s3.listing.concurrency"));
+    }
+
+    /**
+     * @param concurrency Number of key ranges listed in parallel for recursive listings without delimiter
+     */
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener, final String delimiter, final int chunksize,
+                                     final int concurrency) throws BackgroundException {
         try {
             final String prefix = this.createPrefix(directory);
             // If this optional, Unicode string parameter is included with your request,
@@ -71,72 +100,280 @@ public class S3ObjectListService implements ListService {
             // element in the CommonPrefixes collection. These rolled-up keys are
             // not returned elsewhere in the response.
             final Path bucket = containerService.getContainer(directory);
+            if(null == delimiter && concurrency > 1) {
+                return this.list(bucket, directory, prefix, chunksize, concurrency, listener);
+            }
             final AttributedList<Path> children = new AttributedList<Path>();
-            // Null if listing is complete
-            String priorLastKey = null;
-            do {
-                // Read directory listing in chunks. List results are always returned
-                // in lexicographic (alphabetical) order.
-                final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
-                        PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, delimiter,
-                        chunksize, priorLastKey);
-
-                final StorageObject[] objects = chunk.getObjects();
-                for(StorageObject object : objects) {
-                    final String key = PathNormalizer.normalize(object.getKey());
-                    if(String.valueOf(Path.DELIMITER).equals(key)) {
-                        log.warn(String.format("Skipping prefix %s", key));
-                        continue;
-                    }
-                    if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
-                        continue;
-                    }
-                    final EnumSet<AbstractPath.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
-                            ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
-                    final Path file;
-                    final PathAttributes attributes = this.attributes.convert(object);
-                    // Copy bucket location
-                    attributes.setRegion(bucket.attributes().getRegion());
-                    if(null == delimiter) {
-                        file = new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), types, attributes);
-                    }
-                    else {
-                        file = new Path(directory, PathNormalizer.name(key), types, attributes);
+            this.list(bucket, directory, prefix, delimiter, chunksize, null, null, children, listener);
+            return children;
+        }
+        catch(ServiceException e) {
+            throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    /**
+     * Split keyspace into ranges listed concurrently. Results are merged in lexicographic order of ranges.
+     */
+    private AttributedList<Path> list(final Path bucket, final Path directory, final String prefix, final int chunksize,
+                                      final int concurrency, final ListProgressListener listener) throws ServiceException, BackgroundException {
+        final List<String> boundaries = this.partition(bucket, prefix, chunksize, concurrency);
+        if(boundaries.isEmpty()) {
+            final AttributedList<Path> children = new AttributedList<Path>();
+            this.list(bucket, directory, prefix, null, chunksize, null, null, children, listener);
+            return children;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("List %d key ranges of %s with boundaries %s", boundaries.size() + 1, directory, boundaries));
+        }
+        final AtomicBoolean canceled = new AtomicBoolean();
+        final Merge merge = new Merge(directory, boundaries.size() + 1, canceled, listener);
+        final List<Future<AttributedList<Path>>> ranges = new ArrayList<Future<AttributedList<Path>>>();
+        try {
+            for(int i = 0; i <= boundaries.size(); i++) {
+                final int index = i;
+                // Range includes keys after start up to and including end
+                final String start = i == 0 ? null : boundaries.get(i - 1);
+                final String end = i == boundaries.size() ? null : boundaries.get(i);
+                ranges.add(pool.execute(new BackgroundExceptionCallable<AttributedList<Path>>() {
+                    @Override
+                    public AttributedList<Path> call() throws BackgroundException {
+                        final AttributedList<Path> range = new AttributedList<Path>();
+                        try {
+                            S3ObjectListService.this.list(bucket, directory, prefix, null, chunksize, start, end, range,
+                                    new DisabledListProgressListener() {
+                                        @Override
+                                        public void chunk(final Path folder, final AttributedList<Path> list) throws ListCanceledException {
+                                            merge.chunk(index, list, false);
+                                        }
+                                    });
+                        }
+                        catch(ServiceException e) {
+                            throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+                        }
+                        merge.chunk(index, range, true);
+                        return range;
                     }
-                    children.add(file);
+                }));
+            }
+            try {
+                for(Future<AttributedList<Path>> range : ranges) {
+                    range.get();
                 }
-                final String[] prefixes = chunk.getCommonPrefixes();
-                for(String common : prefixes) {
-                    if(String.valueOf(Path.DELIMITER).equals(common)) {
-                        log.warn(String.format("Skipping prefix %s", common));
-                        continue;
-                    }
-                    final String key = PathNormalizer.normalize(common);
-                    if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
-                        continue;
-                    }
-                    final Path file;
-                    final PathAttributes attributes = new PathAttributes();
-                    if(null == delimiter) {
-                        file = new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
-                    }
-                    else {
-                        file = new Path(directory, PathNormalizer.name(key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
-                    }
-                    attributes.setRegion(bucket.attributes().getRegion());
-                    children.add(file);
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
                 }
-                priorLastKey = chunk.getPriorLastKey();
-                listener.chunk(directory, children);
+                throw new BackgroundException(e.getCause());
             }
-            while(priorLastKey != null);
-            return children;
+            return merge.children;
         }
-        catch(ServiceException e) {
-            throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        finally {
+            // Cancel range listings in progress
+            canceled.set(true);
+            for(Future<AttributedList<Path>> range : ranges) {
+                range.cancel(false);
+            }
         }
     }
 
+    /**
+     * Append listings of key ranges in order and forward to listener as soon as all preceding ranges are complete.
+     * Range listings are canceled when the listener is canceled.
+     */
+    private static final class Merge {
+        private final Path directory;
+        private final AtomicBoolean canceled;
+        private final ListProgressListener listener;
+
+        private final AttributedList<Path> children
+                = new AttributedList<Path>();
+
+        /**
+         * Files of ranges waiting for preceding ranges to complete
+         */
+        private final List<List<Path>> pending;
+        /**
+         * Number of files taken from listing by range
+         */
+        private final int[] taken;
+        private final boolean[] complete;
+        /**
+         * First range not complete
+         */
+        private int head;
+
+        public Merge(final Path directory, final int ranges, final AtomicBoolean canceled, final ListProgressListener listener) {
+            this.directory = directory;
+            this.canceled = canceled;
+            this.listener = listener;
+            this.pending = new ArrayList<List<Path>>(ranges);
+            for(int i = 0; i < ranges; i++) {
+                pending.add(new ArrayList<Path>());
+            }
+            this.taken = new int[ranges];
+            this.complete = new boolean[ranges];
+        }
+
+        /**
+         * @param index Range
+         * @param list  Files listed so far in range
+         * @param done  Range listing complete
+         */
+        public synchronized void chunk(final int index, final AttributedList<Path> list, final boolean done) throws ListCanceledException {
+            if(canceled.get()) {
+                throw new ListCanceledException(list);
+            }
+            final List<Path> added = new ArrayList<Path>();
+            for(int i = taken[index]; i < list.size(); i++) {
+                added.add(list.get(i));
+            }
+            taken[index] += added.size();
+            boolean forward = false;
+            if(index == head) {
+                children.addAll(added);
+                forward = !added.isEmpty();
+            }
+            else {
+                pending.get(index).addAll(added);
+            }
+            complete[index] = done;
+            while(head < complete.length && complete[head]) {
+                head++;
+                if(head < complete.length) {
+                    children.addAll(pending.get(head));
+                    pending.get(head).clear();
+                    forward = true;
+                }
+            }
+            if(forward) {
+                try {
+                    listener.chunk(directory, children);
+                }
+                catch(ListCanceledException e) {
+                    canceled.set(true);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Determine keys splitting the keyspace below the prefix using common prefixes of the first chunk and
+     * sampling the first key after evenly distributed characters. Only partitioned if the first chunk is truncated.
+     *
+     * @return Sorted boundary keys or empty to list sequentially
+     */
+    protected List<String> partition(final Path bucket, final String prefix, final int chunksize, final int concurrency) throws ServiceException {
+        final Set<String> boundaries = new TreeSet<String>(new KeyComparator());
+        final String name = PathNormalizer.name(URIEncoder.encode(bucket.getName()));
+        final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(name, prefix, String.valueOf(Path.DELIMITER),
+                chunksize, null);
+        if(null == chunk.getPriorLastKey()) {
+            // Not truncated
+            return Collections.emptyList();
+        }
+        Collections.addAll(boundaries, chunk.getCommonPrefixes());
+        if(boundaries.size() < concurrency) {
+            final String alphabet = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+            for(int i = 1; i < concurrency; i++) {
+                // Start after sampling
+                final StorageObjectsChunk sample = session.getClient().listObjectsChunked(name, prefix, null,
+                        1, prefix + alphabet.charAt(i * alphabet.length() / concurrency));
+                for(StorageObject object : sample.getObjects()) {
+                    boundaries.add(object.getKey());
+                }
+            }
+        }
+        final List<String> keys = new ArrayList<String>(boundaries);
+        // Allow to balance uneven ranges
+        final int maximum = concurrency * 4;
+        if(keys.size() <= maximum) {
+            return keys;
+        }
+        final List<String> reduced = new ArrayList<String>(maximum);
+        for(int i = 1; i <= maximum; i++) {
+            reduced.add(keys.get(i * keys.size() / (maximum + 1)));
+        }
+        return reduced;
+    }
+
+    /**
+     * @param start Only list keys after this key or null
+     * @param end   Stop listing after this key or null
+     */
+    private void list(final Path bucket, final Path directory, final String prefix, final String delimiter, final int chunksize,
+                      final String start, final String end, final AttributedList<Path> children,
+                      final ListProgressListener listener) throws ServiceException, BackgroundException {
+        final KeyComparator comparator = new KeyComparator();
+        // Null if listing is complete
+        String priorLastKey = start;
+        do {
+            // Read directory listing in chunks. List results are always returned
+            // in lexicographic (alphabetical) order.
+            final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
+                    PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, delimiter,
+                    chunksize, priorLastKey);
+            priorLastKey = chunk.getPriorLastKey();
+            final StorageObject[] objects = chunk.getObjects();
+            for(StorageObject object : objects) {
+                if(null != end && comparator.compare(object.getKey(), end) > 0) {
+                    // Reached end of range
+                    priorLastKey = null;
+                    break;
+                }
+                final String key = PathNormalizer.normalize(object.getKey());
+                if(String.valueOf(Path.DELIMITER).equals(key)) {
+                    log.warn(String.format("Skipping prefix %s", key));
+                    continue;
+                }
+                if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+                    continue;
+                }
+                final EnumSet<AbstractPath.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
+                        ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
+                final Path file;
+                final PathAttributes attributes = this.attributes.convert(object);
+                // Copy bucket location
+                attributes.setRegion(bucket.attributes().getRegion());
+                if(null == delimiter) {
+                    file = new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), types, attributes);
+                }
+                else {
+                    file = new Path(directory, PathNormalizer.name(key), types, attributes);
+                }
+                children.add(file);
+            }
+            final String[] prefixes = chunk.getCommonPrefixes();
+            for(String common : prefixes) {
+                if(String.valueOf(Path.DELIMITER).equals(common)) {
+                    log.warn(String.format("Skipping prefix %s", common));
+                    continue;
+                }
+                final String key = PathNormalizer.normalize(common);
+                if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+                    continue;
+                }
+                final Path file;
+                final PathAttributes attributes = new PathAttributes();
+                if(null == delimiter) {
+                    file = new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
+                }
+                else {
+                    file = new Path(directory, PathNormalizer.name(key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
+                }
+                attributes.setRegion(bucket.attributes().getRegion());
+                children.add(file);
+            }
+            listener.chunk(directory, children);
+        }
+        while(priorLastKey != null);
+    }
+
     protected String createPrefix(final Path directory) {
         // Keys can be listed by prefix. By choosing a common prefix
         // for the names of related keys and marking these keys with
@@ -155,4 +392,25 @@ public class S3ObjectListService implements ListService {
         }
         return prefix;
     }
+
+    /**
+     * Order of keys by Unicode code point matching the UTF-8 binary order used by S3
+     */
+    private static final class KeyComparator implements Comparator<String> {
+        @Override
+        public int compare(final String a, final String b) {
+            int i = 0;
+            int j = 0;
+            while(i < a.length() && j < b.length()) {
+                final int x = a.codePointAt(i);
+                final int y = b.codePointAt(j);
+                if(x != y) {
+                    return Integer.compare(x, y);
+                }
+                i += Character.charCount(x);
+                j += Character.charCount(y);
+            }
+            return Integer.compare(a.length() - i, b.length() - j);
+        }
+    }
 }
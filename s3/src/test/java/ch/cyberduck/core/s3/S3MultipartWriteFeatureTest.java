@@ -67,6 +67,42 @@ public class S3MultipartWriteFeatureTest {
         session.close();
     }
 
+    @Test
+    public void testWriteMultipleParts() throws Exception {
+        final S3Session session = new S3Session(
+                new Host(new S3Protocol(), new S3Protocol().getDefaultHostname(),
+                        new Credentials(
+                                System.getProperties().getProperty("s3.key"), System.getProperties().getProperty("s3.secret")
+                        )));
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final S3MultipartWriteFeature feature = new S3MultipartWriteFeature(session);
+        final Path container = new Path("test-eu-central-1-cyberduck", EnumSet.of(Path.Type.volume));
+        final TransferStatus status = new TransferStatus();
+        status.setLength(-1L);
+        final Path file = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final HttpResponseOutputStream<List<MultipartPart>> out = feature.write(file, status, new DisabledConnectionCallback());
+        final byte[] content = RandomUtils.nextBytes(23 * 1024 * 1024 + 1);
+        final ByteArrayInputStream in = new ByteArrayInputStream(content);
+        final TransferStatus progress = new TransferStatus();
+        new StreamCopier(new TransferStatus(), progress).transfer(in, out);
+        assertEquals(content.length, progress.getOffset());
+        in.close();
+        out.close();
+        final List<MultipartPart> parts = out.getStatus();
+        assertEquals(5, parts.size());
+        for(int i = 0; i < parts.size(); i++) {
+            assertEquals(i + 1, parts.get(i).getPartNumber(), 0L);
+        }
+        final byte[] compare = new byte[content.length];
+        final InputStream stream = new S3ReadFeature(session).read(file, new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        IOUtils.readFully(stream, compare);
+        stream.close();
+        assertArrayEquals(content, compare);
+        new S3DefaultDeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
     @Test
     public void testWriteZeroLength() throws Exception {
         final S3Session session = new S3Session(
@@ -30,6 +30,7 @@ import ch.cyberduck.core.Host;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -46,10 +47,12 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -98,6 +101,69 @@ public class S3ObjectListServiceTest {
         session.close();
     }
 
+    @Test
+    public void testListRecursiveParallel() throws Exception {
+        final S3Session session = new S3Session(
+                new Host(new S3Protocol(), new S3Protocol().getDefaultHostname(),
+                        new Credentials(
+                                System.getProperties().getProperty("s3.key"), System.getProperties().getProperty("s3.secret")
+                        )));
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path bucket = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path directory = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(new Path(bucket, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final List<Path> files = new ArrayList<Path>();
+        for(String name : new String[]{"a", "b/c", "b/d", "0", "Z", "z/1"}) {
+            files.add(new S3TouchFeature(session).touch(new Path(directory, name, EnumSet.of(Path.Type.file)), new TransferStatus()));
+        }
+        final AttributedList<Path> sequential = new S3ObjectListService(session).list(directory, new DisabledListProgressListener(), null, 2, 1);
+        final AttributedList<Path> parallel = new S3ObjectListService(session).list(directory, new DisabledListProgressListener(), null, 2, 4);
+        assertEquals(files.size(), sequential.size());
+        assertEquals(sequential, parallel);
+        for(Path file : files) {
+            assertTrue(parallel.contains(file));
+        }
+        files.add(directory);
+        new S3DefaultDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
+    @Test
+    public void testListRecursiveParallelCanceled() throws Exception {
+        final S3Session session = new S3Session(
+                new Host(new S3Protocol(), new S3Protocol().getDefaultHostname(),
+                        new Credentials(
+                                System.getProperties().getProperty("s3.key"), System.getProperties().getProperty("s3.secret")
+                        )));
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path bucket = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path directory = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(new Path(bucket, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final List<Path> files = new ArrayList<Path>();
+        for(String name : new String[]{"a", "b/c", "b/d", "0", "Z", "z/1"}) {
+            files.add(new S3TouchFeature(session).touch(new Path(directory, name, EnumSet.of(Path.Type.file)), new TransferStatus()));
+        }
+        final AtomicInteger chunks = new AtomicInteger();
+        try {
+            new S3ObjectListService(session).list(directory, new DisabledListProgressListener() {
+                @Override
+                public void chunk(final Path folder, final AttributedList<Path> list) throws ListCanceledException {
+                    assertEquals(directory, folder);
+                    chunks.incrementAndGet();
+                    throw new ListCanceledException(list);
+                }
+            }, null, 1, 4);
+            fail();
+        }
+        catch(ListCanceledException e) {
+            // Canceled with first chunk
+        }
+        assertEquals(1, chunks.get());
+        files.add(directory);
+        new S3DefaultDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
     @Test
     public void tetsEmptyPlaceholder() throws Exception {
         final S3Session session = new S3Session(
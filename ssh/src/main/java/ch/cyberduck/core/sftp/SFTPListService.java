@@ -18,25 +18,38 @@ package ch.cyberduck.core.sftp;
  */
 
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.unicode.NFCNormalizer;
 
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import net.schmizz.concurrent.Promise;
 import net.schmizz.sshj.sftp.FileMode;
+import net.schmizz.sshj.sftp.PacketType;
 import net.schmizz.sshj.sftp.RemoteDirectory;
 import net.schmizz.sshj.sftp.RemoteResourceFilter;
 import net.schmizz.sshj.sftp.RemoteResourceInfo;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
 import net.schmizz.sshj.sftp.SFTPException;
 
 public class SFTPListService implements ListService {
@@ -48,15 +61,36 @@ public class SFTPListService implements ListService {
 
     private final SFTPAttributesFinderFeature feature;
 
+    /**
+     * Directory listings with symbolic links already resolved
+     */
+    private final Cache<Path> cache;
+
+    /**
+     * Maximum number of symbolic links to resolve with outstanding requests
+     */
+    private final int window;
+
     public SFTPListService(final SFTPSession session) {
+        this(session, PathCache.empty());
+    }
+
+    /**
+     * @param cache Reuse targets of symbolic links from valid cached listing of directory
+     */
+    public SFTPListService(final SFTPSession session, final Cache<Path> cache) {
         this.session = session;
         this.feature = new SFTPAttributesFinderFeature(session);
+        this.cache = cache;
+        this.window = PreferencesFactory.get().getInteger("sftp.listing.symlink.window");
     }
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         try {
             final AttributedList<Path> children = new AttributedList<Path>();
+            final List<Path> pending = new ArrayList<Path>();
+            final Map<String, Path> links = this.index(directory);
             final RemoteDirectory handle = session.sftp().openDir(directory.getAbsolute());
             for(RemoteResourceInfo f : handle.scan(new RemoteResourceFilter() {
                 @Override
@@ -76,12 +110,24 @@ public class SFTPListService implements ListService {
                     type.add(Path.Type.symboliclink);
                 }
                 final Path file = new Path(directory, normalizer.normalize(f.getName()).toString(), type, attributes);
-                if(this.post(file)) {
+                if(file.isSymbolicLink()) {
+                    pending.add(file);
+                    if(pending.size() == window) {
+                        this.resolve(directory, pending, links, children);
+                        pending.clear();
+                        listener.chunk(directory, children);
+                    }
+                }
+                else {
                     children.add(file);
                     listener.chunk(directory, children);
                 }
             }
             handle.close();
+            if(!pending.isEmpty()) {
+                this.resolve(directory, pending, links, children);
+                listener.chunk(directory, children);
+            }
             return children;
         }
         catch(IOException e) {
@@ -89,53 +135,145 @@ public class SFTPListService implements ListService {
         }
     }
 
-    protected boolean post(final Path file) throws BackgroundException {
-        if(file.isSymbolicLink()) {
-            final Path target;
-            Path.Type type;
-            try {
-                final String link = session.sftp().readLink(file.getAbsolute());
-                if(link.startsWith(String.valueOf(Path.DELIMITER))) {
-                    target = new Path(link, EnumSet.of(Path.Type.file));
-                }
-                else {
-                    target = new Path(String.format("%s/%s", file.getParent().getAbsolute(), link),
-                            EnumSet.of(Path.Type.file));
-                }
+    /**
+     * Resolve targets of symbolic links. All READLINK requests are sent before waiting for responses and then all
+     * STAT requests for the targets. Links unchanged in the cached listing of the directory are not resolved again
+     * as long as the cached listing is not invalidated.
+     *
+     * @param directory Parent directory
+     * @param files     Symbolic links in directory
+     * @param links     Resolved symbolic links in cached listing of directory by name
+     * @param children  Add resolved symbolic links
+     */
+    protected void resolve(final Path directory, final List<Path> files, final Map<String, Path> links, final AttributedList<Path> children) throws BackgroundException {
+        final SFTPEngine sftp = session.sftp();
+        final List<Path> lookup = new ArrayList<Path>();
+        for(final Path file : files) {
+            final Path cached = this.find(links, file);
+            if(null == cached) {
+                lookup.add(file);
+            }
+            else {
+                file.setType(cached.getType());
+                file.setSymlinkTarget(cached.getSymlinkTarget());
+                children.add(file);
+            }
+        }
+        if(lookup.isEmpty()) {
+            return;
+        }
+        final List<Path> found = new ArrayList<Path>(lookup.size());
+        final List<Path> targets = new ArrayList<Path>(lookup.size());
+        try {
+            final List<Promise<Response, SFTPException>> requests = new ArrayList<Promise<Response, SFTPException>>(lookup.size());
+            for(Path file : lookup) {
+                requests.add(sftp.request(sftp.newRequest(PacketType.READLINK).putString(file.getAbsolute())));
+            }
+            for(int i = 0; i < lookup.size(); i++) {
+                final Path file = lookup.get(i);
                 try {
-                    if(session.sftp().stat(target.getAbsolute()).getType().equals(FileMode.Type.DIRECTORY)) {
-                        type = Path.Type.directory;
-                    }
-                    else {
-                        type = Path.Type.file;
+                    final Response response = requests.get(i).retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS);
+                    response.ensurePacketTypeIs(PacketType.NAME);
+                    if(response.readUInt32AsInt() != 1) {
+                        throw new SFTPException(String.format("Unexpected data in %s packet", response.getType()));
                     }
-                }
-                catch(SFTPException e) {
-                    final BackgroundException reason = new SFTPExceptionMappingService().map(e);
-                    if(reason instanceof NotfoundException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof AccessDeniedException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof InteroperabilityException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                    final String link = response.readString();
+                    found.add(file);
+                    if(link.startsWith(String.valueOf(Path.DELIMITER))) {
+                        targets.add(new Path(link, EnumSet.of(Path.Type.file)));
                     }
                     else {
-                        log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
-                        throw reason;
+                        targets.add(new Path(String.format("%s/%s", file.getParent().getAbsolute(), link),
+                                EnumSet.of(Path.Type.file)));
                     }
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
+                }
+            }
+        }
+        catch(IOException e) {
+            throw new SFTPExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        final List<Promise<Response, SFTPException>> requests = new ArrayList<Promise<Response, SFTPException>>(targets.size());
+        try {
+            for(Path target : targets) {
+                requests.add(sftp.request(sftp.newRequest(PacketType.STAT).putString(target.getAbsolute())));
+            }
+        }
+        catch(IOException e) {
+            throw new SFTPExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        for(int i = 0; i < found.size(); i++) {
+            final Path file = found.get(i);
+            final Path target = targets.get(i);
+            Path.Type type;
+            try {
+                final Response response = requests.get(i).retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS);
+                response.ensurePacketTypeIs(PacketType.ATTRS);
+                if(response.readFileAttributes().getType().equals(FileMode.Type.DIRECTORY)) {
+                    type = Path.Type.directory;
+                }
+                else {
                     type = Path.Type.file;
                 }
-                file.setType(EnumSet.of(Path.Type.symboliclink, type));
-                target.setType(EnumSet.of(type));
-                file.setSymlinkTarget(target);
+            }
+            catch(SFTPException e) {
+                final BackgroundException reason = new SFTPExceptionMappingService().map(e);
+                if(reason instanceof NotfoundException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof AccessDeniedException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof InteroperabilityException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else {
+                    log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
+                    throw reason;
+                }
+                type = Path.Type.file;
             }
             catch(IOException e) {
                 log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
-                return false;
+                continue;
+            }
+            file.setType(EnumSet.of(Path.Type.symboliclink, type));
+            target.setType(EnumSet.of(type));
+            file.setSymlinkTarget(target);
+            children.add(file);
+        }
+    }
+
+    /**
+     * @return Symbolic links with resolved target in valid cached listing of directory by name
+     */
+    private Map<String, Path> index(final Path directory) {
+        if(!cache.isValid(directory)) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Path> links = new HashMap<String, Path>();
+        for(Path f : cache.get(directory)) {
+            if(f.isSymbolicLink() && null != f.getSymlinkTarget()) {
+                links.put(f.getName(), f);
             }
         }
-        return true;
+        return links;
+    }
+
+    /**
+     * @return Symbolic link resolved in cached listing with same modification date and size
+     */
+    private Path find(final Map<String, Path> links, final Path file) {
+        final Path cached = links.get(file.getName());
+        if(null == cached) {
+            return null;
+        }
+        if(cached.attributes().getModificationDate() != file.attributes().getModificationDate()
+                || cached.attributes().getSize() != file.attributes().getSize()) {
+            return null;
+        }
+        return cached;
     }
-}
\ No newline at end of file
+}
@@ -43,6 +43,7 @@ import ch.cyberduck.core.features.UnixPermission;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.proxy.ProxyFactory;
 import ch.cyberduck.core.proxy.ProxyFinder;
 import ch.cyberduck.core.proxy.ProxySocketFactory;
 import ch.cyberduck.core.sftp.openssh.OpenSSHAgentAuthenticator;
@@ -97,17 +98,34 @@ public class SFTPSession extends Session<SSHClient> {
 
     private final SocketFactory socketFactory;
 
+    private final SSHConnectionMultiplexer multiplexer;
+
+    /**
+     * Connection shared with other sessions or null
+     */
+    private SSHConnectionMultiplexer.Connection shared;
+
+    /**
+     * Server key verified for connection
+     */
+    private PublicKey hostkey;
+
     public SFTPSession(final Host h) {
-        this(h, new ProxySocketFactory(h.getProtocol(), new DefaultTrustManagerHostnameCallback(h)));
+        this(h, ProxyFactory.get());
     }
 
     public SFTPSession(final Host h, final ProxyFinder proxy) {
-        this(h, new ProxySocketFactory(h.getProtocol(), new DefaultTrustManagerHostnameCallback(h), proxy));
+        this(h, new ProxySocketFactory(h.getProtocol(), new DefaultTrustManagerHostnameCallback(h), proxy), proxy);
     }
 
     public SFTPSession(final Host h, final SocketFactory socketFactory) {
+        this(h, socketFactory, ProxyFactory.get());
+    }
+
+    public SFTPSession(final Host h, final SocketFactory socketFactory, final ProxyFinder proxy) {
         super(h);
         this.socketFactory = socketFactory;
+        this.multiplexer = new SSHConnectionMultiplexer(h, proxy);
     }
 
     @Override
@@ -120,6 +138,30 @@ public class SFTPSession extends Session<SSHClient> {
 
     @Override
     public SSHClient connect(final HostKeyCallback key) throws BackgroundException {
+        if(multiplexer.isEnabled()) {
+            final SSHConnectionMultiplexer.Connection connection = multiplexer.lease();
+            if(connection != null) {
+                // Open channel on authenticated connection without key exchange. Server key of the connection
+                // must still be accepted by the caller.
+                final boolean verified;
+                try {
+                    verified = key.verify(HostnameConfiguratorFactory.get(host.getProtocol()).getHostname(host.getHostname()),
+                        host.getPort(), connection.getHostKey());
+                }
+                catch(BackgroundException e) {
+                    multiplexer.release(connection);
+                    throw e;
+                }
+                if(!verified) {
+                    multiplexer.release(connection);
+                    throw new ConnectionCanceledException();
+                }
+                shared = connection;
+                hostkey = connection.getHostKey();
+                algorithms = connection.getAlgorithms();
+                return connection.getClient();
+            }
+        }
         try {
             final DefaultConfig configuration = new DefaultConfig();
             if("zlib".equals(preferences.getProperty("ssh.compression"))) {
@@ -156,7 +198,11 @@ public class SFTPSession extends Session<SSHClient> {
             @Override
             public boolean verify(String hostname, int port, PublicKey publicKey) {
                 try {
-                    return key.verify(hostname, port, publicKey);
+                    if(key.verify(hostname, port, publicKey)) {
+                        hostkey = publicKey;
+                        return true;
+                    }
+                    return false;
                 }
                 catch(ConnectionCanceledException | ChecksumException e) {
                     return false;
@@ -220,6 +266,34 @@ public class SFTPSession extends Session<SSHClient> {
 
     @Override
     public void login(final HostPasswordStore keychain, final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
+        if(client.isAuthenticated()) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Skip authentication for shared connection %s", shared));
+            }
+        }
+        else {
+            this.authenticate(keychain, prompt, cancel);
+            if(multiplexer.isEnabled()) {
+                shared = multiplexer.register(client, hostkey, algorithms);
+            }
+        }
+        try {
+            sftp = new SFTPEngine(client, String.valueOf(Path.DELIMITER)) {
+                @Override
+                public Promise<Response, SFTPException> request(final Request req) throws IOException {
+                    log(Type.request, String.format("%d %s", req.getRequestID(), req.getType()));
+                    return super.request(req);
+                }
+            }.init();
+            final int timeout = preferences.getInteger("connection.timeout.seconds") * 1000;
+            sftp.setTimeoutMs(timeout);
+        }
+        catch(IOException e) {
+            throw new SFTPExceptionMappingService().map(e);
+        }
+    }
+
+    private void authenticate(final HostPasswordStore keychain, final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
         final List<AuthenticationProvider> methods = new ArrayList<AuthenticationProvider>();
         final Credentials credentials = host.getCredentials();
         if(credentials.isAnonymousLogin()) {
@@ -299,20 +373,6 @@ public class SFTPSession extends Session<SSHClient> {
             }
             throw lastFailure;
         }
-        try {
-            sftp = new SFTPEngine(client, String.valueOf(Path.DELIMITER)) {
-                @Override
-                public Promise<Response, SFTPException> request(final Request req) throws IOException {
-                    log(Type.request, String.format("%d %s", req.getRequestID(), req.getType()));
-                    return super.request(req);
-                }
-            }.init();
-            final int timeout = preferences.getInteger("connection.timeout.seconds") * 1000;
-            sftp.setTimeoutMs(timeout);
-        }
-        catch(IOException e) {
-            throw new SFTPExceptionMappingService().map(e);
-        }
     }
 
     public SFTPEngine sftp() throws LoginCanceledException {
@@ -337,6 +397,23 @@ public class SFTPSession extends Session<SSHClient> {
 
     @Override
     public void disconnect() {
+        if(shared != null) {
+            final SSHConnectionMultiplexer.Connection connection = shared;
+            shared = null;
+            if(!multiplexer.release(connection)) {
+                // Connection still in use by other sessions. Only close channel
+                if(sftp != null && sftp.getSubsystem().isOpen()) {
+                    try {
+                        sftp.close();
+                    }
+                    catch(IOException e) {
+                        log.warn(String.format("Ignore failure closing channel %s", e.getMessage()));
+                    }
+                }
+                super.disconnect();
+                return;
+            }
+        }
         try {
             client.close();
         }
@@ -348,7 +425,7 @@ public class SFTPSession extends Session<SSHClient> {
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
-        return new SFTPListService(this).list(directory, listener);
+        return new SFTPListService(this, cache).list(directory, listener);
     }
 
     @Override
@@ -0,0 +1,223 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.proxy.ProxyFactory;
+import ch.cyberduck.core.proxy.ProxyFinder;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import net.schmizz.sshj.SSHClient;
+import net.schmizz.sshj.transport.NegotiatedAlgorithms;
+
+/**
+ * Share authenticated SSH connections between sessions for the same bookmark. Each session opens its own
+ * SFTP subsystem channel on the shared connection instead of a new connection with key exchange and authentication.
+ * Connections are only shared between sessions with the same bookmark, credentials, private key and proxy.
+ */
+public class SSHConnectionMultiplexer {
+    private static final Logger log = Logger.getLogger(SSHConnectionMultiplexer.class);
+
+    /**
+     * Authenticated connections by bookmark identity
+     */
+    private static final Map<String, List<Connection>> connections
+            = new HashMap<String, List<Connection>>();
+
+    private final Host host;
+    private final ProxyFinder proxy;
+
+    /**
+     * Maximum number of channels opened on a single connection
+     */
+    private final int channels;
+
+    /**
+     * Maximum number of connections per bookmark before channels are added to connections already in use
+     */
+    private final int limit;
+
+    public SSHConnectionMultiplexer(final Host host) {
+        this(host, ProxyFactory.get());
+    }
+
+    public SSHConnectionMultiplexer(final Host host, final ProxyFinder proxy) {
+        this(host, proxy, PreferencesFactory.get().getInteger("ssh.multiplex.channels"),
+                PreferencesFactory.get().getInteger("ssh.multiplex.connections"));
+    }
+
+    public SSHConnectionMultiplexer(final Host host, final int channels, final int limit) {
+        this(host, ProxyFactory.get(), channels, limit);
+    }
+
+    public SSHConnectionMultiplexer(final Host host, final ProxyFinder proxy, final int channels, final int limit) {
+        this.host = host;
+        this.proxy = proxy;
+        this.channels = channels;
+        this.limit = limit;
+    }
+
+    public boolean isEnabled() {
+        return channels > 1;
+    }
+
+    /**
+     * @return Identity of bookmark including credentials, private key and proxy used to authenticate the connection
+     */
+    protected String toKey() {
+        final Credentials credentials = host.getCredentials();
+        return String.format("%s %s@%s:%d password=%s identity=%s proxy=%s", host.getUuid(),
+                credentials.getUsername(), host.getHostname(), host.getPort(),
+                StringUtils.isBlank(credentials.getPassword()) ? StringUtils.EMPTY : DigestUtils.sha256Hex(credentials.getPassword()),
+                null == credentials.getIdentity() ? StringUtils.EMPTY : credentials.getIdentity().getAbsolute(),
+                proxy.find(host));
+    }
+
+    /**
+     * @return Authenticated connection with a free channel or null if a new connection should be opened
+     */
+    public Connection lease() {
+        synchronized(connections) {
+            final List<Connection> available = connections.get(this.toKey());
+            if(null == available) {
+                return null;
+            }
+            Connection least = null;
+            for(Iterator<Connection> iter = available.iterator(); iter.hasNext(); ) {
+                final Connection connection = iter.next();
+                if(!connection.client.isConnected()) {
+                    log.warn(String.format("Remove disconnected %s", connection));
+                    iter.remove();
+                    continue;
+                }
+                if(null == least || connection.leases < least.leases) {
+                    least = connection;
+                }
+            }
+            if(null == least) {
+                return null;
+            }
+            if(least.leases < channels || available.size() >= limit) {
+                least.leases++;
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Open channel on shared %s", least));
+                }
+                return least;
+            }
+            // Open additional connection
+            return null;
+        }
+    }
+
+    /**
+     * Share authenticated connection with other sessions
+     *
+     * @param client     Authenticated connection
+     * @param hostkey    Server key verified for the connection
+     * @param algorithms Negotiated algorithms of the connection
+     * @return Connection with a single lease for the caller
+     */
+    public Connection register(final SSHClient client, final PublicKey hostkey, final NegotiatedAlgorithms algorithms) {
+        final Connection connection = new Connection(this.toKey(), client, hostkey, algorithms);
+        synchronized(connections) {
+            List<Connection> available = connections.get(connection.key);
+            if(null == available) {
+                available = new ArrayList<Connection>();
+                connections.put(connection.key, available);
+            }
+            available.add(connection);
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Register %s", connection));
+        }
+        return connection;
+    }
+
+    /**
+     * @param connection Connection leased or registered before
+     * @return True if no other session uses the connection and it should be closed
+     */
+    public boolean release(final Connection connection) {
+        synchronized(connections) {
+            if(--connection.leases > 0) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Release channel on shared %s", connection));
+                }
+                return false;
+            }
+            final List<Connection> available = connections.get(connection.key);
+            if(available != null) {
+                available.remove(connection);
+                if(available.isEmpty()) {
+                    connections.remove(connection.key);
+                }
+            }
+            return true;
+        }
+    }
+
+    public static final class Connection {
+        private final String key;
+        private final SSHClient client;
+        private final PublicKey hostkey;
+        private final NegotiatedAlgorithms algorithms;
+
+        /**
+         * Number of sessions using this connection
+         */
+        private int leases = 1;
+
+        private Connection(final String key, final SSHClient client, final PublicKey hostkey, final NegotiatedAlgorithms algorithms) {
+            this.key = key;
+            this.client = client;
+            this.hostkey = hostkey;
+            this.algorithms = algorithms;
+        }
+
+        public SSHClient getClient() {
+            return client;
+        }
+
+        public PublicKey getHostKey() {
+            return hostkey;
+        }
+
+        public NegotiatedAlgorithms getAlgorithms() {
+            return algorithms;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Connection{");
+            sb.append("key='").append(key).append('\'');
+            sb.append(", leases=").append(leases);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -20,15 +20,18 @@ package ch.cyberduck.core.sftp;
 import ch.cyberduck.core.*;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -89,6 +92,57 @@ public class SFTPListServiceTest {
         new SFTPDeleteFeature(session).delete(Collections.<Path>singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
 
+    @Test
+    public void testListSymlinksCached() throws Exception {
+        final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch", new Credentials(
+                System.getProperties().getProperty("sftp.user"), System.getProperties().getProperty("sftp.password")
+        ));
+        final SFTPSession session = new SFTPSession(host);
+        new LoginConnectionService(new DisabledLoginCallback(), new DisabledHostKeyCallback(),
+                new DisabledPasswordStore(), new DisabledProgressListener()).connect(session, PathCache.empty(), new DisabledCancelCallback());
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path directory = new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        new SFTPDirectoryFeature(session).mkdir(directory, null, new TransferStatus());
+        final Path file = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        new SFTPTouchFeature(session).touch(file, new TransferStatus());
+        final List<Path> symlinks = new ArrayList<Path>();
+        for(int i = 0; i < 5; i++) {
+            final Path symlink = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file, AbstractPath.Type.symboliclink));
+            new SFTPSymlinkFeature(session).symlink(symlink, file.getName());
+            symlinks.add(symlink);
+        }
+        PreferencesFactory.get().setProperty("sftp.listing.symlink.window", 2);
+        final PathCache cache = new PathCache(1);
+        final AttributedList<Path> list = new SFTPListService(session, cache).list(directory, new DisabledListProgressListener());
+        assertEquals(6, list.size());
+        assertFalse(cache.isCached(directory));
+        for(Path symlink : symlinks) {
+            assertTrue(list.contains(symlink));
+            assertEquals(file, list.get(symlink).getSymlinkTarget());
+        }
+        final Path stale = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        for(Path symlink : symlinks) {
+            list.get(symlink).setSymlinkTarget(stale);
+        }
+        cache.put(directory, list);
+        // Resolved from valid cached listing
+        final AttributedList<Path> cached = new SFTPListService(session, cache).list(directory, new DisabledListProgressListener());
+        for(Path symlink : symlinks) {
+            assertEquals(stale, cached.get(symlink).getSymlinkTarget());
+        }
+        cache.invalidate(directory);
+        // Resolved again after invalidating cached listing
+        final AttributedList<Path> reload = new SFTPListService(session, cache).list(directory, new DisabledListProgressListener());
+        for(Path symlink : symlinks) {
+            assertEquals(file, reload.get(symlink).getSymlinkTarget());
+        }
+        PreferencesFactory.get().deleteProperty("sftp.listing.symlink.window");
+        symlinks.add(file);
+        symlinks.add(directory);
+        new SFTPDeleteFeature(session).delete(symlinks, new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
     @Test(expected = NotfoundException.class)
     public void testListNotfound() throws Exception {
         final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch", new Credentials(
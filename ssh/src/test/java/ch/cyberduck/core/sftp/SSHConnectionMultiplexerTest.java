@@ -0,0 +1,182 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.log4j.Logger;
+import org.apache.sshd.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.sftp.SftpSubsystem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@Category(IntegrationTest.class)
+public class SSHConnectionMultiplexerTest {
+    private static final Logger log = Logger.getLogger(SSHConnectionMultiplexerTest.class);
+
+    private static int PORT_NUMBER = ThreadLocalRandom.current().nextInt(2000, 3000);
+
+    private SshServer server;
+
+    private final AtomicInteger authentications = new AtomicInteger();
+
+    @Before
+    public void start() throws Exception {
+        server = SshServer.setUpDefaultServer();
+        server.setPort(PORT_NUMBER);
+        server.setPasswordAuthenticator((username, password, session) -> {
+            authentications.incrementAndGet();
+            return true;
+        });
+        server.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+        server.setSubsystemFactories(Collections.singletonList(new SftpSubsystem.Factory()));
+        server.start();
+    }
+
+    @After
+    public void stop() throws Exception {
+        server.stop();
+        PreferencesFactory.get().deleteProperty("ssh.multiplex.channels");
+        PreferencesFactory.get().deleteProperty("ssh.multiplex.connections");
+    }
+
+    @Test
+    public void testLeaseRelease() throws Exception {
+        PreferencesFactory.get().setProperty("ssh.multiplex.channels", 2);
+        final Host host = new Host(new SFTPProtocol(), "localhost", PORT_NUMBER, new Credentials("u", "p"));
+        final SFTPSession session = new SFTPSession(host);
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final SSHConnectionMultiplexer multiplexer = new SSHConnectionMultiplexer(host, 2, 1);
+        final SSHConnectionMultiplexer.Connection connection = multiplexer.lease();
+        assertNotNull(connection);
+        assertSame(session.getClient(), connection.getClient());
+        // Exceeds channels but connection limit reached
+        assertSame(connection, multiplexer.lease());
+        assertTrue(!multiplexer.release(connection));
+        assertTrue(!multiplexer.release(connection));
+        session.close();
+        assertEquals(1, authentications.get());
+    }
+
+    @Test
+    public void testLeaseDifferentCredentials() throws Exception {
+        PreferencesFactory.get().setProperty("ssh.multiplex.channels", 2);
+        final Host host = new Host(new SFTPProtocol(), "localhost", PORT_NUMBER, new Credentials("u", "p"));
+        final SFTPSession session = new SFTPSession(host);
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        assertNull(new SSHConnectionMultiplexer(new Host(new SFTPProtocol(), "localhost", PORT_NUMBER, new Credentials("u", "p")), 2, 1).lease());
+        final Host other = new Host(new SFTPProtocol(), "localhost", PORT_NUMBER, new Credentials("u", "o"));
+        other.setUuid(host.getUuid());
+        assertNull(new SSHConnectionMultiplexer(other, 2, 1).lease());
+        session.close();
+    }
+
+    @Test
+    public void testLeaseVerifyHostKey() throws Exception {
+        PreferencesFactory.get().setProperty("ssh.multiplex.channels", 2);
+        final Host host = new Host(new SFTPProtocol(), "localhost", PORT_NUMBER, new Credentials("u", "p"));
+        final SFTPSession session = new SFTPSession(host);
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final AtomicInteger verified = new AtomicInteger();
+        final SFTPSession shared = new SFTPSession(host);
+        shared.open(new DisabledHostKeyCallback() {
+            @Override
+            public boolean verify(final String hostname, final int port, final PublicKey key) {
+                verified.incrementAndGet();
+                return true;
+            }
+        });
+        assertSame(session.getClient(), shared.getClient());
+        assertEquals(1, verified.get());
+        shared.close();
+        final SFTPSession rejected = new SFTPSession(host);
+        try {
+            rejected.open(new DisabledHostKeyCallback() {
+                @Override
+                public boolean verify(final String hostname, final int port, final PublicKey key) {
+                    return false;
+                }
+            });
+            fail();
+        }
+        catch(ConnectionCanceledException e) {
+            //
+        }
+        session.close();
+        assertEquals(1, authentications.get());
+    }
+
+    @Test
+    public void testBenchmarkOpenSessions() throws Exception {
+        final int count = 8;
+        PreferencesFactory.get().setProperty("ssh.multiplex.channels", 1);
+        final long separate = this.open(count);
+        assertEquals(count, authentications.getAndSet(0));
+        PreferencesFactory.get().setProperty("ssh.multiplex.channels", 4);
+        PreferencesFactory.get().setProperty("ssh.multiplex.connections", 2);
+        final long multiplexed = this.open(count);
+        // Single key exchange and authentication for every 4 channels
+        assertEquals(2, authentications.get());
+        log.info(String.format("Opened %d sessions in %dms with separate connections and in %dms with multiplexed channels",
+                count, separate, multiplexed));
+    }
+
+    private long open(final int count) throws Exception {
+        final Host host = new Host(new SFTPProtocol(), "localhost", PORT_NUMBER, new Credentials("u", "p"));
+        final List<SFTPSession> sessions = new ArrayList<SFTPSession>();
+        final long start = System.currentTimeMillis();
+        for(int i = 0; i < count; i++) {
+            final SFTPSession session = new SFTPSession(host);
+            session.open(new DisabledHostKeyCallback());
+            session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+            assertNotNull(session.sftp().canonicalize("."));
+            sessions.add(session);
+        }
+        final long duration = System.currentTimeMillis() - start;
+        for(SFTPSession session : sessions) {
+            session.close();
+        }
+        return duration;
+    }
+}
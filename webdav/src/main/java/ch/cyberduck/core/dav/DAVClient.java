@@ -27,14 +27,18 @@ import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.HttpClientBuilder;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import com.github.sardine.impl.SardineImpl;
 import com.github.sardine.impl.handler.VoidResponseHandler;
+import com.github.sardine.impl.methods.HttpPropFind;
 import com.github.sardine.impl.io.ContentLengthInputStream;
 
 public class DAVClient extends SardineImpl {
@@ -89,6 +93,31 @@ public class DAVClient extends SardineImpl {
         }
     }
 
+    /**
+     * Send PROPFIND request without parsing the multistatus response.
+     *
+     * @param url   Resource
+     * @param depth Depth header value
+     * @param body  Request body
+     * @return Response body to be closed by the caller to release the connection
+     */
+    public InputStream propfind(final String url, final int depth, final String body) throws IOException {
+        final HttpPropFind propfind = new HttpPropFind(url);
+        propfind.setDepth(depth < 0 ? "infinity" : Integer.toString(depth));
+        propfind.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
+        // Must use #execute without handler to read the response while it is received
+        final HttpResponse response = this.execute(propfind);
+        final VoidResponseHandler handler = new VoidResponseHandler();
+        try {
+            handler.handleResponse(response);
+            return new HttpMethodReleaseInputStream(response);
+        }
+        catch(IOException ex) {
+            propfind.abort();
+            throw ex;
+        }
+    }
+
     public HttpClientContext context() {
         return context;
     }
@@ -30,13 +30,9 @@ import ch.cyberduck.core.http.HttpExceptionMappingService;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
-import javax.xml.namespace.QName;
 import java.io.IOException;
-import java.util.Collections;
 import java.util.EnumSet;
-import java.util.List;
 
-import com.github.sardine.DavResource;
 import com.github.sardine.impl.SardineException;
 
 public class DAVListService implements ListService {
@@ -52,41 +48,49 @@ public class DAVListService implements ListService {
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         try {
             final AttributedList<Path> children = new AttributedList<Path>();
-            final List<DavResource> resources = session.getClient().list(new DAVPathEncoder().encode(directory), 1, Collections.<QName>emptySet());
-            for(final DavResource resource : resources) {
-                // Try to parse as RFC 2396
-                final String href = PathNormalizer.normalize(resource.getHref().getPath(), true);
-                if(href.equals(directory.getAbsolute())) {
-                    log.warn(String.format("Ignore resource %s", href));
-                    // Do not include self
-                    if(resource.isDirectory()) {
-                        continue;
+            // Parse multistatus response while received
+            final DAVPropfindReader reader = new DAVPropfindReader(session.getClient().propfind(
+                    new DAVPathEncoder().encode(directory), 1, DAVPropfindReader.REQUEST));
+            try {
+                DAVPropfindReader.Resource resource;
+                while((resource = reader.next()) != null) {
+                    // Try to parse as RFC 2396
+                    final String href = PathNormalizer.normalize(resource.getHref(), true);
+                    if(href.equals(directory.getAbsolute())) {
+                        log.warn(String.format("Ignore resource %s", href));
+                        // Do not include self
+                        if(resource.isDirectory()) {
+                            continue;
+                        }
+                        throw new NotfoundException(directory.getAbsolute());
                     }
-                    throw new NotfoundException(directory.getAbsolute());
-                }
-                final PathAttributes attributes = new PathAttributes();
-                if(resource.getModified() != null) {
-                    attributes.setModificationDate(resource.getModified().getTime());
-                }
-                if(resource.getCreation() != null) {
-                    attributes.setCreationDate(resource.getCreation().getTime());
-                }
-                if(resource.getContentLength() != null) {
-                    attributes.setSize(resource.getContentLength());
-                }
-                if(StringUtils.isNotBlank(resource.getEtag())) {
-                    attributes.setETag(resource.getEtag());
-                    // Setting checksum is disabled. See #8798
-                    // attributes.setChecksum(Checksum.parse(resource.getEtag()));
-                }
-                if(StringUtils.isNotBlank(resource.getDisplayName())) {
-                    attributes.setDisplayname(resource.getDisplayName());
+                    final PathAttributes attributes = new PathAttributes();
+                    if(resource.getModified() != null) {
+                        attributes.setModificationDate(resource.getModified().getTime());
+                    }
+                    if(resource.getCreation() != null) {
+                        attributes.setCreationDate(resource.getCreation().getTime());
+                    }
+                    if(resource.getContentLength() != null) {
+                        attributes.setSize(resource.getContentLength());
+                    }
+                    if(StringUtils.isNotBlank(resource.getEtag())) {
+                        attributes.setETag(resource.getEtag());
+                        // Setting checksum is disabled. See #8798
+                        // attributes.setChecksum(Checksum.parse(resource.getEtag()));
+                    }
+                    if(StringUtils.isNotBlank(resource.getDisplayName())) {
+                        attributes.setDisplayname(resource.getDisplayName());
+                    }
+                    final Path file = new Path(directory, PathNormalizer.name(href),
+                            resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file),
+                            attributes);
+                    children.add(file);
+                    listener.chunk(directory, children);
                 }
-                final Path file = new Path(directory, PathNormalizer.name(href),
-                        resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file),
-                        attributes);
-                children.add(file);
-                listener.chunk(directory, children);
+            }
+            finally {
+                reader.close();
             }
             return children;
         }
@@ -0,0 +1,325 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Date;
+
+import com.github.sardine.util.SardineUtil;
+
+/**
+ * Pull parser for a PROPFIND multistatus response returning one resource at a time without building a document
+ * model of the complete response.
+ */
+public class DAVPropfindReader implements Closeable {
+    private static final Logger log = Logger.getLogger(DAVPropfindReader.class);
+
+    private static final String NAMESPACE = "DAV:";
+
+    private static final String DIRECTORY_CONTENT_TYPE = "httpd/unix-directory";
+
+    /**
+     * Request only properties mapped to path attributes
+     */
+    public static final String REQUEST = "<?xml version=\"1.0\" encoding=\"utf-8\"?>" +
+            "<D:propfind xmlns:D=\"DAV:\"><D:prop>" +
+            "<D:resourcetype/><D:getcontenttype/><D:getcontentlength/><D:getlastmodified/><D:creationdate/><D:getetag/><D:displayname/>" +
+            "</D:prop></D:propfind>";
+
+    private static final XMLInputFactory factory;
+
+    static {
+        factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    }
+
+    private final InputStream in;
+    private final XMLStreamReader reader;
+
+    public DAVPropfindReader(final InputStream in) throws IOException {
+        this.in = in;
+        try {
+            this.reader = factory.createXMLStreamReader(in);
+        }
+        catch(XMLStreamException e) {
+            in.close();
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return Next resource in response or null when the end of the document is reached
+     */
+    public Resource next() throws IOException {
+        try {
+            while(reader.hasNext()) {
+                if(reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    if(this.isElement("response")) {
+                        final Resource resource = this.response();
+                        if(null == resource) {
+                            continue;
+                        }
+                        return resource;
+                    }
+                }
+            }
+            return null;
+        }
+        catch(XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parse response element
+     *
+     * @return Null if resource is skipped because of invalid reference
+     */
+    private Resource response() throws XMLStreamException {
+        String href = null;
+        final Resource resource = new Resource();
+        while(reader.hasNext()) {
+            final int event = reader.next();
+            if(event == XMLStreamConstants.END_ELEMENT && this.isElement("response")) {
+                break;
+            }
+            if(event == XMLStreamConstants.START_ELEMENT) {
+                if(this.isElement("href")) {
+                    href = StringUtils.trim(reader.getElementText());
+                }
+                else if(this.isElement("propstat")) {
+                    this.propstat(resource);
+                }
+            }
+        }
+        if(null == href) {
+            log.warn("Ignore response with missing href");
+            return null;
+        }
+        try {
+            resource.href = new URI(href).getPath();
+        }
+        catch(URISyntaxException e) {
+            log.warn(String.format("Ignore resource with invalid URI %s", href));
+            return null;
+        }
+        return resource;
+    }
+
+    /**
+     * Apply properties only if status of property set is successful
+     */
+    private void propstat(final Resource resource) throws XMLStreamException {
+        final Resource properties = new Resource();
+        String status = null;
+        while(reader.hasNext()) {
+            final int event = reader.next();
+            if(event == XMLStreamConstants.END_ELEMENT && this.isElement("propstat")) {
+                break;
+            }
+            if(event == XMLStreamConstants.START_ELEMENT) {
+                if(this.isElement("status")) {
+                    status = StringUtils.trim(reader.getElementText());
+                }
+                else if(this.isElement("prop")) {
+                    this.prop(properties);
+                }
+            }
+        }
+        if(null == status || StringUtils.contains(status, " 200")) {
+            resource.merge(properties);
+        }
+    }
+
+    private void prop(final Resource resource) throws XMLStreamException {
+        while(reader.hasNext()) {
+            final int event = reader.next();
+            if(event == XMLStreamConstants.END_ELEMENT && this.isElement("prop")) {
+                break;
+            }
+            if(event == XMLStreamConstants.START_ELEMENT) {
+                if(this.isElement("resourcetype")) {
+                    if(this.resourcetype()) {
+                        resource.directory = true;
+                    }
+                }
+                else if(this.isElement("getcontenttype")) {
+                    if(DIRECTORY_CONTENT_TYPE.equals(StringUtils.trim(reader.getElementText()))) {
+                        resource.directory = true;
+                    }
+                }
+                else if(this.isElement("getcontentlength")) {
+                    final String value = StringUtils.trim(reader.getElementText());
+                    if(StringUtils.isNotBlank(value)) {
+                        try {
+                            resource.contentLength = Long.parseLong(value);
+                        }
+                        catch(NumberFormatException e) {
+                            log.warn(String.format("Failure parsing content length %s", value));
+                        }
+                    }
+                }
+                else if(this.isElement("getlastmodified")) {
+                    resource.modified = this.date(reader.getElementText());
+                }
+                else if(this.isElement("creationdate")) {
+                    resource.creation = this.date(reader.getElementText());
+                }
+                else if(this.isElement("getetag")) {
+                    resource.etag = StringUtils.trimToNull(reader.getElementText());
+                }
+                else if(this.isElement("displayname")) {
+                    resource.displayName = StringUtils.trimToNull(reader.getElementText());
+                }
+                else {
+                    this.skip();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return True if resource type contains collection element
+     */
+    private boolean resourcetype() throws XMLStreamException {
+        boolean collection = false;
+        while(reader.hasNext()) {
+            final int event = reader.next();
+            if(event == XMLStreamConstants.END_ELEMENT && this.isElement("resourcetype")) {
+                break;
+            }
+            if(event == XMLStreamConstants.START_ELEMENT && this.isElement("collection")) {
+                collection = true;
+            }
+        }
+        return collection;
+    }
+
+    /**
+     * Skip unknown element including its children
+     */
+    private void skip() throws XMLStreamException {
+        int depth = 1;
+        while(depth > 0 && reader.hasNext()) {
+            final int event = reader.next();
+            if(event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            }
+            else if(event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private Date date(final String value) {
+        if(StringUtils.isBlank(value)) {
+            return null;
+        }
+        return SardineUtil.parseDate(StringUtils.trim(value));
+    }
+
+    private boolean isElement(final String name) {
+        return NAMESPACE.equals(reader.getNamespaceURI()) && name.equals(reader.getLocalName());
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        }
+        catch(XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    public static final class Resource {
+        private String href;
+        private Boolean directory;
+        private Long contentLength;
+        private Date modified;
+        private Date creation;
+        private String etag;
+        private String displayName;
+
+        private void merge(final Resource properties) {
+            if(null != properties.directory) {
+                directory = properties.directory;
+            }
+            if(null != properties.contentLength) {
+                contentLength = properties.contentLength;
+            }
+            if(null != properties.modified) {
+                modified = properties.modified;
+            }
+            if(null != properties.creation) {
+                creation = properties.creation;
+            }
+            if(null != properties.etag) {
+                etag = properties.etag;
+            }
+            if(null != properties.displayName) {
+                displayName = properties.displayName;
+            }
+        }
+
+        /**
+         * @return Decoded path of resource
+         */
+        public String getHref() {
+            return href;
+        }
+
+        public boolean isDirectory() {
+            return Boolean.TRUE.equals(directory);
+        }
+
+        public Long getContentLength() {
+            return contentLength;
+        }
+
+        public Date getModified() {
+            return modified;
+        }
+
+        public Date getCreation() {
+            return creation;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ch.cyberduck.core.dav;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class DAVPropfindReaderTest {
+
+    @Test
+    public void testNext() throws Exception {
+        final String response = "<?xml version=\"1.0\" encoding=\"utf-8\"?>" +
+                "<d:multistatus xmlns:d=\"DAV:\" xmlns:oc=\"http://owncloud.org/ns\">" +
+                "<d:response><d:href>/remote.php/webdav/</d:href>" +
+                "<d:propstat><d:prop><d:resourcetype><d:collection/></d:resourcetype></d:prop><d:status>HTTP/1.1 200 OK</d:status></d:propstat>" +
+                "</d:response>" +
+                "<d:response><d:href>/remote.php/webdav/a%20b.txt</d:href>" +
+                "<d:propstat><d:prop><d:resourcetype/><d:getcontentlength>42</d:getcontentlength>" +
+                "<d:getlastmodified>Tue, 03 Oct 2017 09:45:17 GMT</d:getlastmodified><d:getetag>\"e1\"</d:getetag>" +
+                "<oc:id><oc:nested/></oc:id></d:prop><d:status>HTTP/1.1 200 OK</d:status></d:propstat>" +
+                "<d:propstat><d:prop><d:displayname>ignored</d:displayname></d:prop><d:status>HTTP/1.1 404 Not Found</d:status></d:propstat>" +
+                "</d:response>" +
+                "</d:multistatus>";
+        final DAVPropfindReader reader = new DAVPropfindReader(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)));
+        final DAVPropfindReader.Resource directory = reader.next();
+        assertNotNull(directory);
+        assertEquals("/remote.php/webdav/", directory.getHref());
+        assertTrue(directory.isDirectory());
+        final DAVPropfindReader.Resource file = reader.next();
+        assertNotNull(file);
+        assertEquals("/remote.php/webdav/a b.txt", file.getHref());
+        assertFalse(file.isDirectory());
+        assertEquals(42L, file.getContentLength(), 0L);
+        assertEquals(1507023917000L, file.getModified().getTime());
+        assertEquals("\"e1\"", file.getEtag());
+        assertNull(file.getDisplayName());
+        assertNull(reader.next());
+        reader.close();
+    }
+}